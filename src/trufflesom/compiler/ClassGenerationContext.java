@@ -37,6 +37,7 @@ import com.oracle.truffle.api.source.SourceSection;
 import bdt.source.SourceCoordinate;
 import bdt.tools.structure.StructuralProbe;
 import trufflesom.compiler.Parser.ParseError;
+import trufflesom.vm.ClassHierarchyAnalysis;
 import trufflesom.vm.Classes;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SInvokable;
@@ -220,6 +221,10 @@ public final class ClassGenerationContext {
       structuralProbe.recordNewClass(resultClass);
     }
 
+    if (superClass == null) {
+      ClassHierarchyAnalysis.recordClassNotInheritingFromObject();
+    }
+
     // Allocate the resulting class
     SClass result = new SClass(resultClass);
 
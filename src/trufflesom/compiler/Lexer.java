@@ -24,6 +24,11 @@
 
 package trufflesom.compiler;
 
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import trufflesom.vmobjects.SSymbol;
+
+
 public class Lexer {
 
   private static final String SEPARATOR = "----";
@@ -374,6 +379,14 @@ public class Lexer {
     return state.text.toString();
   }
 
+  /**
+   * @return the symbol for the text of the current token, without creating a string for it
+   *         if the symbol exists already
+   */
+  protected SSymbol getTextSymbol() {
+    return symbolFor(state.text, 0, state.text.length());
+  }
+
   protected int getCurrentLineNumber() {
     return state.lineNumber;
   }
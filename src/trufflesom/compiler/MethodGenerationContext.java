@@ -191,6 +191,15 @@ public class MethodGenerationContext
     return throwsNonLocalReturn || accessesVariablesOfOuterScope;
   }
 
+  /**
+   * A block that reads or writes only arguments of its outer scopes does not need their
+   * frames, but only their arguments.
+   */
+  public boolean accessesOnlyArgumentsOfOuterScopes() {
+    return accessesVariablesOfOuterScope && !accessesLocalsOfOuterScope
+        && !throwsNonLocalReturn;
+  }
+
   private MethodGenerationContext markOuterContextsToRequireContextAndGetRootContext() {
     MethodGenerationContext ctx = outerGenc;
     while (ctx.outerGenc != null) {
@@ -214,7 +223,7 @@ public class MethodGenerationContext
   }
 
   public final SInvokable assemble(final ExpressionNode body, final long coord) {
-    currentScope.finalizeVariables(locals.size());
+    currentScope.finalizeVariables(locals.size(), getNumberOfStackSlots());
 
     if (primitive) {
       return Primitives.constructEmptyPrimitive(
@@ -224,6 +233,11 @@ public class MethodGenerationContext
     return assembleMethod(body, coord);
   }
 
+  /** Number of frame slots to be reserved for an operand stack. */
+  protected int getNumberOfStackSlots() {
+    return 0;
+  }
+
   protected SMethod assembleMethod(ExpressionNode body, final long coord) {
     if (needsToCatchNonLocalReturn()) {
       body = new CatchNonLocalReturnNode(
@@ -290,7 +290,7 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
 
   protected void className(final ClassGenerationContext cgenc, final int coord)
       throws ParseError {
-    cgenc.setName(symbolFor(text));
+    cgenc.setName(lexer.getTextSymbol());
 
     if ("Object".equals(text)) {
       Universe.selfCoord = getCoordWithLength(coord);
@@ -303,7 +303,7 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
   protected void superclass(final ClassGenerationContext cgenc) throws ParseError {
     SSymbol superName;
     if (sym == Identifier) {
-      superName = symbolFor(text);
+      superName = lexer.getTextSymbol();
       accept(Identifier);
     } else {
       superName = symObject;
@@ -487,7 +487,7 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
       argument(mgenc);
     } while (sym == Keyword);
 
-    mgenc.setSignature(symbolFor(kw.toString()));
+    mgenc.setSignature(symbolFor(kw, 0, kw.length()));
   }
 
   protected SSymbol unarySelector() throws ParseError {
@@ -499,7 +499,7 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
   }
 
   private SSymbol binarySelectorImpl() throws ParseError {
-    String s = new String(text);
+    SSymbol s = lexer.getTextSymbol();
 
     // Checkstyle: stop @formatter:off
     if (acceptOneOf(singleOpSyms)) {
@@ -507,7 +507,7 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
     } else { expect(NONE); }
     // Checkstyle: resume @formatter:on
 
-    return symbolFor(s);
+    return s;
   }
 
   protected SSymbol binarySelector() throws ParseError {
@@ -519,12 +519,12 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
   }
 
   private SSymbol identifier() throws ParseError {
-    String s = new String(text);
+    SSymbol s = lexer.getTextSymbol();
     boolean isPrimitive = accept(Primitive);
     if (!isPrimitive) {
       expect(Identifier);
     }
-    return symbolFor(s);
+    return s;
   }
 
   protected String keyword() throws ParseError {
@@ -679,9 +679,8 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
   }
 
   private SSymbol keywordSelector() throws ParseError {
-    String s = new String(text);
+    SSymbol symb = lexer.getTextSymbol();
     expectOneOf(keywordSelectorSyms);
-    SSymbol symb = symbolFor(s);
     return symb;
   }
 
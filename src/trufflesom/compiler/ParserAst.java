@@ -33,6 +33,7 @@ import trufflesom.interpreter.nodes.GlobalNode;
 import trufflesom.interpreter.nodes.MessageSendNode;
 import trufflesom.interpreter.nodes.SequenceNode;
 import trufflesom.interpreter.nodes.literals.BlockNode;
+import trufflesom.interpreter.nodes.literals.BlockNode.BlockNodeWithArgumentContext;
 import trufflesom.interpreter.nodes.literals.BlockNode.BlockNodeWithContext;
 import trufflesom.interpreter.nodes.literals.DoubleLiteralNode;
 import trufflesom.interpreter.nodes.literals.GenericLiteralNode;
@@ -286,7 +287,7 @@ public class ParserAst extends Parser<MethodGenerationContext> {
       arguments.add(formula(mgenc));
     } while (sym == Keyword);
 
-    SSymbol msg = symbolFor(kw.toString());
+    SSymbol msg = symbolFor(kw, 0, kw.length());
 
     long coodWithL = getCoordWithLength(coord);
 
@@ -424,7 +425,10 @@ public class ParserAst extends Parser<MethodGenerationContext> {
         SMethod blockMethod = (SMethod) bgenc.assemble(blockBody, lastMethodsCoord);
         mgenc.addEmbeddedBlockMethod(blockMethod);
 
-        if (bgenc.requiresContext()) {
+        if (bgenc.accessesOnlyArgumentsOfOuterScopes()) {
+          return new BlockNodeWithArgumentContext(blockMethod).initialize(
+              getCoordWithLength(coord));
+        } else if (bgenc.requiresContext()) {
           return new BlockNodeWithContext(blockMethod,
               bgenc.accessesLocalsOfOuterScope).initialize(getCoordWithLength(coord));
         } else {
@@ -299,7 +299,7 @@ public class ParserBc extends Parser<BytecodeMethodGenContext> {
       }
     }
 
-    SSymbol msg = symbolFor(kwStr);
+    SSymbol msg = symbolFor(kw, 0, kw.length());
 
     if (isSuperSend) {
       emitSUPERSEND(mgenc, msg, this);
@@ -24,8 +24,13 @@
  */
 package trufflesom.compiler.bc;
 
+import static trufflesom.interpreter.bc.Bytecodes.ADD;
+import static trufflesom.interpreter.bc.Bytecodes.AT;
+import static trufflesom.interpreter.bc.Bytecodes.AT_PUT;
 import static trufflesom.interpreter.bc.Bytecodes.DEC;
 import static trufflesom.interpreter.bc.Bytecodes.DUP;
+import static trufflesom.interpreter.bc.Bytecodes.EQ;
+import static trufflesom.interpreter.bc.Bytecodes.GT;
 import static trufflesom.interpreter.bc.Bytecodes.HALT;
 import static trufflesom.interpreter.bc.Bytecodes.INC;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD_PUSH;
@@ -37,6 +42,8 @@ import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_FALSE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_FALSE_TOP_NIL;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_TOP_NIL;
+import static trufflesom.interpreter.bc.Bytecodes.LT;
+import static trufflesom.interpreter.bc.Bytecodes.LTE;
 import static trufflesom.interpreter.bc.Bytecodes.POP;
 import static trufflesom.interpreter.bc.Bytecodes.POP_ARGUMENT;
 import static trufflesom.interpreter.bc.Bytecodes.POP_FIELD;
@@ -51,6 +58,7 @@ import static trufflesom.interpreter.bc.Bytecodes.PUSH_1;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARG1;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARG2;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARGUMENT;
+import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARG_FIELD_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_BLOCK;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_BLOCK_NO_CTX;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_CONSTANT;
@@ -65,6 +73,7 @@ import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_0;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_1;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_2;
+import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_CONSTANT_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_NIL;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_SELF;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_0;
@@ -74,9 +83,19 @@ import static trufflesom.interpreter.bc.Bytecodes.RETURN_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_NON_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_SELF;
 import static trufflesom.interpreter.bc.Bytecodes.SEND;
+import static trufflesom.interpreter.bc.Bytecodes.SEND_JUMP_ON_FALSE_POP;
+import static trufflesom.interpreter.bc.Bytecodes.SUB;
 import static trufflesom.interpreter.bc.Bytecodes.SUPER_SEND;
+import static trufflesom.vm.SymbolTable.symAtMsg;
+import static trufflesom.vm.SymbolTable.symAtPutMsg;
+import static trufflesom.vm.SymbolTable.symEquals;
 import static trufflesom.vm.SymbolTable.symFalse;
+import static trufflesom.vm.SymbolTable.symGreaterThan;
+import static trufflesom.vm.SymbolTable.symLessOrEqual;
+import static trufflesom.vm.SymbolTable.symLessThan;
+import static trufflesom.vm.SymbolTable.symMinus;
 import static trufflesom.vm.SymbolTable.symNil;
+import static trufflesom.vm.SymbolTable.symPlus;
 import static trufflesom.vm.SymbolTable.symTrue;
 
 import trufflesom.compiler.Parser.ParseError;
@@ -302,8 +321,49 @@ public final class BytecodeGenerator {
       final ParserBc parser) throws ParseError {
     int stackEffect = -msg.getNumberOfSignatureArguments() + 1; // +1 for the return value
 
+    if (msg.getNumberOfSignatureArguments() == 2 && mgenc.optimizeBinarySend(msg, parser)) {
+      return;
+    }
+
     byte idx = mgenc.addLiteralIfAbsent(msg, parser);
-    emit2(mgenc, SEND, idx, stackEffect);
+    emit2(mgenc, getSendBytecode(msg), idx, stackEffect);
+  }
+
+  /**
+   * Arithmetic, comparisons, and array accesses get their own bytecode,
+   * which has an inline fast path and falls back to a normal send.
+   */
+  private static byte getSendBytecode(final SSymbol msg) {
+    if (msg == symPlus) {
+      return ADD;
+    } else if (msg == symMinus) {
+      return SUB;
+    } else if (msg == symLessThan) {
+      return LT;
+    } else if (msg == symLessOrEqual) {
+      return LTE;
+    } else if (msg == symGreaterThan) {
+      return GT;
+    } else if (msg == symEquals) {
+      return EQ;
+    } else if (msg == symAtMsg) {
+      return AT;
+    } else if (msg == symAtPutMsg) {
+      return AT_PUT;
+    }
+    return SEND;
+  }
+
+  public static void emitPUSHLOCALCONSTANTSEND(final BytecodeMethodGenContext mgenc,
+      final byte localIdx, final byte literalIdx, final byte selectorIdx) {
+    // replaces two pushes, and leaves the result of the send on the stack
+    emit4(mgenc, PUSH_LOCAL_CONSTANT_SEND, localIdx, literalIdx, selectorIdx, -1);
+  }
+
+  public static void emitPUSHARGFIELDSEND(final BytecodeMethodGenContext mgenc,
+      final byte argIdx, final byte fieldIdx, final byte selectorIdx) {
+    // replaces two pushes, and leaves the result of the send on the stack
+    emit4(mgenc, PUSH_ARG_FIELD_SEND, argIdx, fieldIdx, selectorIdx, -1);
   }
 
   public static void emitPUSHCONSTANT(final BytecodeMethodGenContext mgenc, final Object lit,
@@ -354,6 +414,13 @@ public final class BytecodeGenerator {
     // this is because if the test passes, the block is inlined directly.
     // if the test fails, we need to jump.
     // Thus, an #ifTrue: needs to generated a JUMP_ON_FALSE.
+    if (isIfTrue && needsPop) {
+      int idx = mgenc.optimizeSendJumpOnFalsePop();
+      if (idx != -1) {
+        return idx;
+      }
+    }
+
     if (isIfTrue) {
       emit1(mgenc, needsPop ? JUMP_ON_FALSE_POP : JUMP_ON_FALSE_TOP_NIL, needsPop ? -1 : 0);
     } else {
@@ -364,6 +431,16 @@ public final class BytecodeGenerator {
     return idx;
   }
 
+  public static int emitSendJumpOnFalsePopWithDummyOffset(
+      final BytecodeMethodGenContext mgenc, final byte selectorIdx) {
+    // the stack effect of the send was already accounted for, when it was emitted
+    emit1(mgenc, SEND_JUMP_ON_FALSE_POP, -1);
+    int idx = mgenc.addBytecodeArgumentAndGetIndex((byte) 0);
+    mgenc.addBytecodeArgument((byte) 0);
+    mgenc.addBytecodeArgument(selectorIdx);
+    return idx;
+  }
+
   public static void emitJumpWithOffset(final BytecodeMethodGenContext mgenc,
       final byte offset1, final byte offset2) {
     emit3(mgenc, offset2 == 0 ? JUMP : JUMP2, offset1, offset2, 0);
@@ -412,4 +489,12 @@ public final class BytecodeGenerator {
     mgenc.addBytecodeArgument(idx);
     mgenc.addBytecodeArgument(ctx);
   }
+
+  public static void emit4(final BytecodeMethodGenContext mgenc, final byte code,
+      final byte arg1, final byte arg2, final byte arg3, final int stackEffect) {
+    mgenc.addBytecode(code, stackEffect);
+    mgenc.addBytecodeArgument(arg1);
+    mgenc.addBytecodeArgument(arg2);
+    mgenc.addBytecodeArgument(arg3);
+  }
 }
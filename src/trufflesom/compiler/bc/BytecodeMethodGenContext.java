@@ -4,8 +4,13 @@ import static trufflesom.compiler.bc.BytecodeGenerator.emitJumpBackwardsWithOffs
 import static trufflesom.compiler.bc.BytecodeGenerator.emitJumpOnBoolWithDummyOffset;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitJumpWithDummyOffset;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitPOP;
+import static trufflesom.compiler.bc.BytecodeGenerator.emitPUSHARGFIELDSEND;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitPUSHCONSTANT;
+import static trufflesom.compiler.bc.BytecodeGenerator.emitPUSHLOCALCONSTANTSEND;
+import static trufflesom.compiler.bc.BytecodeGenerator.emitSendJumpOnFalsePopWithDummyOffset;
 import static trufflesom.interpreter.bc.Bytecodes.DUP;
+import static trufflesom.interpreter.bc.Bytecodes.EQ;
+import static trufflesom.interpreter.bc.Bytecodes.GT;
 import static trufflesom.interpreter.bc.Bytecodes.INC;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD_PUSH;
@@ -13,6 +18,8 @@ import static trufflesom.interpreter.bc.Bytecodes.INVALID;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP2;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_BYTECODES;
+import static trufflesom.interpreter.bc.Bytecodes.LT;
+import static trufflesom.interpreter.bc.Bytecodes.LTE;
 import static trufflesom.interpreter.bc.Bytecodes.POP;
 import static trufflesom.interpreter.bc.Bytecodes.POP_ARGUMENT;
 import static trufflesom.interpreter.bc.Bytecodes.POP_FIELD;
@@ -48,6 +55,8 @@ import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_1;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_2;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_SELF;
+import static trufflesom.interpreter.bc.Bytecodes.SEND;
+import static trufflesom.interpreter.bc.Bytecodes.SEND_JUMP_ON_FALSE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.getBytecodeLength;
 import static trufflesom.vm.SymbolTable.symSelf;
 
@@ -74,6 +83,7 @@ import trufflesom.interpreter.nodes.bc.BytecodeLoopNode;
 import trufflesom.interpreter.nodes.bc.BytecodeLoopNode.BackJump;
 import trufflesom.interpreter.nodes.literals.LiteralNode;
 import trufflesom.vm.NotYetImplementedException;
+import trufflesom.vm.VmSettings;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SAbstractObject;
 import trufflesom.vmobjects.SClass;
@@ -189,10 +199,12 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
       bytecode.set(idxOfOffset, (byte) jumpOffset);
       bytecode.set(idxOfOffset + 1, (byte) 0);
     } else {
-      int offsetOfBytecode = idxOfOffset - 1;
-      // we need two bytes for the jump offset
-      bytecode.set(offsetOfBytecode,
-          (byte) (bytecode.get(offsetOfBytecode) + Bytecodes.NUM_1_BYTE_JUMP_BYTECODES));
+      // we need two bytes for the jump offset,
+      // which SEND_JUMP_ON_FALSE_POP always has, so, it has no JUMP2 variant
+      if (bytecodeBeforeOffset != SEND_JUMP_ON_FALSE_POP) {
+        bytecode.set(instructionStart,
+            (byte) (bytecodeBeforeOffset + Bytecodes.NUM_1_BYTE_JUMP_BYTECODES));
+      }
 
       byte byte1 = (byte) jumpOffset;
       byte byte2 = (byte) (jumpOffset >> 8);
@@ -372,6 +384,14 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     return null;
   }
 
+  @Override
+  protected int getNumberOfStackSlots() {
+    if (VmSettings.UseFrameStack) {
+      return maxStackDepth;
+    }
+    return 0;
+  }
+
   @Override
   protected SMethod assembleMethod(final ExpressionNode unused, final long coord) {
     ExpressionNode body = constructTrivialBody();
@@ -385,8 +405,9 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
 
   /**
    * Invalidate last4Bytecodes to avoid optimizations which mess with branches.
+   * Needs to be called whenever the next instruction is a jump target.
    */
-  private void resetLastBytecodeBuffer() {
+  public void resetLastBytecodeBuffer() {
     last4Bytecodes[0] = last4Bytecodes[1] = last4Bytecodes[2] = last4Bytecodes[3] = -1;
   }
 
@@ -463,6 +484,9 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
   private static final byte[] DUP_BYTECODES = new byte[] {DUP};
   private static final byte[] INC_BYTECODES = new byte[] {INC};
 
+  private static final byte[] SEND_OR_COMPARISON_BYTECODES =
+      new byte[] {SEND, LT, LTE, GT, EQ};
+
   private static final byte[] PUSH_BLOCK_BYTECODES =
       new byte[] {PUSH_BLOCK, PUSH_BLOCK_NO_CTX};
 
@@ -474,6 +498,12 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
   private static final byte[] PUSH_FIELD_BYTECODES = new byte[] {
       PUSH_FIELD, PUSH_FIELD_0, PUSH_FIELD_1};
 
+  private static final byte[] PUSH_LOCAL_BYTECODES = new byte[] {
+      PUSH_LOCAL, PUSH_LOCAL_0, PUSH_LOCAL_1, PUSH_LOCAL_2};
+
+  private static final byte[] PUSH_ARGUMENT_BYTECODES = new byte[] {
+      PUSH_ARGUMENT, PUSH_SELF, PUSH_ARG1, PUSH_ARG2};
+
   private static final byte[] POP_FIELD_BYTECODES = new byte[] {
       POP_FIELD, POP_FIELD_0, POP_FIELD_1};
 
@@ -664,7 +694,8 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
       case POP_LOCAL:
       case POP_ARGUMENT:
       case POP_FIELD:
-      case INC_FIELD_PUSH: {
+      case INC_FIELD_PUSH:
+      case SEND: {
         int bcOffset = getOffsetOfLastBytecode(idxFromEnd);
         return bytecode.get(bcOffset + 1);
       }
@@ -675,6 +706,26 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     }
   }
 
+  /**
+   * @return the context level of a push bytecode, the short forms are all in context 0
+   */
+  private byte getContextOfPush(final int idxFromEnd) {
+    byte actual = last4Bytecodes[last4Bytecodes.length - 1 - idxFromEnd];
+
+    switch (actual) {
+      case PUSH_LOCAL:
+      case PUSH_ARGUMENT:
+      case PUSH_FIELD: {
+        int bcOffset = getOffsetOfLastBytecode(idxFromEnd);
+        return bytecode.get(bcOffset + 2);
+      }
+
+      default:
+        assert actual != INVALID;
+        return 0;
+    }
+  }
+
   private byte[] getIndexAndContext(final int idxFromEnd) {
     byte actual = last4Bytecodes[last4Bytecodes.length - 1 - idxFromEnd];
 
@@ -799,6 +850,92 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     return true;
   }
 
+  private byte getLiteralIndexOfPushConstant(final byte pushCandidate, final ParserBc parser)
+      throws ParseError {
+    switch (pushCandidate) {
+      case PUSH_0:
+        return addLiteralIfAbsent(0L, parser);
+      case PUSH_1:
+        return addLiteralIfAbsent(1L, parser);
+      case PUSH_NIL:
+        return addLiteralIfAbsent(Nil.nilObject, parser);
+      default:
+        return getIndex(0);
+    }
+  }
+
+  /**
+   * Try to fuse the pushes of receiver and argument with the binary send that is about to be
+   * emitted, for sequences such as {@code i < 10} or {@code arg = field}.
+   * This gives a PUSH_LOCAL_CONSTANT_SEND or PUSH_ARG_FIELD_SEND superinstruction.
+   * Only locals, arguments, and fields of the current context are supported.
+   *
+   * @return true, if it optimized it.
+   */
+  public boolean optimizeBinarySend(final SSymbol msg, final ParserBc parser)
+      throws ParseError {
+    assert msg.getNumberOfSignatureArguments() == 2;
+
+    if (lastBytecodeIsOneOf(1, PUSH_LOCAL_BYTECODES) != INVALID
+        && getContextOfPush(1) == 0) {
+      byte argCandidate = lastBytecodeIsOneOf(0, PUSH_CONSTANT_BYTECODES);
+      if (argCandidate == INVALID) {
+        return false;
+      }
+
+      byte localIdx = getIndex(1);
+      byte literalIdx = getLiteralIndexOfPushConstant(argCandidate, parser);
+      byte selectorIdx = addLiteralIfAbsent(msg, parser);
+
+      removeLastBytecodes(2); // remove the push bytecodes
+      resetLastBytecodeBuffer();
+
+      emitPUSHLOCALCONSTANTSEND(this, localIdx, literalIdx, selectorIdx);
+      return true;
+    }
+
+    if (lastBytecodeIsOneOf(1, PUSH_ARGUMENT_BYTECODES) != INVALID
+        && getContextOfPush(1) == 0
+        && lastBytecodeIsOneOf(0, PUSH_FIELD_BYTECODES) != INVALID
+        && getContextOfPush(0) == 0) {
+      byte argIdx = getIndex(1);
+      byte fieldIdx = getIndex(0);
+      byte selectorIdx = addLiteralIfAbsent(msg, parser);
+
+      removeLastBytecodes(2); // remove the push bytecodes
+      resetLastBytecodeBuffer();
+
+      emitPUSHARGFIELDSEND(this, argIdx, fieldIdx, selectorIdx);
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Try to fuse a binary send with the JUMP_ON_FALSE_POP that is about to be emitted,
+   * which is the typical sequence for conditions such as {@code [ i < n ] whileTrue: [...]}.
+   * Comparisons are fused as well, and SEND_JUMP_ON_FALSE_POP keeps their fast path.
+   *
+   * @return the index of the jump offset to be patched, or -1 if not optimized
+   */
+  public int optimizeSendJumpOnFalsePop() {
+    if (lastBytecodeIsOneOf(0, SEND_OR_COMPARISON_BYTECODES) == INVALID) {
+      return -1;
+    }
+
+    byte selectorIdx = getIndex(0);
+    SSymbol selector = (SSymbol) literals.get(selectorIdx);
+    if (selector.getNumberOfSignatureArguments() != 2) {
+      return -1;
+    }
+
+    removeLastBytecodes(1); // remove the SEND bytecode
+    resetLastBytecodeBuffer();
+
+    return emitSendJumpOnFalsePopWithDummyOffset(this, selectorIdx);
+  }
+
   public boolean inlineIfTrueOrIfFalse(final ParserBc parser, final boolean ifTrue)
       throws ParseError {
     // HACK: we do assume that the receiver on the stack is a boolean
@@ -922,6 +1059,7 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     SMethod bodyMethod = (SMethod) literals.get(block2LiteralIdx);
 
     removeLastBytecodes(2); // remove the PUSH_BLOCK bytecodes
+    resetLastBytecodeBuffer(); // the loop begin is a jump target
 
     int loopBeginIdx = offsetOfNextInstruction();
 
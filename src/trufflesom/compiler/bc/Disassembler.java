@@ -27,6 +27,11 @@
 package trufflesom.compiler.bc;
 
 import static trufflesom.compiler.bc.BytecodeMethodGenContext.getJumpOffset;
+import static trufflesom.interpreter.bc.Bytecodes.ADD;
+import static trufflesom.interpreter.bc.Bytecodes.AT;
+import static trufflesom.interpreter.bc.Bytecodes.AT_PUT;
+import static trufflesom.interpreter.bc.Bytecodes.EQ;
+import static trufflesom.interpreter.bc.Bytecodes.GT;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD_PUSH;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP;
@@ -41,10 +46,13 @@ import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_FALSE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_FALSE_TOP_NIL;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_TOP_NIL;
+import static trufflesom.interpreter.bc.Bytecodes.LT;
+import static trufflesom.interpreter.bc.Bytecodes.LTE;
 import static trufflesom.interpreter.bc.Bytecodes.POP_ARGUMENT;
 import static trufflesom.interpreter.bc.Bytecodes.POP_FIELD;
 import static trufflesom.interpreter.bc.Bytecodes.POP_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARGUMENT;
+import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARG_FIELD_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_BLOCK;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_BLOCK_NO_CTX;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_CONSTANT;
@@ -54,6 +62,7 @@ import static trufflesom.interpreter.bc.Bytecodes.PUSH_CONSTANT_2;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_FIELD;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_GLOBAL;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL;
+import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_CONSTANT_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.Q_PUSH_GLOBAL;
 import static trufflesom.interpreter.bc.Bytecodes.Q_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.Q_SEND_1;
@@ -61,6 +70,8 @@ import static trufflesom.interpreter.bc.Bytecodes.Q_SEND_2;
 import static trufflesom.interpreter.bc.Bytecodes.Q_SEND_3;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_NON_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.SEND;
+import static trufflesom.interpreter.bc.Bytecodes.SEND_JUMP_ON_FALSE_POP;
+import static trufflesom.interpreter.bc.Bytecodes.SUB;
 import static trufflesom.interpreter.bc.Bytecodes.SUPER_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.getBytecodeLength;
 import static trufflesom.interpreter.bc.Bytecodes.getPaddedBytecodeName;
@@ -309,7 +320,15 @@ public class Disassembler {
         case Q_SEND_2:
         case Q_SEND_3:
         case SEND:
-        case SUPER_SEND: {
+        case SUPER_SEND:
+        case ADD:
+        case SUB:
+        case LT:
+        case LTE:
+        case GT:
+        case EQ:
+        case AT:
+        case AT_PUT: {
           int idx = bytecodes.get(b + 1);
           Universe.errorPrint("(index: " + idx + ")");
           if (m != null) {
@@ -324,6 +343,33 @@ public class Disassembler {
           break;
         }
 
+        case PUSH_LOCAL_CONSTANT_SEND: {
+          int idx = bytecodes.get(b + 1);
+          String localName = "";
+          if (m != null) {
+            localName = " name: " + m.getNameOfLocal(idx);
+          }
+          Universe.errorPrint("local: " + idx + localName
+              + ", constant: (index: " + bytecodes.get(b + 2) + ")");
+          printSendSignature(m, bytecodes.get(b + 3));
+          break;
+        }
+
+        case PUSH_ARG_FIELD_SEND: {
+          Universe.errorPrint("argument: " + bytecodes.get(b + 1)
+              + ", field: (index: " + bytecodes.get(b + 2) + ")");
+          printSendSignature(m, bytecodes.get(b + 3));
+          break;
+        }
+
+        case SEND_JUMP_ON_FALSE_POP: {
+          int offset = getJumpOffset(bytecodes.get(b + 1), bytecodes.get(b + 2));
+          Universe.errorPrint(
+              "(jump offset: " + offset + " -> jump target: " + (b + offset) + ")");
+          printSendSignature(m, bytecodes.get(b + 3));
+          break;
+        }
+
         default: {
           // parameters (if any)
           if (getBytecodeLength(bytecode) == 1) {
@@ -337,4 +383,12 @@ public class Disassembler {
     Universe.errorPrintln(indent + ")");
   }
 
+  private static void printSendSignature(final BytecodeLoopNode m, final int idx) {
+    Universe.errorPrint(", send: (index: " + idx + ")");
+    if (m != null) {
+      Universe.errorPrint(" signature: " + ((SSymbol) m.getConstant(idx)).toString());
+    }
+    Universe.errorPrintln();
+  }
+
 }
@@ -23,19 +23,61 @@
  */
 package trufflesom.interpreter;
 
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.nodes.ControlFlowException;
+
+
 /**
  * The FrameOnStackMarker is a marker to represent the identity of frames, and
  * to keep track on the status of whether the frame is still on the stack.
  * Currently it is used to implement non-local returns by marking
  * stack frames with it, and checking for the marker during unwinding.
  *
+ * <p>
+ * The marker is itself thrown for a non-local return to its frame, with the result
+ * set just before. It is only allocated on the first non-local return to a frame, which
+ * also ends the activation. Thus, activations without non-local returns do not allocate
+ * it at all, and each activation allocates at most one.
+ *
  * @author Stefan Marr
  */
-public final class FrameOnStackMarker {
+public final class FrameOnStackMarker extends ControlFlowException {
+  private static final long serialVersionUID = -6519286484215290133L;
+
+  /** Marks frames that returned before any non-local return to them. */
+  private static final FrameOnStackMarker NO_LONGER_ON_STACK = new FrameOnStackMarker(false);
+
   private boolean isOnStack;
 
-  public FrameOnStackMarker() {
-    isOnStack = true;
+  private transient Object result;
+
+  private FrameOnStackMarker(final boolean isOnStack) {
+    this.isOnStack = isOnStack;
+  }
+
+  /**
+   * @return the marker of the frame, which is created if there was no non-local return to
+   *         the frame yet
+   */
+  public static FrameOnStackMarker markerFor(final Frame frame, final int markerIndex) {
+    Object marker = frame.getObject(markerIndex);
+    if (marker instanceof FrameOnStackMarker) {
+      return (FrameOnStackMarker) marker;
+    }
+
+    FrameOnStackMarker newMarker = new FrameOnStackMarker(true);
+    frame.setObject(markerIndex, newMarker);
+    return newMarker;
+  }
+
+  /** Needs to be called when the activation of the frame ends. */
+  public static void frameNoLongerOnStack(final Frame frame, final int markerIndex) {
+    Object marker = frame.getObject(markerIndex);
+    if (marker instanceof FrameOnStackMarker) {
+      ((FrameOnStackMarker) marker).frameNoLongerOnStack();
+    } else {
+      frame.setObject(markerIndex, NO_LONGER_ON_STACK);
+    }
   }
 
   public void frameNoLongerOnStack() {
@@ -45,4 +87,16 @@ public final class FrameOnStackMarker {
   public boolean isOnStack() {
     return isOnStack;
   }
+
+  /**
+   * @return this marker, to be thrown to return the result from the marked frame
+   */
+  public FrameOnStackMarker returnWith(final Object result) {
+    this.result = result;
+    return this;
+  }
+
+  public Object result() {
+    return result;
+  }
 }
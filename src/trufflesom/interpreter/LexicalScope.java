@@ -28,6 +28,7 @@ public final class LexicalScope implements Scope<LexicalScope, Method> {
   @CompilationFinal(dimensions = 1) private LexicalScope[] embeddedScopes;
 
   private int numberOfLocals;
+  private int numberOfStackSlots;
 
   public LexicalScope(final LexicalScope outerScope) {
     this.outerScope = outerScope;
@@ -73,14 +74,26 @@ public final class LexicalScope implements Scope<LexicalScope, Method> {
   }
 
   public void finalizeVariables(final int numLocals) {
-    Builder builder = FrameDescriptor.newBuilder(numLocals);
+    finalizeVariables(numLocals, 0);
+  }
+
+  /**
+   * @param numStackSlots number of slots reserved after the locals
+   *          for the operand stack of the bytecode interpreter
+   */
+  public void finalizeVariables(final int numLocals, final int numStackSlots) {
+    Builder builder = FrameDescriptor.newBuilder(numLocals + numStackSlots);
     builder.defaultValue(Nil.nilObject);
     builder.addSlots(numLocals, FrameSlotKind.Illegal);
+    if (numStackSlots > 0) {
+      builder.addSlots(numStackSlots, FrameSlotKind.Illegal);
+    }
     frameDescriptor = builder.build();
 
     assert frameDescriptor != null;
 
     numberOfLocals = numLocals;
+    numberOfStackSlots = numStackSlots;
 
     if (variables == null) {
       return;
@@ -175,7 +188,7 @@ public final class LexicalScope implements Scope<LexicalScope, Method> {
     }
     split.setVariables(newVars);
     split.setMethod(method);
-    split.finalizeVariables(numberOfLocals);
+    split.finalizeVariables(numberOfLocals, numberOfStackSlots);
 
     return split;
   }
@@ -0,0 +1,158 @@
+package trufflesom.interpreter.bc;
+
+import static trufflesom.interpreter.bc.Bytecodes.HALT;
+import static trufflesom.interpreter.bc.Bytecodes.JUMP;
+import static trufflesom.interpreter.bc.Bytecodes.JUMP2;
+import static trufflesom.interpreter.bc.Bytecodes.JUMP2_BACKWARDS;
+import static trufflesom.interpreter.bc.Bytecodes.JUMP_BACKWARDS;
+import static trufflesom.interpreter.bc.Bytecodes.NUM_BYTECODES;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_0;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_1;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_2;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_LOCAL;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_NON_LOCAL;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_SELF;
+import static trufflesom.interpreter.bc.Bytecodes.getBytecodeLength;
+import static trufflesom.interpreter.bc.Bytecodes.getBytecodeName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
+
+
+/**
+ * Counts how often pairs and triples of bytecodes are executed in the interpreter,
+ * to find candidates for superinstructions.
+ *
+ * <p>
+ * A sequence is formed by the executed bytecode and the ones following it in the method,
+ * because only such sequences can be fused by the compiler. Sequences end at jumps and
+ * returns, since the next bytecode in the method is not necessarily the next one executed.
+ */
+public final class BytecodeProfiler {
+  private static final int NUM_REPORTED = 20;
+
+  private static final long[] singles;
+  private static final long[] pairs;
+  private static final long[] triples;
+
+  static {
+    if (VmSettings.ProfileBytecodes) {
+      singles = new long[NUM_BYTECODES];
+      pairs = new long[NUM_BYTECODES * NUM_BYTECODES];
+      triples = new long[NUM_BYTECODES * NUM_BYTECODES * NUM_BYTECODES];
+    } else {
+      singles = null;
+      pairs = null;
+      triples = null;
+    }
+  }
+
+  private BytecodeProfiler() {}
+
+  private static boolean endsSequence(final byte bytecode) {
+    switch (bytecode) {
+      case HALT:
+      case RETURN_LOCAL:
+      case RETURN_NON_LOCAL:
+      case RETURN_SELF:
+      case RETURN_FIELD_0:
+      case RETURN_FIELD_1:
+      case RETURN_FIELD_2:
+      case JUMP:
+      case JUMP2:
+      case JUMP_BACKWARDS:
+      case JUMP2_BACKWARDS:
+        return true;
+      default:
+        return Bytecodes.isOneOf(bytecode, Bytecodes.JUMP_BYTECODES);
+    }
+  }
+
+  @TruffleBoundary
+  public static void record(final byte[] bytecodes, final int bytecodeIndex) {
+    byte first = bytecodes[bytecodeIndex];
+    singles[first] += 1;
+
+    if (endsSequence(first)) {
+      return;
+    }
+
+    int secondIdx = bytecodeIndex + getBytecodeLength(first);
+    if (secondIdx >= bytecodes.length) {
+      return;
+    }
+
+    byte second = bytecodes[secondIdx];
+    pairs[first * NUM_BYTECODES + second] += 1;
+
+    if (endsSequence(second)) {
+      return;
+    }
+
+    int thirdIdx = secondIdx + getBytecodeLength(second);
+    if (thirdIdx >= bytecodes.length) {
+      return;
+    }
+
+    byte third = bytecodes[thirdIdx];
+    triples[(first * NUM_BYTECODES + second) * NUM_BYTECODES + third] += 1;
+  }
+
+  /**
+   * Prints the most frequent bytecodes, pairs, and triples. Each line gives the share of all
+   * executed bytecodes, the absolute count, and the sequence, for instance:
+   *
+   * <pre>
+   * [BytecodeProfiler] top pairs:
+   *   12.50%         4200  PUSH_LOCAL_0 PUSH_1
+   * </pre>
+   */
+  @TruffleBoundary
+  public static void reportStatistics() {
+    long total = 0;
+    for (long c : singles) {
+      total += c;
+    }
+
+    Universe.errorPrintln("[BytecodeProfiler] executed bytecodes: " + total);
+    report("bytecodes", singles, 1, total);
+    report("pairs", pairs, 2, total);
+    report("triples", triples, 3, total);
+  }
+
+  private static void report(final String kind, final long[] counts, final int length,
+      final long total) {
+    List<Integer> sequences = new ArrayList<>();
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        sequences.add(i);
+      }
+    }
+    sequences.sort((a, b) -> Long.compare(counts[b], counts[a]));
+
+    Universe.errorPrintln("[BytecodeProfiler] top " + kind + ":");
+    for (int i = 0; i < Math.min(NUM_REPORTED, sequences.size()); i++) {
+      int seq = sequences.get(i);
+      long count = counts[seq];
+      double share = total == 0 ? 0.0 : 100.0 * count / total;
+      Universe.errorPrintln(String.format("  %6.2f%% %12d  %s", share, count,
+          sequenceToString(seq, length)));
+    }
+  }
+
+  private static String sequenceToString(final int sequence, final int length) {
+    String result = "";
+    int seq = sequence;
+    for (int i = 0; i < length; i++) {
+      String name = getBytecodeName((byte) (seq % NUM_BYTECODES));
+      result = i == 0 ? name : name + " " + result;
+      seq /= NUM_BYTECODES;
+    }
+    return result;
+  }
+}
@@ -113,6 +113,25 @@ public class Bytecodes {
   public static final byte Q_SEND_2      = 59;
   public static final byte Q_SEND_3      = 60;
 
+  // Superinstructions, fusing frequent sequences that involve a binary send.
+  // PUSH_LOCAL_CONSTANT_SEND: local idx, literal idx, selector idx
+  // PUSH_ARG_FIELD_SEND:      argument idx, field idx, selector idx
+  // SEND_JUMP_ON_FALSE_POP:   jump offset (2 bytes), selector idx
+  public static final byte PUSH_LOCAL_CONSTANT_SEND = 61;
+  public static final byte PUSH_ARG_FIELD_SEND      = 62;
+  public static final byte SEND_JUMP_ON_FALSE_POP   = 63;
+
+  // Arithmetic, comparison, and array access with an inline fast path
+  // for longs, doubles, and arrays. Operand: selector idx for the fallback send
+  public static final byte ADD    = 64;
+  public static final byte SUB    = 65;
+  public static final byte LT     = 66;
+  public static final byte LTE    = 67;
+  public static final byte GT     = 68;
+  public static final byte EQ     = 69;
+  public static final byte AT     = 70;
+  public static final byte AT_PUT = 71;
+
   public static final byte INVALID = -1;
 
   public static final byte NUM_1_BYTE_JUMP_BYTECODES = 6;
@@ -141,6 +160,7 @@ public class Bytecodes {
   public static final byte LEN_NO_ARG     = 1;
   public static final byte LEN_TWO_ARGS   = 2;
   public static final byte LEN_THREE_ARGS = 3;
+  public static final byte LEN_FOUR_ARGS  = 4;
 
   public static int getBytecodeLength(final byte bytecode) {
     return BYTECODE_LENGTH[bytecode];
@@ -153,7 +173,8 @@ public class Bytecodes {
       JUMP, JUMP_ON_TRUE_TOP_NIL, JUMP_ON_TRUE_POP,
       JUMP_ON_FALSE_TOP_NIL, JUMP_ON_FALSE_POP, JUMP_BACKWARDS,
       JUMP2, JUMP2_ON_TRUE_TOP_NIL, JUMP2_ON_TRUE_POP,
-      JUMP2_ON_FALSE_TOP_NIL, JUMP2_ON_FALSE_POP, JUMP_BACKWARDS
+      JUMP2_ON_FALSE_TOP_NIL, JUMP2_ON_FALSE_POP, JUMP_BACKWARDS,
+      SEND_JUMP_ON_FALSE_POP
   };
 
   public static final boolean isOneOf(final byte bytecode, final byte[] arr) {
@@ -166,7 +187,7 @@ public class Bytecodes {
   }
 
   static {
-    NUM_BYTECODES = Q_SEND_3 + 1;
+    NUM_BYTECODES = AT_PUT + 1;
 
     PADDED_BYTECODE_NAMES = new String[] {
         "HALT            ",
@@ -247,6 +268,19 @@ public class Bytecodes {
         "Q_SEND_1        ",
         "Q_SEND_2        ",
         "Q_SEND_3        ",
+
+        "PUSH_LOCAL_CONSTANT_SEND",
+        "PUSH_ARG_FIELD_SEND",
+        "SEND_JUMP_ON_FALSE_POP",
+
+        "ADD             ",
+        "SUB             ",
+        "LT              ",
+        "LTE             ",
+        "GT              ",
+        "EQ              ",
+        "AT              ",
+        "AT_PUT          ",
     };
 
     assert PADDED_BYTECODE_NAMES.length == NUM_BYTECODES : "Inconsistency between number of bytecodes and defined padded names";
@@ -329,6 +363,19 @@ public class Bytecodes {
         2, // Q_SEND_1
         2, // Q_SEND_2
         2, // Q_SEND_3
+
+        4, // PUSH_LOCAL_CONSTANT_SEND
+        4, // PUSH_ARG_FIELD_SEND
+        4, // SEND_JUMP_ON_FALSE_POP
+
+        2, // ADD
+        2, // SUB
+        2, // LT
+        2, // LTE
+        2, // GT
+        2, // EQ
+        2, // AT
+        2, // AT_PUT
     };
 
     assert BYTECODE_LENGTH.length == NUM_BYTECODES : "The BYTECODE_LENGTH array is not having the same size as number of bytecodes";
@@ -94,6 +94,12 @@ public abstract class FieldNode extends ExpressionNode {
       return read.readDouble(obj);
     }
 
+    @Override
+    public boolean executeBoolean(final VirtualFrame frame) throws UnexpectedResultException {
+      SObject obj = (SObject) self.executeGeneric(frame);
+      return read.readBoolean(obj);
+    }
+
     @Override
     public Object executeGeneric(final VirtualFrame frame) {
       SObject obj = (SObject) self.executeGeneric(frame);
@@ -232,6 +238,12 @@ public abstract class FieldNode extends ExpressionNode {
       return write.write(self, value);
     }
 
+    @Specialization
+    public boolean doBoolean(final VirtualFrame frame, final SObject self,
+        final boolean value) {
+      return write.write(self, value);
+    }
+
     @Specialization
     public Object doObject(final VirtualFrame frame, final SObject self,
         final Object value) {
@@ -288,7 +300,7 @@ public abstract class FieldNode extends ExpressionNode {
       long longVal = 0;
       try {
         longVal = Math.addExact((Long) val, 1);
-        obj.setField(fieldIndex, longVal);
+        obj.setIncrementedField(fieldIndex, longVal);
       } catch (ArithmeticException e) {
         throw new NotYetImplementedException();
       }
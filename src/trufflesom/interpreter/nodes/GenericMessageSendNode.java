@@ -1,5 +1,6 @@
 package trufflesom.interpreter.nodes;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.ProbeNode;
 import com.oracle.truffle.api.nodes.NodeCost;
@@ -16,6 +17,9 @@ public class GenericMessageSendNode extends AbstractMessageSendNode {
 
   @Child private AbstractDispatchNode dispatchNode;
 
+  /** Used to decide whether the inline cache may grow beyond its default size. */
+  private long numCallsInInterpreter;
+
   GenericMessageSendNode(final SSymbol selector, final ExpressionNode[] arguments,
       final AbstractDispatchNode dispatchNode) {
     super(selector.getNumberOfSignatureArguments(), arguments);
@@ -34,9 +38,16 @@ public class GenericMessageSendNode extends AbstractMessageSendNode {
   @Override
   public Object doPreEvaluated(final VirtualFrame frame,
       final Object[] arguments) {
+    if (CompilerDirectives.inInterpreter()) {
+      numCallsInInterpreter += 1;
+    }
     return dispatchNode.executeDispatch(frame, arguments);
   }
 
+  public long getNumberOfCallsInInterpreter() {
+    return numCallsInInterpreter;
+  }
+
   @Override
   public String toString() {
     return "GMsgSend(" + selector.getString() + ")";
@@ -29,7 +29,6 @@ import bdt.inlining.ScopeAdaptationVisitor;
 import bdt.inlining.ScopeAdaptationVisitor.ScopeElement;
 import trufflesom.compiler.Variable.Internal;
 import trufflesom.interpreter.FrameOnStackMarker;
-import trufflesom.interpreter.ReturnException;
 import trufflesom.vmobjects.SAbstractObject;
 import trufflesom.vmobjects.SBlock;
 
@@ -61,10 +60,10 @@ public final class ReturnNonLocalNode extends ContextualNode {
     Object result = expression.executeGeneric(frame);
 
     MaterializedFrame ctx = determineContext(frame);
-    FrameOnStackMarker marker = (FrameOnStackMarker) ctx.getObject(onStackMarkerIndex);
+    FrameOnStackMarker marker = FrameOnStackMarker.markerFor(ctx, onStackMarkerIndex);
 
     if (marker.isOnStack()) {
-      throw new ReturnException(result, marker);
+      throw marker.returnWith(result);
     } else {
       blockEscaped.enter();
       SBlock block = (SBlock) frame.getArguments()[0];
@@ -113,14 +112,14 @@ public final class ReturnNonLocalNode extends ContextualNode {
     @Override
     public Object executeGeneric(final VirtualFrame frame) {
       Object result = expression.executeGeneric(frame);
-      FrameOnStackMarker marker = (FrameOnStackMarker) frame.getObject(onStackMarkerIndex);
+      FrameOnStackMarker marker = FrameOnStackMarker.markerFor(frame, onStackMarkerIndex);
 
       // this ReturnLocalNode should only become part of an AST because of
       // inlining a literal block, and that block, should never be
       // captured as a value and passed around. Because, we should only ever
       // do the inlining for blocks where we know this doesn't happen.
       assert marker.isOnStack();
-      throw new ReturnException(result, marker);
+      throw marker.returnWith(result);
     }
 
     @Override
@@ -162,14 +161,11 @@ public final class ReturnNonLocalNode extends ContextualNode {
 
     @Override
     public Object executeGeneric(final VirtualFrame frame) {
-      FrameOnStackMarker marker = new FrameOnStackMarker();
-      frame.setObject(onStackMarkerIndex, marker);
-
       try {
         return methodBody.executeGeneric(frame);
-      } catch (ReturnException e) {
+      } catch (FrameOnStackMarker e) {
         nonLocalReturnHandler.enter();
-        if (!e.reachedTarget(marker)) {
+        if (e != frame.getObject(onStackMarkerIndex)) {
           doPropagate.enter();
           throw e;
         } else {
@@ -177,7 +173,7 @@ public final class ReturnNonLocalNode extends ContextualNode {
           return e.result();
         }
       } finally {
-        marker.frameNoLongerOnStack();
+        FrameOnStackMarker.frameNoLongerOnStack(frame, onStackMarkerIndex);
       }
     }
 
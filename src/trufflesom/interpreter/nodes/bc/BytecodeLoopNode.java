@@ -3,6 +3,7 @@ package trufflesom.interpreter.nodes.bc;
 import static trufflesom.compiler.bc.BytecodeGenerator.emit1;
 import static trufflesom.compiler.bc.BytecodeGenerator.emit3;
 import static trufflesom.compiler.bc.BytecodeGenerator.emit3WithDummy;
+import static trufflesom.compiler.bc.BytecodeGenerator.emitJumpOnBoolWithDummyOffset;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitPOP;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitPOPFIELD;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitPUSHARGUMENT;
@@ -15,8 +16,13 @@ import static trufflesom.compiler.bc.BytecodeGenerator.emitRETURNNONLOCAL;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitSEND;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitSUPERSEND;
 import static trufflesom.compiler.bc.BytecodeMethodGenContext.getJumpOffset;
+import static trufflesom.interpreter.bc.Bytecodes.ADD;
+import static trufflesom.interpreter.bc.Bytecodes.AT;
+import static trufflesom.interpreter.bc.Bytecodes.AT_PUT;
 import static trufflesom.interpreter.bc.Bytecodes.DEC;
 import static trufflesom.interpreter.bc.Bytecodes.DUP;
+import static trufflesom.interpreter.bc.Bytecodes.EQ;
+import static trufflesom.interpreter.bc.Bytecodes.GT;
 import static trufflesom.interpreter.bc.Bytecodes.HALT;
 import static trufflesom.interpreter.bc.Bytecodes.INC;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD;
@@ -33,6 +39,8 @@ import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_FALSE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_FALSE_TOP_NIL;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_TOP_NIL;
+import static trufflesom.interpreter.bc.Bytecodes.LT;
+import static trufflesom.interpreter.bc.Bytecodes.LTE;
 import static trufflesom.interpreter.bc.Bytecodes.POP;
 import static trufflesom.interpreter.bc.Bytecodes.POP_ARGUMENT;
 import static trufflesom.interpreter.bc.Bytecodes.POP_FIELD;
@@ -47,6 +55,7 @@ import static trufflesom.interpreter.bc.Bytecodes.PUSH_1;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARG1;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARG2;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARGUMENT;
+import static trufflesom.interpreter.bc.Bytecodes.PUSH_ARG_FIELD_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_BLOCK;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_BLOCK_NO_CTX;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_CONSTANT;
@@ -61,6 +70,7 @@ import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_0;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_1;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_2;
+import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_CONSTANT_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_NIL;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_SELF;
 import static trufflesom.interpreter.bc.Bytecodes.Q_PUSH_GLOBAL;
@@ -75,9 +85,15 @@ import static trufflesom.interpreter.bc.Bytecodes.RETURN_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_NON_LOCAL;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_SELF;
 import static trufflesom.interpreter.bc.Bytecodes.SEND;
+import static trufflesom.interpreter.bc.Bytecodes.SEND_JUMP_ON_FALSE_POP;
+import static trufflesom.interpreter.bc.Bytecodes.SUB;
 import static trufflesom.interpreter.bc.Bytecodes.SUPER_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.getBytecodeLength;
 import static trufflesom.interpreter.bc.Bytecodes.getBytecodeName;
+import static trufflesom.vm.SymbolTable.symEquals;
+import static trufflesom.vm.SymbolTable.symGreaterThan;
+import static trufflesom.vm.SymbolTable.symLessOrEqual;
+import static trufflesom.vm.SymbolTable.symLessThan;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -92,6 +108,7 @@ import com.oracle.truffle.api.HostCompilerDirectives.BytecodeInterpreterSwitch;
 import com.oracle.truffle.api.HostCompilerDirectives.InliningCutoff;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.BytecodeOSRNode;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.ExplodeLoop.LoopExplosionKind;
 import com.oracle.truffle.api.nodes.LoopNode;
@@ -110,8 +127,8 @@ import trufflesom.interpreter.EscapedBlockException;
 import trufflesom.interpreter.FrameOnStackMarker;
 import trufflesom.interpreter.Invokable;
 import trufflesom.interpreter.Method;
-import trufflesom.interpreter.ReturnException;
 import trufflesom.interpreter.Types;
+import trufflesom.interpreter.bc.BytecodeProfiler;
 import trufflesom.interpreter.bc.Bytecodes;
 import trufflesom.interpreter.bc.RespecializeException;
 import trufflesom.interpreter.bc.RestartLoopException;
@@ -131,11 +148,20 @@ import trufflesom.interpreter.objectstorage.FieldAccessorNode.AbstractReadFieldN
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.AbstractWriteFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.IncrementLongFieldNode;
 import trufflesom.primitives.Primitives;
+import trufflesom.primitives.arithmetic.AdditionPrim;
+import trufflesom.primitives.arithmetic.GreaterThanOrEqualPrim;
+import trufflesom.primitives.arithmetic.GreaterThanPrim;
+import trufflesom.primitives.arithmetic.LessThanOrEqualPrim;
+import trufflesom.primitives.arithmetic.LessThanPrim;
+import trufflesom.primitives.arithmetic.MultiplicationPrim;
+import trufflesom.primitives.arithmetic.SubtractionPrim;
 import trufflesom.vm.Classes;
 import trufflesom.vm.NotYetImplementedException;
 import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SAbstractObject;
+import trufflesom.vmobjects.SArray;
 import trufflesom.vmobjects.SBlock;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SInvokable;
@@ -144,10 +170,18 @@ import trufflesom.vmobjects.SObject;
 import trufflesom.vmobjects.SSymbol;
 
 
-public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReference {
+public class BytecodeLoopNode extends NoPreEvalExprNode
+    implements ScopeReference, BytecodeOSRNode {
   private static final ValueProfile frameType = ValueProfile.createClassProfile();
   private static final LiteralNode  dummyNode = new IntegerLiteralNode(0);
 
+  /**
+   * The OSR target encodes the bytecode index in the lower bits, and the stack height in the
+   * upper bits. This way, both are compilation constants in the OSR-compiled code.
+   */
+  private static final int OSR_SP_SHIFT = 24;
+  private static final int OSR_BCI_MASK = (1 << OSR_SP_SHIFT) - 1;
+
   @CompilationFinal(dimensions = 1) private final byte[]   bytecodesField;
   @CompilationFinal(dimensions = 1) private final Object[] literalsAndConstantsField;
 
@@ -160,6 +194,20 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
 
   private final int frameOnStackMarkerIndex;
 
+  /**
+   * OSR copies the frame, which is only safe as long as no block captured it.
+   * Thus, we only do OSR for methods that do not materialize their frame.
+   */
+  private final boolean osrSupported;
+
+  @CompilationFinal private Object osrMetadata;
+
+  /**
+   * With {@link VmSettings#UseFrameStack}, the operand stack lives in the frame slots directly
+   * after the locals. This is the index of the slot for the bottom of the stack.
+   */
+  private final int stackBase;
+
   public BytecodeLoopNode(final byte[] bytecodes, final int numLocals,
       final Object[] literals, final int maxStackDepth,
       final int frameOnStackMarkerIndex, final BackJump[] inlinedLoops) {
@@ -172,6 +220,19 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
     this.frameOnStackMarkerIndex = frameOnStackMarkerIndex;
 
     this.quickenedField = new Node[bytecodes.length];
+    this.osrSupported = !materializesFrame(bytecodes);
+    this.stackBase = numLocals;
+  }
+
+  private static boolean materializesFrame(final byte[] bytecodes) {
+    int i = 0;
+    while (i < bytecodes.length) {
+      if (bytecodes[i] == PUSH_BLOCK) {
+        return true;
+      }
+      i += getBytecodeLength(bytecodes[i]);
+    }
+    return false;
   }
 
   @Override
@@ -293,7 +354,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
     long longVal;
     try {
       longVal = Math.addExact((Long) val, 1);
-      obj.setField(fieldIdx, longVal);
+      obj.setIncrementedField(fieldIdx, longVal);
     } catch (ArithmeticException e) {
       throw new NotYetImplementedException();
     }
@@ -350,11 +411,211 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
   }
 
   @Override
-  @ExplodeLoop(kind = LoopExplosionKind.MERGE_EXPLODE)
-  @BytecodeInterpreterSwitch
+  public Object getOSRMetadata() {
+    return osrMetadata;
+  }
+
+  @Override
+  public void setOSRMetadata(final Object osrMetadata) {
+    this.osrMetadata = osrMetadata;
+  }
+
+  @InliningCutoff
+  private Object tryOSR(final VirtualFrame frame, final int bytecodeIndex,
+      final int stackPointer, final Object[] stack) {
+    if (bytecodeIndex > OSR_BCI_MASK) {
+      return null;
+    }
+
+    int target = ((stackPointer + 1) << OSR_SP_SHIFT) | bytecodeIndex;
+    return BytecodeOSRNode.tryOSR(this, target, stack, null, frame);
+  }
+
+  @Override
+  public Object executeOSR(final VirtualFrame osrFrame, final int target,
+      final Object interpreterState) {
+    int bytecodeIndex = target & OSR_BCI_MASK;
+    int stackPointer = (target >>> OSR_SP_SHIFT) - 1;
+
+    Object[] stack = allocateStack();
+    if (stack != null) {
+      copyStack((Object[]) interpreterState, stack, stackPointer);
+    }
+
+    return executeLoop(osrFrame, stack, bytecodeIndex, stackPointer);
+  }
+
+  @ExplodeLoop
+  private static void copyStack(final Object[] from, final Object[] to,
+      final int stackPointer) {
+    for (int i = 0; i <= stackPointer; i++) {
+      to[i] = from[i];
+    }
+  }
+
+  private Object[] allocateStack() {
+    if (VmSettings.UseFrameStack) {
+      // the stack is stored in the frame
+      return null;
+    }
+    return new Object[maxStackDepth];
+  }
+
+  private Object getStack(final VirtualFrame frame, final Object[] stack,
+      final int stackPointer) {
+    if (VmSettings.UseFrameStack) {
+      return frame.getValue(stackBase + stackPointer);
+    }
+    return stack[stackPointer];
+  }
+
+  private void setStack(final VirtualFrame frame, final Object[] stack,
+      final int stackPointer, final Object value) {
+    if (VmSettings.UseFrameStack) {
+      writeSlot(frame, stackBase + stackPointer, value);
+    } else {
+      stack[stackPointer] = value;
+    }
+  }
+
+  private void setStackLong(final VirtualFrame frame, final Object[] stack,
+      final int stackPointer, final long value) {
+    if (VmSettings.UseFrameStack) {
+      frame.setLong(stackBase + stackPointer, value);
+    } else {
+      stack[stackPointer] = value;
+    }
+  }
+
+  @ExplodeLoop
+  private void copyStackToArguments(final VirtualFrame frame, final Object[] stack,
+      final int stackPointer, final Object[] callArgs) {
+    if (VmSettings.UseFrameStack) {
+      for (int i = 0; i < callArgs.length; i++) {
+        callArgs[i] = frame.getValue(stackBase + stackPointer + i);
+      }
+    } else {
+      System.arraycopy(stack, stackPointer, callArgs, 0, callArgs.length);
+    }
+  }
+
+  /**
+   * Writes the value with the most precise slot kind possible,
+   * so that primitive values can be read again without boxing.
+   */
+  private static void writeSlot(final VirtualFrame frame, final int slot,
+      final Object value) {
+    if (value instanceof Long) {
+      frame.setLong(slot, (Long) value);
+    } else if (value instanceof Double) {
+      frame.setDouble(slot, (Double) value);
+    } else if (value instanceof Boolean) {
+      frame.setBoolean(slot, (Boolean) value);
+    } else {
+      frame.setObject(slot, value);
+    }
+  }
+
+  private static Object readLocal(final VirtualFrame frame, final int localIdx) {
+    if (VmSettings.UseFrameStack) {
+      // locals may hold primitive values
+      return frame.getValue(localIdx);
+    }
+    return frame.getObject(localIdx);
+  }
+
+  private void pushLocal(final VirtualFrame frame, final Object[] stack,
+      final int stackPointer, final int localIdx) {
+    if (VmSettings.UseFrameStack) {
+      frame.copy(localIdx, stackBase + stackPointer);
+    } else {
+      stack[stackPointer] = frame.getObject(localIdx);
+    }
+  }
+
+  private void popLocal(final VirtualFrame frame, final Object[] stack,
+      final int stackPointer, final int localIdx) {
+    if (VmSettings.UseFrameStack) {
+      frame.copy(stackBase + stackPointer, localIdx);
+    } else {
+      frame.setObject(localIdx, stack[stackPointer]);
+    }
+  }
+
+  /**
+   * Executes arithmetic and comparison operations directly on unboxed stack slots.
+   *
+   * @return true if the operation was completed, false if the node needs to be executed
+   */
+  private boolean doUnboxedBinaryOperation(final VirtualFrame frame, final Node node,
+      final int stackPointer) {
+    int rcvrSlot = stackBase + stackPointer - 1;
+    int argSlot = rcvrSlot + 1;
+
+    if (frame.isLong(rcvrSlot) && frame.isLong(argSlot)) {
+      long left = frame.getLong(rcvrSlot);
+      long right = frame.getLong(argSlot);
+
+      try {
+        if (node instanceof AdditionPrim) {
+          frame.setLong(rcvrSlot, Math.addExact(left, right));
+        } else if (node instanceof SubtractionPrim) {
+          frame.setLong(rcvrSlot, Math.subtractExact(left, right));
+        } else if (node instanceof MultiplicationPrim) {
+          frame.setLong(rcvrSlot, Math.multiplyExact(left, right));
+        } else if (node instanceof LessThanPrim) {
+          frame.setBoolean(rcvrSlot, left < right);
+        } else if (node instanceof LessThanOrEqualPrim) {
+          frame.setBoolean(rcvrSlot, left <= right);
+        } else if (node instanceof GreaterThanPrim) {
+          frame.setBoolean(rcvrSlot, left > right);
+        } else if (node instanceof GreaterThanOrEqualPrim) {
+          frame.setBoolean(rcvrSlot, left >= right);
+        } else {
+          return false;
+        }
+      } catch (ArithmeticException e) {
+        // overflow is handled by the node
+        return false;
+      }
+      return true;
+    }
+
+    if (frame.isDouble(rcvrSlot) && frame.isDouble(argSlot)) {
+      double left = frame.getDouble(rcvrSlot);
+      double right = frame.getDouble(argSlot);
+
+      if (node instanceof AdditionPrim) {
+        frame.setDouble(rcvrSlot, left + right);
+      } else if (node instanceof SubtractionPrim) {
+        frame.setDouble(rcvrSlot, left - right);
+      } else if (node instanceof MultiplicationPrim) {
+        frame.setDouble(rcvrSlot, left * right);
+      } else if (node instanceof LessThanPrim) {
+        frame.setBoolean(rcvrSlot, left < right);
+      } else if (node instanceof LessThanOrEqualPrim) {
+        frame.setBoolean(rcvrSlot, left <= right);
+      } else if (node instanceof GreaterThanPrim) {
+        frame.setBoolean(rcvrSlot, left > right);
+      } else if (node instanceof GreaterThanOrEqualPrim) {
+        frame.setBoolean(rcvrSlot, left >= right);
+      } else {
+        return false;
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
   public Object executeGeneric(final VirtualFrame frame) {
-    Object[] stack = new Object[maxStackDepth];
+    return executeLoop(frame, allocateStack(), 0, -1);
+  }
 
+  @ExplodeLoop(kind = LoopExplosionKind.MERGE_EXPLODE)
+  @BytecodeInterpreterSwitch
+  private Object executeLoop(final VirtualFrame frame, final Object[] stack,
+      final int startBytecodeIndex, final int startStackPointer) {
     final byte[] bytecodes = bytecodesField;
     final Node[] quickened = quickenedField;
     final Object[] literalsAndConstants = literalsAndConstantsField;
@@ -365,8 +626,8 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
       return throwIllegaleState();
     }
 
-    int stackPointer = -1;
-    int bytecodeIndex = 0;
+    int stackPointer = startStackPointer;
+    int bytecodeIndex = startBytecodeIndex;
 
     int backBranchesTaken = 0;
 
@@ -375,17 +636,23 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
 
       CompilerAsserts.partialEvaluationConstant(bytecodeIndex);
       CompilerAsserts.partialEvaluationConstant(bytecode);
-      CompilerDirectives.ensureVirtualized(stack);
+      if (!VmSettings.UseFrameStack) {
+        CompilerDirectives.ensureVirtualized(stack);
+      }
+
+      if (VmSettings.ProfileBytecodes && CompilerDirectives.inInterpreter()) {
+        BytecodeProfiler.record(bytecodes, bytecodeIndex);
+      }
 
       switch (bytecode) {
         case HALT: {
-          return stack[stackPointer];
+          return getStack(frame, stack, stackPointer);
         }
 
         case DUP: {
-          Object top = stack[stackPointer];
+          Object top = getStack(frame, stack, stackPointer);
           stackPointer += 1;
-          stack[stackPointer] = top;
+          setStack(frame, stack, stackPointer, top);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
@@ -394,33 +661,32 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           byte localIdx = bytecodes[bytecodeIndex + 1];
           byte contextIdx = bytecodes[bytecodeIndex + 2];
 
-          VirtualFrame currentOrContext = frame;
+          stackPointer += 1;
           if (contextIdx > 0) {
-            currentOrContext = determineContext(currentOrContext, contextIdx);
+            VirtualFrame context = determineContext(frame, contextIdx);
+            setStack(frame, stack, stackPointer, readLocal(context, localIdx));
+          } else {
+            pushLocal(frame, stack, stackPointer, localIdx);
           }
-
-          Object value = currentOrContext.getObject(localIdx);
-          stackPointer += 1;
-          stack[stackPointer] = value;
           bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
           break;
         }
 
         case PUSH_LOCAL_0: {
           stackPointer += 1;
-          stack[stackPointer] = frame.getObject(0);
+          pushLocal(frame, stack, stackPointer, 0);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
         case PUSH_LOCAL_1: {
           stackPointer += 1;
-          stack[stackPointer] = frame.getObject(1);
+          pushLocal(frame, stack, stackPointer, 1);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
         case PUSH_LOCAL_2: {
           stackPointer += 1;
-          stack[stackPointer] = frame.getObject(2);
+          pushLocal(frame, stack, stackPointer, 2);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
@@ -437,26 +703,26 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
 
           Object value = currentOrContext.getArguments()[argIdx];
           stackPointer += 1;
-          stack[stackPointer] = value;
+          setStack(frame, stack, stackPointer, value);
           bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
           break;
         }
 
         case PUSH_SELF: {
           stackPointer += 1;
-          stack[stackPointer] = arguments[0];
+          setStack(frame, stack, stackPointer, arguments[0]);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
         case PUSH_ARG1: {
           stackPointer += 1;
-          stack[stackPointer] = arguments[1];
+          setStack(frame, stack, stackPointer, arguments[1]);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
         case PUSH_ARG2: {
           stackPointer += 1;
-          stack[stackPointer] = arguments[2];
+          setStack(frame, stack, stackPointer, arguments[2]);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
@@ -476,8 +742,8 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           }
 
           stackPointer += 1;
-          stack[stackPointer] = ((AbstractReadFieldNode) node).read(
-              (SObject) currentOrContext.getArguments()[0]);
+          setStack(frame, stack, stackPointer, ((AbstractReadFieldNode) node).read(
+              (SObject) currentOrContext.getArguments()[0]));
           bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
           break;
         }
@@ -489,8 +755,8 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           }
 
           stackPointer += 1;
-          stack[stackPointer] =
-              ((AbstractReadFieldNode) node).read((SObject) arguments[0]);
+          setStack(frame, stack, stackPointer,
+              ((AbstractReadFieldNode) node).read((SObject) arguments[0]));
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
@@ -502,8 +768,8 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           }
 
           stackPointer += 1;
-          stack[stackPointer] =
-              ((AbstractReadFieldNode) node).read((SObject) arguments[0]);
+          setStack(frame, stack, stackPointer,
+              ((AbstractReadFieldNode) node).read((SObject) arguments[0]));
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
@@ -512,8 +778,8 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           SMethod blockMethod = (SMethod) literalsAndConstants[bytecodes[bytecodeIndex + 1]];
 
           stackPointer += 1;
-          stack[stackPointer] = new SBlock(blockMethod,
-              Classes.getBlockClass(blockMethod.getNumberOfArguments()), frame.materialize());
+          setStack(frame, stack, stackPointer, new SBlock(blockMethod,
+              Classes.getBlockClass(blockMethod.getNumberOfArguments()), frame.materialize()));
           bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           break;
         }
@@ -522,64 +788,64 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           SMethod blockMethod = (SMethod) literalsAndConstants[bytecodes[bytecodeIndex + 1]];
 
           stackPointer += 1;
-          stack[stackPointer] = new SBlock(blockMethod,
-              Classes.getBlockClass(blockMethod.getNumberOfArguments()), null);
+          setStack(frame, stack, stackPointer, new SBlock(blockMethod,
+              Classes.getBlockClass(blockMethod.getNumberOfArguments()), null));
           bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           break;
         }
 
         case PUSH_CONSTANT: {
           stackPointer += 1;
-          stack[stackPointer] = literalsAndConstants[bytecodes[bytecodeIndex + 1]];
+          setStack(frame, stack, stackPointer, literalsAndConstants[bytecodes[bytecodeIndex + 1]]);
           bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           break;
         }
 
         case PUSH_CONSTANT_0: {
           stackPointer += 1;
-          stack[stackPointer] = literalsAndConstants[0];
+          setStack(frame, stack, stackPointer, literalsAndConstants[0]);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
 
         case PUSH_CONSTANT_1: {
           stackPointer += 1;
-          stack[stackPointer] = literalsAndConstants[1];
+          setStack(frame, stack, stackPointer, literalsAndConstants[1]);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
 
         case PUSH_CONSTANT_2: {
           stackPointer += 1;
-          stack[stackPointer] = literalsAndConstants[2];
+          setStack(frame, stack, stackPointer, literalsAndConstants[2]);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
 
         case PUSH_0: {
           stackPointer += 1;
-          stack[stackPointer] = 0L;
+          setStackLong(frame, stack, stackPointer, 0L);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
 
         case PUSH_1: {
           stackPointer += 1;
-          stack[stackPointer] = 1L;
+          setStackLong(frame, stack, stackPointer, 1L);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
 
         case PUSH_NIL: {
           stackPointer += 1;
-          stack[stackPointer] = Nil.nilObject;
+          setStack(frame, stack, stackPointer, Nil.nilObject);
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
 
         case PUSH_GLOBAL: {
           stackPointer += 1;
-          stack[stackPointer] = quickenAndExecuteGlobal(frame, bytecodeIndex);
+          setStack(frame, stack, stackPointer, quickenAndExecuteGlobal(frame, bytecodeIndex));
           bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           break;
         }
@@ -594,33 +860,36 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           byte localIdx = bytecodes[bytecodeIndex + 1];
           byte contextIdx = bytecodes[bytecodeIndex + 2];
 
-          VirtualFrame currentOrContext = frame;
           if (contextIdx > 0) {
-            currentOrContext = determineContext(currentOrContext, contextIdx);
+            VirtualFrame context = determineContext(frame, contextIdx);
+            Object value = getStack(frame, stack, stackPointer);
+            if (VmSettings.UseFrameStack) {
+              writeSlot(context, localIdx, value);
+            } else {
+              context.setObject(localIdx, value);
+            }
+          } else {
+            popLocal(frame, stack, stackPointer, localIdx);
           }
-
-          Object value = stack[stackPointer];
           stackPointer -= 1;
-
-          currentOrContext.setObject(localIdx, value);
           bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
           break;
         }
 
         case POP_LOCAL_0: {
-          frame.setObject(0, stack[stackPointer]);
+          popLocal(frame, stack, stackPointer, 0);
           stackPointer -= 1;
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
         case POP_LOCAL_1: {
-          frame.setObject(1, stack[stackPointer]);
+          popLocal(frame, stack, stackPointer, 1);
           stackPointer -= 1;
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
         }
         case POP_LOCAL_2: {
-          frame.setObject(2, stack[stackPointer]);
+          popLocal(frame, stack, stackPointer, 2);
           stackPointer -= 1;
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
           break;
@@ -635,7 +904,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
             currentOrContext = determineContext(currentOrContext, contextIdx);
           }
 
-          currentOrContext.getArguments()[argIdx] = stack[stackPointer];
+          currentOrContext.getArguments()[argIdx] = getStack(frame, stack, stackPointer);
           stackPointer -= 1;
           bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
           break;
@@ -656,7 +925,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           }
 
           ((AbstractWriteFieldNode) node).write((SObject) currentOrContext.getArguments()[0],
-              stack[stackPointer]);
+              getStack(frame, stack, stackPointer));
           stackPointer -= 1;
           bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
           break;
@@ -669,7 +938,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           }
 
           ((AbstractWriteFieldNode) node).write((SObject) arguments[0],
-              stack[stackPointer]);
+              getStack(frame, stack, stackPointer));
 
           stackPointer -= 1;
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
@@ -682,7 +951,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           }
 
           ((AbstractWriteFieldNode) node).write((SObject) arguments[0],
-              stack[stackPointer]);
+              getStack(frame, stack, stackPointer));
 
           stackPointer -= 1;
           bytecodeIndex += Bytecodes.LEN_NO_ARG;
@@ -697,15 +966,14 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
             int numberOfArguments = signature.getNumberOfSignatureArguments();
 
             Object[] callArgs = new Object[numberOfArguments];
-            System.arraycopy(stack, stackPointer - numberOfArguments + 1, callArgs, 0,
-                numberOfArguments);
+            copyStackToArguments(frame, stack, stackPointer - numberOfArguments + 1, callArgs);
             stackPointer -= numberOfArguments;
 
             Object result = specializeSendBytecode(frame, bytecodeIndex, signature,
                 numberOfArguments, callArgs);
 
             stackPointer += 1;
-            stack[stackPointer] = result;
+            setStack(frame, stack, stackPointer, result);
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RestartLoopException e) {
             bytecodeIndex = 0;
@@ -713,7 +981,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           } catch (EscapedBlockException e) {
             CompilerDirectives.transferToInterpreter();
             stackPointer += 1;
-            stack[stackPointer] = handleEscapedBlock(frame, e);
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           }
           break;
@@ -727,8 +995,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
             int numberOfArguments = signature.getNumberOfSignatureArguments();
 
             Object[] callArgs = new Object[numberOfArguments];
-            System.arraycopy(stack, stackPointer - numberOfArguments + 1, callArgs, 0,
-                numberOfArguments);
+            copyStackToArguments(frame, stack, stackPointer - numberOfArguments + 1, callArgs);
             stackPointer -= numberOfArguments;
 
             PreevaluatedExpression quick = MessageSendNode.createSuperSend(
@@ -738,7 +1005,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
             Object result = quick.doPreEvaluated(frame, callArgs);
 
             stackPointer += 1;
-            stack[stackPointer] = result;
+            setStack(frame, stack, stackPointer, result);
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RestartLoopException e) {
             bytecodeIndex = 0;
@@ -746,7 +1013,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           } catch (EscapedBlockException e) {
             CompilerDirectives.transferToInterpreter();
             stackPointer += 1;
-            stack[stackPointer] = handleEscapedBlock(frame, e);
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           }
           break;
@@ -754,13 +1021,13 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
 
         case RETURN_LOCAL: {
           LoopNode.reportLoopCount(this, backBranchesTaken);
-          return stack[stackPointer];
+          return getStack(frame, stack, stackPointer);
         }
 
         case RETURN_NON_LOCAL: {
           LoopNode.reportLoopCount(this, backBranchesTaken);
 
-          Object result = stack[stackPointer];
+          Object result = getStack(frame, stack, stackPointer);
           // stackPointer -= 1;
           doReturnNonLocal(frame, bytecodeIndex, result);
           return Nil.nilObject;
@@ -797,10 +1064,22 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case INC: {
-          Object top = stack[stackPointer];
+          if (VmSettings.UseFrameStack && frame.isLong(stackBase + stackPointer)) {
+            try {
+              long top = frame.getLong(stackBase + stackPointer);
+              frame.setLong(stackBase + stackPointer, Math.addExact(top, 1L));
+            } catch (ArithmeticException e) {
+              CompilerDirectives.transferToInterpreterAndInvalidate();
+              throw new NotYetImplementedException();
+            }
+            bytecodeIndex += Bytecodes.LEN_NO_ARG;
+            break;
+          }
+
+          Object top = getStack(frame, stack, stackPointer);
           if (top instanceof Long) {
             try {
-              stack[stackPointer] = Math.addExact((Long) top, 1L);
+              setStack(frame, stack, stackPointer, Math.addExact((Long) top, 1L));
             } catch (ArithmeticException e) {
               CompilerDirectives.transferToInterpreterAndInvalidate();
               throw new NotYetImplementedException();
@@ -808,7 +1087,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           } else {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             if (top instanceof Double) {
-              stack[stackPointer] = ((Double) top) + 1.0d;
+              setStack(frame, stack, stackPointer, ((Double) top) + 1.0d);
             } else {
               throw new NotYetImplementedException();
             }
@@ -818,13 +1097,30 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case DEC: {
-          Object top = stack[stackPointer];
+          if (VmSettings.UseFrameStack && frame.isLong(stackBase + stackPointer)) {
+            try {
+              long top = frame.getLong(stackBase + stackPointer);
+              frame.setLong(stackBase + stackPointer, Math.subtractExact(top, 1L));
+            } catch (ArithmeticException e) {
+              CompilerDirectives.transferToInterpreterAndInvalidate();
+              throw new NotYetImplementedException();
+            }
+            bytecodeIndex += Bytecodes.LEN_NO_ARG;
+            break;
+          }
+
+          Object top = getStack(frame, stack, stackPointer);
           if (top instanceof Long) {
-            stack[stackPointer] = ((Long) top) - 1;
+            try {
+              setStack(frame, stack, stackPointer, Math.subtractExact((Long) top, 1L));
+            } catch (ArithmeticException e) {
+              CompilerDirectives.transferToInterpreterAndInvalidate();
+              throw new NotYetImplementedException();
+            }
           } else {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             if (top instanceof Double) {
-              stack[stackPointer] = ((Double) top) - 1.0d;
+              setStack(frame, stack, stackPointer, ((Double) top) - 1.0d);
             } else {
               throw new NotYetImplementedException();
             }
@@ -870,14 +1166,14 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           Node node = quickened[bytecodeIndex];
           if (node == null) {
             stackPointer += 1;
-            stack[stackPointer] = createAndDoIncrement(bytecodeIndex, fieldIdx, obj);
+            setStack(frame, stack, stackPointer, createAndDoIncrement(bytecodeIndex, fieldIdx, obj));
             bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
             break;
           }
 
           long value = ((IncrementLongFieldNode) node).increment(obj);
           stackPointer += 1;
-          stack[stackPointer] = value;
+          setStack(frame, stack, stackPointer, value);
           bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
           break;
         }
@@ -889,11 +1185,11 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case JUMP_ON_TRUE_TOP_NIL: {
-          Object val = stack[stackPointer];
+          Object val = getStack(frame, stack, stackPointer);
           if (val == Boolean.TRUE) {
             int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1]);
             bytecodeIndex += offset;
-            stack[stackPointer] = Nil.nilObject;
+            setStack(frame, stack, stackPointer, Nil.nilObject);
           } else {
             stackPointer -= 1;
             bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
@@ -902,11 +1198,11 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case JUMP_ON_FALSE_TOP_NIL: {
-          Object val = stack[stackPointer];
+          Object val = getStack(frame, stack, stackPointer);
           if (val == Boolean.FALSE) {
             int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1]);
             bytecodeIndex += offset;
-            stack[stackPointer] = Nil.nilObject;
+            setStack(frame, stack, stackPointer, Nil.nilObject);
           } else {
             stackPointer -= 1;
             bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
@@ -915,7 +1211,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case JUMP_ON_TRUE_POP: {
-          Object val = stack[stackPointer];
+          Object val = getStack(frame, stack, stackPointer);
           if (val == Boolean.TRUE) {
             int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1]);
             bytecodeIndex += offset;
@@ -927,7 +1223,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case JUMP_ON_FALSE_POP: {
-          Object val = stack[stackPointer];
+          Object val = getStack(frame, stack, stackPointer);
           if (val == Boolean.FALSE) {
             int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1]);
             bytecodeIndex += offset;
@@ -941,6 +1237,17 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         case JUMP_BACKWARDS: {
           int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1]);
           bytecodeIndex -= offset;
+
+          if (CompilerDirectives.inInterpreter()) {
+            backBranchesTaken += 1;
+            if (osrSupported && BytecodeOSRNode.pollOSRBackEdge(this)) {
+              Object result = tryOSR(frame, bytecodeIndex, stackPointer, stack);
+              if (result != null) {
+                LoopNode.reportLoopCount(this, backBranchesTaken);
+                return result;
+              }
+            }
+          }
           break;
         }
 
@@ -956,12 +1263,12 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case JUMP2_ON_TRUE_TOP_NIL: {
-          Object val = stack[stackPointer];
+          Object val = getStack(frame, stack, stackPointer);
           if (val == Boolean.TRUE) {
             int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1])
                 + (Byte.toUnsignedInt(bytecodes[bytecodeIndex + 2]) << 8);
             bytecodeIndex += offset;
-            stack[stackPointer] = Nil.nilObject;
+            setStack(frame, stack, stackPointer, Nil.nilObject);
           } else {
             stackPointer -= 1;
             bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
@@ -970,12 +1277,12 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case JUMP2_ON_FALSE_TOP_NIL: {
-          Object val = stack[stackPointer];
+          Object val = getStack(frame, stack, stackPointer);
           if (val == Boolean.FALSE) {
             int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1])
                 + (Byte.toUnsignedInt(bytecodes[bytecodeIndex + 2]) << 8);
             bytecodeIndex += offset;
-            stack[stackPointer] = Nil.nilObject;
+            setStack(frame, stack, stackPointer, Nil.nilObject);
           } else {
             stackPointer -= 1;
             bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
@@ -984,7 +1291,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case JUMP2_ON_TRUE_POP: {
-          Object val = stack[stackPointer];
+          Object val = getStack(frame, stack, stackPointer);
           if (val == Boolean.TRUE) {
             int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1])
                 + (Byte.toUnsignedInt(bytecodes[bytecodeIndex + 2]) << 8);
@@ -997,7 +1304,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case JUMP2_ON_FALSE_POP: {
-          Object val = stack[stackPointer];
+          Object val = getStack(frame, stack, stackPointer);
           if (val == Boolean.FALSE) {
             int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1])
                 + (Byte.toUnsignedInt(bytecodes[bytecodeIndex + 2]) << 8);
@@ -1016,13 +1323,21 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
 
           if (CompilerDirectives.inInterpreter()) {
             backBranchesTaken += 1;
+            if (osrSupported && BytecodeOSRNode.pollOSRBackEdge(this)) {
+              Object result = tryOSR(frame, bytecodeIndex, stackPointer, stack);
+              if (result != null) {
+                LoopNode.reportLoopCount(this, backBranchesTaken);
+                return result;
+              }
+            }
           }
           break;
         }
 
         case Q_PUSH_GLOBAL: {
           stackPointer += 1;
-          stack[stackPointer] = ((GlobalNode) quickened[bytecodeIndex]).executeGeneric(frame);
+          setStack(frame, stack, stackPointer,
+              ((GlobalNode) quickened[bytecodeIndex]).executeGeneric(frame));
           bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           break;
         }
@@ -1033,17 +1348,17 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
 
           Object[] callArgs = new Object[numberOfArguments];
           stackPointer = stackPointer - numberOfArguments + 1;
-          System.arraycopy(stack, stackPointer, callArgs, 0, numberOfArguments);
+          copyStackToArguments(frame, stack, stackPointer, callArgs);
 
           try {
-            stack[stackPointer] = node.doPreEvaluated(frame, callArgs);
+            setStack(frame, stack, stackPointer, node.doPreEvaluated(frame, callArgs));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RestartLoopException e) {
             bytecodeIndex = 0;
             stackPointer = -1;
           } catch (EscapedBlockException e) {
             CompilerDirectives.transferToInterpreter();
-            stack[stackPointer] = handleEscapedBlock(frame, e);
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           }
 
@@ -1051,74 +1366,223 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
         }
 
         case Q_SEND_1: {
-          Object rcvr = stack[stackPointer];
+          Object rcvr = getStack(frame, stack, stackPointer);
 
           try {
             UnaryExpressionNode node = (UnaryExpressionNode) quickened[bytecodeIndex];
-            stack[stackPointer] = node.executeEvaluated(frame, rcvr);
+            setStack(frame, stack, stackPointer, node.executeEvaluated(frame, rcvr));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RestartLoopException e) {
             bytecodeIndex = 0;
             stackPointer = -1;
           } catch (EscapedBlockException e) {
             CompilerDirectives.transferToInterpreter();
-            stack[stackPointer] = handleEscapedBlock(frame, e);
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RespecializeException r) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            stack[stackPointer] = quickenAndEvaluate(frame, bytecodeIndex, r, rcvr);
+            setStack(frame, stack, stackPointer, quickenAndEvaluate(frame, bytecodeIndex, r, rcvr));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           }
           break;
         }
 
         case Q_SEND_2: {
-          Object rcvr = stack[stackPointer - 1];
-          Object arg = stack[stackPointer];
+          if (VmSettings.UseFrameStack
+              && doUnboxedBinaryOperation(frame, quickened[bytecodeIndex], stackPointer)) {
+            stackPointer -= 1;
+            bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
+            break;
+          }
+
+          Object rcvr = getStack(frame, stack, stackPointer - 1);
+          Object arg = getStack(frame, stack, stackPointer);
 
           stackPointer -= 1;
 
           try {
             BinaryExpressionNode node = (BinaryExpressionNode) quickened[bytecodeIndex];
-            stack[stackPointer] = node.executeEvaluated(frame, rcvr, arg);
+            setStack(frame, stack, stackPointer, node.executeEvaluated(frame, rcvr, arg));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RestartLoopException e) {
             bytecodeIndex = 0;
             stackPointer = -1;
           } catch (EscapedBlockException e) {
             CompilerDirectives.transferToInterpreter();
-            stack[stackPointer] = handleEscapedBlock(frame, e);
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RespecializeException r) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            stack[stackPointer] = quickenAndEvaluate(frame, bytecodeIndex, r, rcvr, arg);
+            setStack(frame, stack, stackPointer,
+                quickenAndEvaluate(frame, bytecodeIndex, r, rcvr, arg));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           }
           break;
         }
 
         case Q_SEND_3: {
-          Object rcvr = stack[stackPointer - 2];
-          Object arg1 = stack[stackPointer - 1];
-          Object arg2 = stack[stackPointer];
+          Object rcvr = getStack(frame, stack, stackPointer - 2);
+          Object arg1 = getStack(frame, stack, stackPointer - 1);
+          Object arg2 = getStack(frame, stack, stackPointer);
 
           stackPointer -= 2;
 
           try {
             TernaryExpressionNode node = (TernaryExpressionNode) quickened[bytecodeIndex];
-            stack[stackPointer] = node.executeEvaluated(frame, rcvr, arg1, arg2);
+            setStack(frame, stack, stackPointer, node.executeEvaluated(frame, rcvr, arg1, arg2));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RestartLoopException e) {
             bytecodeIndex = 0;
             stackPointer = -1;
           } catch (EscapedBlockException e) {
             CompilerDirectives.transferToInterpreter();
-            stack[stackPointer] = handleEscapedBlock(frame, e);
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           } catch (RespecializeException r) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            stack[stackPointer] =
-                quickenAndEvaluate(frame, bytecodeIndex, r, rcvr, arg1, arg2);
+            setStack(frame, stack, stackPointer,
+                quickenAndEvaluate(frame, bytecodeIndex, r, rcvr, arg1, arg2));
+            bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
+          }
+          break;
+        }
+
+        case PUSH_LOCAL_CONSTANT_SEND: {
+          Object rcvr = readLocal(frame, bytecodes[bytecodeIndex + 1]);
+          Object arg = literalsAndConstants[bytecodes[bytecodeIndex + 2]];
+
+          stackPointer += 1;
+          try {
+            setStack(frame, stack, stackPointer,
+                doBinarySend(frame, bytecodeIndex, bytecodes[bytecodeIndex + 3], rcvr, arg));
+            bytecodeIndex += Bytecodes.LEN_FOUR_ARGS;
+          } catch (RestartLoopException e) {
+            bytecodeIndex = 0;
+            stackPointer = -1;
+          } catch (EscapedBlockException e) {
+            CompilerDirectives.transferToInterpreter();
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
+            bytecodeIndex += Bytecodes.LEN_FOUR_ARGS;
+          }
+          break;
+        }
+
+        case PUSH_ARG_FIELD_SEND: {
+          byte fieldIdx = bytecodes[bytecodeIndex + 2];
+
+          // the field read node is kept in the slot after the one for the send
+          Node node = quickened[bytecodeIndex + 1];
+          if (node == null) {
+            node = createRead(bytecodeIndex + 1, fieldIdx);
+          }
+
+          Object rcvr = arguments[bytecodes[bytecodeIndex + 1]];
+          Object arg = ((AbstractReadFieldNode) node).read((SObject) arguments[0]);
+
+          stackPointer += 1;
+          try {
+            setStack(frame, stack, stackPointer,
+                doBinarySend(frame, bytecodeIndex, bytecodes[bytecodeIndex + 3], rcvr, arg));
+            bytecodeIndex += Bytecodes.LEN_FOUR_ARGS;
+          } catch (RestartLoopException e) {
+            bytecodeIndex = 0;
+            stackPointer = -1;
+          } catch (EscapedBlockException e) {
+            CompilerDirectives.transferToInterpreter();
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
+            bytecodeIndex += Bytecodes.LEN_FOUR_ARGS;
+          }
+          break;
+        }
+
+        case SEND_JUMP_ON_FALSE_POP: {
+          Object rcvr = getStack(frame, stack, stackPointer - 1);
+          Object arg = getStack(frame, stack, stackPointer);
+
+          stackPointer -= 2;
+
+          byte selectorIdx = bytecodes[bytecodeIndex + 3];
+          Object val = doBinaryFastPath(getComparisonBytecode(selectorIdx), rcvr, arg);
+          if (val == null) {
+            try {
+              val = doBinarySend(frame, bytecodeIndex, selectorIdx, rcvr, arg);
+            } catch (RestartLoopException e) {
+              bytecodeIndex = 0;
+              stackPointer = -1;
+              break;
+            } catch (EscapedBlockException e) {
+              CompilerDirectives.transferToInterpreter();
+              val = handleEscapedBlock(frame, e);
+            }
+          }
+
+          if (val == Boolean.FALSE) {
+            int offset = Byte.toUnsignedInt(bytecodes[bytecodeIndex + 1])
+                + (Byte.toUnsignedInt(bytecodes[bytecodeIndex + 2]) << 8);
+            bytecodeIndex += offset;
+          } else {
+            bytecodeIndex += Bytecodes.LEN_FOUR_ARGS;
+          }
+          break;
+        }
+
+        case ADD:
+        case SUB:
+        case LT:
+        case LTE:
+        case GT:
+        case EQ:
+        case AT: {
+          Object rcvr = getStack(frame, stack, stackPointer - 1);
+          Object arg = getStack(frame, stack, stackPointer);
+
+          stackPointer -= 1;
+
+          Object result = doBinaryFastPath(bytecode, rcvr, arg);
+          if (result != null) {
+            setStack(frame, stack, stackPointer, result);
+            bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
+            break;
+          }
+
+          try {
+            setStack(frame, stack, stackPointer,
+                doBinarySend(frame, bytecodeIndex, bytecodes[bytecodeIndex + 1], rcvr, arg));
+            bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
+          } catch (RestartLoopException e) {
+            bytecodeIndex = 0;
+            stackPointer = -1;
+          } catch (EscapedBlockException e) {
+            CompilerDirectives.transferToInterpreter();
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
+            bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
+          }
+          break;
+        }
+
+        case AT_PUT: {
+          Object rcvr = getStack(frame, stack, stackPointer - 2);
+          Object idx = getStack(frame, stack, stackPointer - 1);
+          Object value = getStack(frame, stack, stackPointer);
+
+          stackPointer -= 2;
+
+          if (doArrayAtPut(rcvr, idx, value)) {
+            setStack(frame, stack, stackPointer, value);
+            bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
+            break;
+          }
+
+          try {
+            setStack(frame, stack, stackPointer, doTernarySend(
+                frame, bytecodeIndex, bytecodes[bytecodeIndex + 1], rcvr, idx, value));
+            bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
+          } catch (RestartLoopException e) {
+            bytecodeIndex = 0;
+            stackPointer = -1;
+          } catch (EscapedBlockException e) {
+            CompilerDirectives.transferToInterpreter();
+            setStack(frame, stack, stackPointer, handleEscapedBlock(frame, e));
             bytecodeIndex += Bytecodes.LEN_TWO_ARGS;
           }
           break;
@@ -1130,6 +1594,250 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
     }
   }
 
+  /**
+   * Execute the send of a superinstruction or of a bytecode with inline fast path.
+   * These bytecodes are not rewritten, instead the specialized node is kept
+   * in the quickened slot of the bytecode.
+   */
+  private Object doBinarySend(final VirtualFrame frame, final int bytecodeIndex,
+      final byte selectorIdx, final Object rcvr, final Object arg) {
+    Node node = quickenedField[bytecodeIndex];
+    if (node == null) {
+      return specializeSend(frame, bytecodeIndex, selectorIdx, new Object[] {rcvr, arg});
+    }
+
+    if (node instanceof BinaryExpressionNode) {
+      try {
+        return ((BinaryExpressionNode) node).executeEvaluated(frame, rcvr, arg);
+      } catch (RespecializeException r) {
+        return respecializeSend(frame, bytecodeIndex, r, new Object[] {rcvr, arg});
+      }
+    }
+
+    return ((AbstractMessageSendNode) node).doPreEvaluated(frame, new Object[] {rcvr, arg});
+  }
+
+  private Object doTernarySend(final VirtualFrame frame, final int bytecodeIndex,
+      final byte selectorIdx, final Object rcvr, final Object arg1, final Object arg2) {
+    Node node = quickenedField[bytecodeIndex];
+    if (node == null) {
+      return specializeSend(frame, bytecodeIndex, selectorIdx,
+          new Object[] {rcvr, arg1, arg2});
+    }
+
+    if (node instanceof TernaryExpressionNode) {
+      try {
+        return ((TernaryExpressionNode) node).executeEvaluated(frame, rcvr, arg1, arg2);
+      } catch (RespecializeException r) {
+        return respecializeSend(frame, bytecodeIndex, r, new Object[] {rcvr, arg1, arg2});
+      }
+    }
+
+    return ((AbstractMessageSendNode) node).doPreEvaluated(frame,
+        new Object[] {rcvr, arg1, arg2});
+  }
+
+  @InliningCutoff
+  private Object specializeSend(final VirtualFrame frame, final int bytecodeIndex,
+      final byte selectorIdx, final Object[] callArgs) {
+    CompilerDirectives.transferToInterpreterAndInvalidate();
+    SSymbol signature = (SSymbol) literalsAndConstantsField[selectorIdx];
+    ExpressionNode[] dummyArgs = new ExpressionNode[callArgs.length];
+    Arrays.fill(dummyArgs, dummyNode);
+
+    Specializer<ExpressionNode, SSymbol> specializer =
+        Primitives.Current.getEagerSpecializer(signature, callArgs, dummyArgs);
+
+    if (specializer != null) {
+      ExpressionNode quick = specializer.create(callArgs, dummyArgs, sourceCoord);
+      quickenedField[bytecodeIndex] = insert(quick);
+      try {
+        if (callArgs.length == 2) {
+          return ((BinaryExpressionNode) quick).executeEvaluated(frame, callArgs[0],
+              callArgs[1]);
+        }
+        return ((TernaryExpressionNode) quick).executeEvaluated(frame, callArgs[0],
+            callArgs[1], callArgs[2]);
+      } catch (RespecializeException r) {
+        return respecializeSend(frame, bytecodeIndex, r, callArgs);
+      }
+    }
+
+    GenericMessageSendNode quick = MessageSendNode.createGeneric(signature, null, sourceCoord);
+    quickenedField[bytecodeIndex] = insert(quick);
+    return quick.doPreEvaluated(frame, callArgs);
+  }
+
+  @InliningCutoff
+  private Object respecializeSend(final VirtualFrame frame, final int bytecodeIndex,
+      final RespecializeException r, final Object[] callArgs) {
+    CompilerDirectives.transferToInterpreterAndInvalidate();
+    quickenedField[bytecodeIndex] = insert(r.send);
+    return r.send.doPreEvaluated(frame, callArgs);
+  }
+
+  /**
+   * @return the comparison bytecode for the selector of a fused SEND_JUMP_ON_FALSE_POP, or
+   *         SEND if it has no fast path
+   */
+  private byte getComparisonBytecode(final byte selectorIdx) {
+    Object selector = literalsAndConstantsField[selectorIdx];
+    if (selector == symLessThan) {
+      return LT;
+    } else if (selector == symLessOrEqual) {
+      return LTE;
+    } else if (selector == symGreaterThan) {
+      return GT;
+    } else if (selector == symEquals) {
+      return EQ;
+    }
+    return SEND;
+  }
+
+  /**
+   * Fast path for the ADD, SUB, LT, LTE, GT, EQ, and AT bytecodes.
+   *
+   * @return the result, or null if the operation needs to be done by a send
+   */
+  private static Object doBinaryFastPath(final byte bytecode, final Object left,
+      final Object right) {
+    if (bytecode == AT) {
+      if (left instanceof SArray && right instanceof Long) {
+        return doArrayAt((SArray) left, (Long) right);
+      }
+      return null;
+    }
+
+    if (left instanceof Long && right instanceof Long) {
+      long l = (Long) left;
+      long r = (Long) right;
+      try {
+        switch (bytecode) {
+          case ADD:
+            return Math.addExact(l, r);
+          case SUB:
+            return Math.subtractExact(l, r);
+          case LT:
+            return l < r;
+          case LTE:
+            return l <= r;
+          case GT:
+            return l > r;
+          case EQ:
+            return l == r;
+          default:
+            return null;
+        }
+      } catch (ArithmeticException e) {
+        // overflow, the send will give us a big integer
+        return null;
+      }
+    }
+
+    if (left instanceof Double && right instanceof Double) {
+      double l = (Double) left;
+      double r = (Double) right;
+      switch (bytecode) {
+        case ADD:
+          return l + r;
+        case SUB:
+          return l - r;
+        case LT:
+          return l < r;
+        case LTE:
+          return l <= r;
+        case GT:
+          return l > r;
+        case EQ:
+          return l == r;
+        default:
+          return null;
+      }
+    }
+
+    return null;
+  }
+
+  private static Object doArrayAt(final SArray arr, final long idx) {
+    long i = idx - 1;
+    if (arr.isObjectType()) {
+      Object[] storage = arr.getObjectStorage();
+      if (0 <= i && i < storage.length) {
+        return storage[(int) i];
+      }
+    } else if (arr.isLongType()) {
+      long[] storage = arr.getLongStorage();
+      if (0 <= i && i < storage.length) {
+        return storage[(int) i];
+      }
+    } else if (arr.isIntType()) {
+      int[] storage = arr.getIntStorage();
+      if (0 <= i && i < storage.length) {
+        return (long) storage[(int) i];
+      }
+    } else if (arr.isByteType()) {
+      byte[] storage = arr.getByteStorage();
+      if (0 <= i && i < storage.length) {
+        return SArray.readByte(storage, i);
+      }
+    } else if (arr.isDoubleType()) {
+      double[] storage = arr.getDoubleStorage();
+      if (0 <= i && i < storage.length) {
+        return storage[(int) i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Fast path for the AT_PUT bytecode, which only handles stores that do not
+   * require a change of the array's storage strategy.
+   *
+   * @return true, if the value was stored
+   */
+  private static boolean doArrayAtPut(final Object rcvr, final Object idx,
+      final Object value) {
+    if (!(rcvr instanceof SArray) || !(idx instanceof Long)) {
+      return false;
+    }
+
+    SArray arr = (SArray) rcvr;
+    long i = (Long) idx - 1;
+
+    if (arr.isObjectType()) {
+      Object[] storage = arr.getObjectStorage();
+      if (0 <= i && i < storage.length) {
+        storage[(int) i] = value;
+        return true;
+      }
+    } else if (arr.isLongType() && value instanceof Long) {
+      long[] storage = arr.getLongStorage();
+      if (0 <= i && i < storage.length) {
+        storage[(int) i] = (Long) value;
+        return true;
+      }
+    } else if (arr.isIntType() && value instanceof Long && SArray.fitsInInt((Long) value)) {
+      int[] storage = arr.getIntStorage();
+      if (0 <= i && i < storage.length) {
+        storage[(int) i] = ((Long) value).intValue();
+        return true;
+      }
+    } else if (arr.isByteType() && value instanceof Long && SArray.fitsInByte((Long) value)) {
+      byte[] storage = arr.getByteStorage();
+      if (0 <= i && i < storage.length) {
+        storage[(int) i] = ((Long) value).byteValue();
+        return true;
+      }
+    } else if (arr.isDoubleType() && value instanceof Double) {
+      double[] storage = arr.getDoubleStorage();
+      if (0 <= i && i < storage.length) {
+        storage[(int) i] = (Double) value;
+        return true;
+      }
+    }
+    return false;
+  }
+
   @InliningCutoff
   public Object specializeSendBytecode(final VirtualFrame frame, final int bytecodeIndex,
       final SSymbol signature, final int numberOfArguments, final Object[] callArgs) {
@@ -1199,11 +1907,10 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
     byte contextIdx = bytecodesField[bytecodeIndex + 1];
 
     MaterializedFrame ctx = determineContext(frame, contextIdx);
-    FrameOnStackMarker marker =
-        (FrameOnStackMarker) ctx.getObject(frameOnStackMarkerIndex);
+    FrameOnStackMarker marker = FrameOnStackMarker.markerFor(ctx, frameOnStackMarkerIndex);
 
     if (marker.isOnStack()) {
-      throw new ReturnException(result, marker);
+      throw marker.returnWith(result);
     } else {
       SBlock block = (SBlock) frame.getArguments()[0];
       throw new EscapedBlockException(block);
@@ -1345,6 +2052,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
       assert jump.loopBeginIdx == i : "we use the less or equal, but actually expect it to be strictly equal";
       backJumpsToPatch.add(
           new BackJumpPatch(jump.backwardsJumpIdx, mgenc.offsetOfNextInstruction()));
+      mgenc.resetLastBytecodeBuffer();
     }
   }
 
@@ -1354,6 +2062,7 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
       Jump j = jumps.poll();
       assert j.originalTarget == i : "we use the less or equal, but actually expect it to be strictly equal";
       mgenc.patchJumpOffsetToPointToNextInstruction(j.offsetIdx, null);
+      mgenc.resetLastBytecodeBuffer();
     }
   }
 
@@ -1510,7 +2219,15 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           throw new IllegalStateException("contextLevel is 0, so, not expected to be here");
         }
 
-        case SEND: {
+        case SEND:
+        case ADD:
+        case SUB:
+        case LT:
+        case LTE:
+        case GT:
+        case EQ:
+        case AT:
+        case AT_PUT: {
           byte literalIdx = bytecodes[i + 1];
           SSymbol signature = (SSymbol) literalsAndConstants[literalIdx];
           emitSEND(mgenc, signature, null);
@@ -1598,6 +2315,31 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           break;
         }
 
+        // superinstructions are split up again, since the context of the
+        // inlined code changes, and they are fused again where possible
+        case PUSH_LOCAL_CONSTANT_SEND: {
+          byte localIdx = bytecodes[i + 1];
+          Local local = inliner.getAdaptedLocal(localIdx, 0, true);
+          local.emitPush(mgenc);
+
+          emitPUSHCONSTANT(mgenc, literalsAndConstants[bytecodes[i + 2]], null);
+          emitSEND(mgenc, (SSymbol) literalsAndConstants[bytecodes[i + 3]], null);
+          break;
+        }
+
+        case PUSH_ARG_FIELD_SEND: {
+          throw new IllegalStateException("contextLevel is 0, so, not expected to be here");
+        }
+
+        case SEND_JUMP_ON_FALSE_POP: {
+          int offset = getJumpOffset(bytecodes[i + 1], bytecodes[i + 2]);
+
+          emitSEND(mgenc, (SSymbol) literalsAndConstants[bytecodes[i + 3]], null);
+          int idxOffset = emitJumpOnBoolWithDummyOffset(mgenc, true, true);
+          jumps.add(new Jump(bytecode, offset + i, idxOffset));
+          break;
+        }
+
         default:
           throw new NotYetImplementedException(
               "Support for bytecode " + getBytecodeName(bytecode) + " has not yet been added");
@@ -1737,6 +2479,17 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           break;
         }
 
+        case ADD:
+        case SUB:
+        case LT:
+        case LTE:
+        case GT:
+        case EQ:
+        case AT:
+        case AT_PUT: {
+          break;
+        }
+
         case RETURN_NON_LOCAL: {
           byte contextIdx = bytecodes[i + 1];
           if (requiresChangesToContextLevels && contextIdx >= inliner.contextLevel) {
@@ -1792,6 +2545,20 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           break;
         }
 
+        case PUSH_LOCAL_CONSTANT_SEND: {
+          byte localIdx = bytecodes[i + 1];
+          Local l = inliner.getAdaptedLocal(localIdx, 0, requiresChangesToContextLevels);
+          if (localIdx != l.getIndex()) {
+            bytecodes[i + 1] = (byte) l.getIndex();
+          }
+          break;
+        }
+
+        case PUSH_ARG_FIELD_SEND:
+        case SEND_JUMP_ON_FALSE_POP: {
+          break;
+        }
+
         default:
           throw new NotYetImplementedException(
               "Support for bytecode " + getBytecodeName(bytecode) + " has not yet been added");
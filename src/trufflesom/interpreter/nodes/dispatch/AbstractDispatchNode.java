@@ -19,7 +19,7 @@ import trufflesom.vm.VmSettings;
 @GenerateWrapper
 public abstract class AbstractDispatchNode extends Node
     implements DispatchChain, InstrumentableNode, WithSource {
-  public static final int INLINE_CACHE_SIZE = 6;
+  public static final int INLINE_CACHE_SIZE = VmSettings.InlineCacheSize;
 
   public abstract Object executeDispatch(VirtualFrame frame, Object[] arguments);
 
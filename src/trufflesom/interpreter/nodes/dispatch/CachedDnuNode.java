@@ -1,6 +1,6 @@
 package trufflesom.interpreter.nodes.dispatch;
 
-import static trufflesom.vm.SymbolTable.symbolFor;
+import static trufflesom.vm.SymbolTable.symDnu;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -43,8 +43,7 @@ public final class CachedDnuNode extends AbstractCachedDispatchNode {
   }
 
   public static CallTarget getDnuCallTarget(final SClass rcvrClass) {
-    return rcvrClass.lookupInvokable(
-        symbolFor("doesNotUnderstand:arguments:")).getCallTarget();
+    return rcvrClass.lookupInvokable(symDnu).getCallTarget();
   }
 
   protected Object performDnu(final Object[] arguments, final Object rcvr) {
@@ -55,6 +54,10 @@ public final class CachedDnuNode extends AbstractCachedDispatchNode {
           + Types.getClassOf(rcvr).getName().getString());
     }
 
+    if (VmSettings.DnuPromotionThreshold > 0 && CompilerDirectives.inInterpreter()) {
+      DnuForwarder.recordDnu(Types.getClassOf(rcvr), selector);
+    }
+
     Object[] argsArr = new Object[] {
         rcvr, selector, SArguments.getArgumentsWithoutReceiver(arguments)};
     return cachedMethod.call(argsArr);
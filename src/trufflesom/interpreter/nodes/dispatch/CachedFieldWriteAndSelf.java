@@ -28,7 +28,7 @@ public class CachedFieldWriteAndSelf extends AbstractDispatchWithSource {
   @Override
   public Object executeDispatch(final VirtualFrame frame, final Object[] arguments) {
     try {
-      expectedLayout.checkIsLatest();
+      expectedLayout.checkIsValid();
       Object rcvr = arguments[0];
       Object value = arguments[1];
 
@@ -13,6 +13,15 @@ import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SObject;
 
 
+/**
+ * Allocates instances of a class directly in the latest layout of the class.
+ *
+ * <p>
+ * The latest layout is the one that the initialization of earlier instances led to, so once
+ * an allocation site is warmed up, new objects do not need layout transitions when their
+ * fields are written for the first time. When the layout advances, the site picks up the new
+ * one on its next allocation.
+ */
 public class CachedNewObject extends AbstractDispatchWithSource {
   private final ObjectLayout             rcvrLayout;
   @CompilationFinal private Assumption   isLatest;
@@ -47,7 +56,7 @@ public class CachedNewObject extends AbstractDispatchWithSource {
           isLatest = l.getAssumption();
         }
 
-        return new SObject(clazz, newInstanceLayout);
+        return SObject.create(clazz, newInstanceLayout);
       }
     }
     return nextInCache.executeDispatch(frame, arguments);
@@ -2,6 +2,8 @@ package trufflesom.interpreter.nodes.dispatch;
 
 import com.oracle.truffle.api.nodes.NodeCost;
 
+import trufflesom.vm.VmSettings;
+
 
 public interface DispatchChain {
   int lengthOfDispatchChain();
@@ -13,7 +15,7 @@ public interface DispatchChain {
         return NodeCost.UNINITIALIZED;
       } else if (dispatchChain == 1) {
         return NodeCost.MONOMORPHIC;
-      } else if (dispatchChain <= AbstractDispatchNode.INLINE_CACHE_SIZE) {
+      } else if (dispatchChain <= VmSettings.MaxInlineCacheSize) {
         return NodeCost.POLYMORPHIC;
       } else {
         return NodeCost.MEGAMORPHIC;
@@ -5,6 +5,7 @@ import com.oracle.truffle.api.nodes.InvalidAssumptionException;
 import trufflesom.interpreter.objectstorage.ObjectLayout;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SStringBuilder;
 
 
 public abstract class DispatchGuard {
@@ -25,8 +26,15 @@ public abstract class DispatchGuard {
       return new CheckSClass(((SClass) obj).getObjectLayout());
     }
 
-    if (clazz == SObject.class) {
-      return new CheckSObject(((SObject) obj).getObjectLayout());
+    if (obj instanceof SObject) {
+      // the Java class depends on the number of fields, and is the same for all objects of a
+      // layout
+      return new CheckSObject(clazz, ((SObject) obj).getObjectLayout());
+    }
+
+    if (clazz == SStringBuilder.class) {
+      // subclasses of StringBuilder share the Java class
+      return new CheckSStringBuilder(((SStringBuilder) obj).getSOMClass());
     }
 
     return new CheckClass(clazz);
@@ -60,6 +68,21 @@ public abstract class DispatchGuard {
     }
   }
 
+  private static final class CheckSStringBuilder extends DispatchGuard {
+
+    private final SClass expected;
+
+    CheckSStringBuilder(final SClass expected) {
+      this.expected = expected;
+    }
+
+    @Override
+    public boolean entryMatches(final Object obj) throws InvalidAssumptionException {
+      return obj.getClass() == SStringBuilder.class &&
+          ((SStringBuilder) obj).getSOMClass() == expected;
+    }
+  }
+
   private static final class CheckSClass extends DispatchGuard {
 
     private final ObjectLayout expected;
@@ -70,7 +93,7 @@ public abstract class DispatchGuard {
 
     @Override
     public boolean entryMatches(final Object obj) throws InvalidAssumptionException {
-      expected.checkIsLatest();
+      expected.checkIsValid();
       return obj.getClass() == SClass.class &&
           ((SClass) obj).getObjectLayout() == expected;
     }
@@ -78,16 +101,18 @@ public abstract class DispatchGuard {
 
   private static final class CheckSObject extends DispatchGuard {
 
+    private final Class<?>     expectedClass;
     private final ObjectLayout expected;
 
-    CheckSObject(final ObjectLayout expected) {
+    CheckSObject(final Class<?> expectedClass, final ObjectLayout expected) {
+      this.expectedClass = expectedClass;
       this.expected = expected;
     }
 
     @Override
     public boolean entryMatches(final Object obj) throws InvalidAssumptionException {
-      expected.checkIsLatest();
-      return obj.getClass() == SObject.class &&
+      expected.checkIsValid();
+      return obj.getClass() == expectedClass &&
           ((SObject) obj).getObjectLayout() == expected;
     }
   }
@@ -0,0 +1,93 @@
+package trufflesom.interpreter.nodes.dispatch;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+
+import trufflesom.interpreter.Primitive;
+import trufflesom.interpreter.SArguments;
+import trufflesom.interpreter.nodes.ExpressionNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.VmSettings;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SInvokable.SPrimitive;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Promotes (class, selector) pairs that frequently end up in {@code doesNotUnderstand:} to a
+ * synthesized method, which forwards to {@code doesNotUnderstand:arguments:}.
+ *
+ * <p>
+ * The method is only added to the dispatch table of the class, and not to its methods. Thus,
+ * sends dispatch to it like to any other method, but it is not visible to reflection. The
+ * method is dropped with the dispatch tables when a class changes, and promoted again if
+ * necessary.
+ *
+ * <p>
+ * Enabled with {@code -Dsom.promoteDnuAfter=n}, which promotes a pair after n does not
+ * understand sends.
+ */
+public final class DnuForwarder {
+
+  private DnuForwarder() {}
+
+  /**
+   * Needs to be called in the interpreter for every send that the class does not understand.
+   */
+  @TruffleBoundary
+  public static void recordDnu(final SClass rcvrClass, final SSymbol selector) {
+    // the count stays past the threshold, so check the table to promote again after the
+    // dispatch tables were dropped, but not while a cached DNU node still reports sends
+    if (rcvrClass.incrementDnuCount(selector) >= VmSettings.DnuPromotionThreshold
+        && rcvrClass.lookupInvokable(selector) == null) {
+      rcvrClass.addToDispatchTable(selector, create(rcvrClass, selector));
+    }
+  }
+
+  private static SInvokable create(final SClass rcvrClass, final SSymbol selector) {
+    SInvokable dnu = rcvrClass.lookupInvokable(SymbolTable.symDnu);
+    long coord = dnu.getSourceCoordinate();
+
+    ForwardNode node = new ForwardNode(selector, dnu.getCallTarget()).initialize(coord);
+    Primitive primMethodNode = new Primitive(selector.getString(), dnu.getSource(), coord,
+        node, (ExpressionNode) node.deepCopy());
+
+    SPrimitive forwarder = new SPrimitive(selector, primMethodNode);
+    forwarder.setHolder(rcvrClass);
+    return forwarder;
+  }
+
+  private static final class ForwardNode extends ExpressionNode {
+    private final SSymbol    selector;
+    private final CallTarget dnuTarget;
+
+    @Child private DirectCallNode dnuMethod;
+
+    ForwardNode(final SSymbol selector, final CallTarget dnuTarget) {
+      this.selector = selector;
+      this.dnuTarget = dnuTarget;
+    }
+
+    @Override
+    public Object executeGeneric(final VirtualFrame frame) {
+      return doPreEvaluated(frame, frame.getArguments());
+    }
+
+    @Override
+    public Object doPreEvaluated(final VirtualFrame frame, final Object[] args) {
+      if (dnuMethod == null) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        dnuMethod = insert(Truffle.getRuntime().createDirectCallNode(dnuTarget));
+      }
+
+      Object[] dnuArgs = new Object[] {
+          args[0], selector, SArguments.getArgumentsWithoutReceiver(args)};
+      return dnuMethod.call(dnuArgs);
+    }
+  }
+}
@@ -2,7 +2,6 @@ package trufflesom.interpreter.nodes.dispatch;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.IndirectCallNode;
@@ -10,6 +9,7 @@ import com.oracle.truffle.api.nodes.IndirectCallNode;
 import trufflesom.interpreter.SArguments;
 import trufflesom.primitives.reflection.ObjectPrims.ClassPrim;
 import trufflesom.primitives.reflection.ObjectPrimsFactory.ClassPrimFactory;
+import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SArray;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SInvokable;
@@ -28,7 +28,6 @@ public final class GenericDispatchNode extends AbstractDispatchNode {
     classNode = ClassPrimFactory.create(null);
   }
 
-  @TruffleBoundary
   private Object dispatch(final Object[] arguments) {
     Object rcvr = arguments[0];
     SClass rcvrClass = classNode.executeEvaluated(rcvr);
@@ -41,9 +40,10 @@ public final class GenericDispatchNode extends AbstractDispatchNode {
       target = method.getCallTarget();
       args = arguments;
     } else {
-      // TODO: actually do use node
-      CompilerDirectives.transferToInterpreter();
-      // Won't use DNU caching here, because it is already a megamorphic node
+      if (VmSettings.DnuPromotionThreshold > 0 && CompilerDirectives.inInterpreter()) {
+        DnuForwarder.recordDnu(rcvrClass, selector);
+      }
+      // the DNU method is found with the dispatch table, too, so this stays compiled
       SArray argumentsArray = SArguments.getArgumentsWithoutReceiver(arguments);
       args = new Object[] {arguments[0], selector, argumentsArray};
       target = CachedDnuNode.getDnuCallTarget(rcvrClass);
@@ -0,0 +1,110 @@
+package trufflesom.interpreter.nodes.dispatch;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.SourceSection;
+
+import trufflesom.interpreter.nodes.AbstractMessageSendNode;
+import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Records the number of receiver classes seen at each call site, when enabled with
+ * {@code -Dsom.printPolymorphismStats=true}, and reports them on exit.
+ */
+public final class PolymorphismStatistics {
+
+  private static final IdentityHashMap<AbstractMessageSendNode, Site> sites =
+      new IdentityHashMap<>();
+
+  private PolymorphismStatistics() {}
+
+  private static final class Site {
+    private final String  location;
+    private final SSymbol selector;
+
+    private int     degree;
+    private long    numCalls;
+    private boolean megamorphic;
+
+    Site(final String location, final SSymbol selector) {
+      this.location = location;
+      this.selector = selector;
+    }
+  }
+
+  /**
+   * @param degree the number of entries in the dispatch chain
+   * @param numCalls the number of calls in the interpreter so far
+   */
+  public static synchronized void recordCacheEntry(final AbstractMessageSendNode send,
+      final SSymbol selector, final int degree, final long numCalls) {
+    CompilerAsserts.neverPartOfCompilation("PolymorphismStatistics");
+    Site site = getSite(send, selector);
+    site.degree = Math.max(site.degree, degree);
+    site.numCalls = numCalls;
+  }
+
+  public static synchronized void recordMegamorphic(final AbstractMessageSendNode send,
+      final SSymbol selector, final int degree, final long numCalls) {
+    recordCacheEntry(send, selector, degree, numCalls);
+    sites.get(send).megamorphic = true;
+  }
+
+  private static Site getSite(final AbstractMessageSendNode send, final SSymbol selector) {
+    Site site = sites.get(send);
+    if (site == null) {
+      site = new Site(getLocation(send), selector);
+      sites.put(send, site);
+    }
+    return site;
+  }
+
+  private static String getLocation(final AbstractMessageSendNode send) {
+    SourceSection section = send.getSourceSection();
+    if (section == null) {
+      return "unknown";
+    }
+    return section.getSource().getName() + ":" + section.getStartLine() + ":"
+        + section.getStartColumn();
+  }
+
+  @TruffleBoundary
+  public static synchronized void reportStatistics() {
+    ArrayList<Site> all = new ArrayList<>(sites.values());
+    all.sort((a, b) -> Integer.compare(b.degree, a.degree));
+
+    int numPolymorphic = 0;
+    int numMegamorphic = 0;
+    for (Site s : all) {
+      if (s.megamorphic) {
+        numMegamorphic += 1;
+      } else if (s.degree > 1) {
+        numPolymorphic += 1;
+      }
+    }
+
+    Universe.errorPrintln("[Polymorphism] call sites: " + all.size() + " polymorphic: "
+        + numPolymorphic + " megamorphic: " + numMegamorphic + " cache size: "
+        + VmSettings.InlineCacheSize + " max. cache size: " + VmSettings.MaxInlineCacheSize);
+
+    for (Site s : all) {
+      if (s.degree <= 1 && !s.megamorphic) {
+        continue;
+      }
+      String state;
+      if (s.megamorphic) {
+        state = "megamorphic, cache full after " + s.numCalls + " calls";
+      } else {
+        state = "polymorphic";
+      }
+      Universe.errorPrintln("[Polymorphism] " + s.location + " #" + s.selector.getString()
+          + " receiver classes: " + s.degree + " " + state);
+    }
+  }
+}
@@ -4,10 +4,15 @@ import static com.oracle.truffle.api.CompilerDirectives.transferToInterpreterAnd
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.InstrumentableNode.WrapperNode;
 import com.oracle.truffle.api.nodes.Node;
 
 import bdt.primitives.nodes.PreevaluatedExpression;
 import trufflesom.interpreter.Types;
+import trufflesom.interpreter.nodes.GenericMessageSendNode;
+import trufflesom.vm.ClassHierarchyAnalysis;
+import trufflesom.vm.ClassHierarchyAnalysis.UniqueImplementor;
+import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SInvokable;
 import trufflesom.vmobjects.SObject;
@@ -15,6 +20,13 @@ import trufflesom.vmobjects.SSymbol;
 
 
 public final class UninitializedDispatchNode extends AbstractDispatchNode {
+  /**
+   * A call site with a full inline cache may cache another receiver class, if it was called
+   * at least this often per cached class. Such sites are hot, and see new receiver classes
+   * rarely.
+   */
+  private static final int MIN_CALLS_PER_CACHE_ENTRY = 100;
+
   private final SSymbol selector;
 
   public UninitializedDispatchNode(final SSymbol selector) {
@@ -42,24 +54,60 @@ public final class UninitializedDispatchNode extends AbstractDispatchNode {
       }
     }
 
-    if (chainDepth < INLINE_CACHE_SIZE) {
+    GenericMessageSendNode send = getGenericSendNode(first);
+    long numCalls = send == null ? 0 : send.getNumberOfCallsInInterpreter();
+
+    if (chainDepth < INLINE_CACHE_SIZE || mayGrowBeyondCacheSize(chainDepth, numCalls)) {
       UninitializedDispatchNode newChainEnd = new UninitializedDispatchNode(selector);
-      AbstractDispatchNode node = createDispatch(rcvr, selector, newChainEnd);
+      AbstractDispatchNode node = createDispatch(rcvr, selector, newChainEnd, true);
 
       replace(node);
       newChainEnd.notifyAsInserted();
+
+      if (VmSettings.PrintPolymorphismStats && send != null) {
+        PolymorphismStatistics.recordCacheEntry(send, selector, chainDepth + 1, numCalls);
+      }
       return node;
     }
 
     // the chain is longer than the maximum defined by INLINE_CACHE_SIZE and
     // thus, this callsite is considered to be megaprophic, and we generalize it.
+    if (VmSettings.PrintPolymorphismStats && send != null) {
+      PolymorphismStatistics.recordMegamorphic(send, selector, chainDepth + 1, numCalls);
+    }
+
     GenericDispatchNode genericReplacement = new GenericDispatchNode(selector);
     first.replace(genericReplacement);
     return genericReplacement;
   }
 
+  private static boolean mayGrowBeyondCacheSize(final int chainDepth, final long numCalls) {
+    return chainDepth < VmSettings.MaxInlineCacheSize
+        && numCalls >= (long) chainDepth * MIN_CALLS_PER_CACHE_ENTRY;
+  }
+
+  private static GenericMessageSendNode getGenericSendNode(final AbstractDispatchNode first) {
+    Node parent = first.getParent();
+    if (parent instanceof WrapperNode) {
+      parent = parent.getParent();
+    }
+    if (parent instanceof GenericMessageSendNode) {
+      return (GenericMessageSendNode) parent;
+    }
+    return null;
+  }
+
   public static AbstractDispatchNode createDispatch(final Object rcvr, final SSymbol selector,
       final UninitializedDispatchNode newChainEnd) {
+    return createDispatch(rcvr, selector, newChainEnd, false);
+  }
+
+  /**
+   * @param useUniqueImplementor whether a method that is the only implementation of the
+   *          selector is dispatched for all receiver classes, instead of only the current one
+   */
+  public static AbstractDispatchNode createDispatch(final Object rcvr, final SSymbol selector,
+      final UninitializedDispatchNode newChainEnd, final boolean useUniqueImplementor) {
     SClass rcvrClass = Types.getClassOf(rcvr);
     SInvokable method = rcvrClass.lookupInvokable(selector);
 
@@ -80,6 +128,13 @@ public final class UninitializedDispatchNode extends AbstractDispatchNode {
       return new CachedExprNode(guard, expr, method.getSource(), newChainEnd);
     }
 
+    if (useUniqueImplementor) {
+      UniqueImplementor unique = ClassHierarchyAnalysis.getUniqueImplementor(selector);
+      if (unique != null && unique.getMethod() == method) {
+        return new UniqueImplementorDispatchNode(selector, unique, newChainEnd);
+      }
+    }
+
     CallTarget callTarget = method.getCallTarget();
     return new CachedDispatchNode(guard, callTarget, newChainEnd);
   }
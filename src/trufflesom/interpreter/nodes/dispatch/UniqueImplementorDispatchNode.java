@@ -0,0 +1,84 @@
+package trufflesom.interpreter.nodes.dispatch;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.InvalidAssumptionException;
+
+import trufflesom.interpreter.nodes.SOMNode;
+import trufflesom.primitives.reflection.ObjectPrims.ClassPrim;
+import trufflesom.primitives.reflection.ObjectPrimsFactory.ClassPrimFactory;
+import trufflesom.vm.ClassHierarchyAnalysis;
+import trufflesom.vm.ClassHierarchyAnalysis.UniqueImplementor;
+import trufflesom.vm.Classes;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Dispatches a selector that has only a single implementation in all loaded classes, for any
+ * receiver class that understands it.
+ *
+ * <p>
+ * If the implementation is in Object, and all classes inherit from Object, all receivers
+ * understand it, and no check of the receiver class is needed. Otherwise, the receiver class
+ * is checked with its dispatch table, which still avoids a cache entry per receiver class.
+ *
+ * <p>
+ * All receivers share the call target of the method, so this relies on the method's use of
+ * {@code self} being independent of the receiver class. This holds for SOM methods, because
+ * field accesses and sends to {@code self} specialize on the receiver at run time.
+ */
+public final class UniqueImplementorDispatchNode extends AbstractCachedDispatchNode {
+
+  private final SSymbol    selector;
+  private final SInvokable method;
+  private final Assumption isUnique;
+
+  /** Only set when the method is implemented in Object. */
+  private final Assumption allClassesInheritFromObject;
+
+  @Child private ClassPrim classNode;
+
+  public UniqueImplementorDispatchNode(final SSymbol selector,
+      final UniqueImplementor implementor, final AbstractDispatchNode nextInCache) {
+    super(implementor.getMethod().getCallTarget(), nextInCache);
+    this.selector = selector;
+    this.method = implementor.getMethod();
+    this.isUnique = implementor.getIsUnique();
+
+    Assumption allInherit = ClassHierarchyAnalysis.getAllClassesInheritFromObject();
+    if (method.getHolder() == Classes.objectClass && allInherit.isValid()) {
+      allClassesInheritFromObject = allInherit;
+    } else {
+      // once a class without Object as superclass was loaded, receivers need to be checked
+      allClassesInheritFromObject = null;
+      classNode = ClassPrimFactory.create(null);
+    }
+  }
+
+  @Override
+  public Object executeDispatch(final VirtualFrame frame, final Object[] arguments) {
+    Object rcvr = arguments[0];
+    try {
+      isUnique.check();
+      if (understands(rcvr)) {
+        return cachedMethod.call(arguments);
+      } else {
+        return nextInCache.executeDispatch(frame, arguments);
+      }
+    } catch (InvalidAssumptionException e) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      return replace(SOMNode.unwrapIfNeeded(
+          nextInCache)).executeDispatch(frame, arguments);
+    }
+  }
+
+  private boolean understands(final Object rcvr) throws InvalidAssumptionException {
+    if (allClassesInheritFromObject != null) {
+      allClassesInheritFromObject.check();
+      return true;
+    }
+    return classNode.executeEvaluated(rcvr).lookupInvokable(selector) == method;
+  }
+}
@@ -4,7 +4,11 @@ import java.util.ArrayList;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.source.Source;
 
 import bdt.inlining.ScopeAdaptationVisitor;
@@ -14,6 +18,8 @@ import trufflesom.compiler.Variable;
 import trufflesom.compiler.Variable.Argument;
 import trufflesom.interpreter.Method;
 import trufflesom.interpreter.nodes.ExpressionNode;
+import trufflesom.interpreter.nodes.NonLocalVariableNode;
+import trufflesom.interpreter.nodes.ReturnNonLocalNode;
 import trufflesom.interpreter.nodes.dispatch.AbstractDispatchNode;
 import trufflesom.vm.Classes;
 import trufflesom.vmobjects.SBlock;
@@ -107,9 +113,20 @@ public class BlockNode extends LiteralNode {
       replace(createNode(splitMethod));
     } else {
       blockMethod.updateAfterScopeChange(adapted);
+      if (!capturesContextFor(adapted)) {
+        replace(createNode(blockMethod));
+      }
     }
   }
 
+  /**
+   * After inlining, a block may need more of its outer context than before, for instance,
+   * when the arguments of an inlined outer block became locals.
+   */
+  protected boolean capturesContextFor(final Method blockIvk) {
+    return true;
+  }
+
   protected BlockNode createNode(final SMethod adapted) {
     return new BlockNode(adapted, reliesOnOuterFrameDescriptors).initialize(sourceCoord);
   }
@@ -119,7 +136,7 @@ public class BlockNode extends LiteralNode {
     return blockMethod.getInvokable().inline(mgenc, blockMethod);
   }
 
-  public static final class BlockNodeWithContext extends BlockNode {
+  public static class BlockNodeWithContext extends BlockNode {
 
     public BlockNodeWithContext(final SMethod blockMethod,
         final boolean reliesOnOuterFrameDescriptors) {
@@ -150,4 +167,79 @@ public class BlockNode extends LiteralNode {
           adapted, reliesOnOuterFrameDescriptors).initialize(sourceCoord);
     }
   }
+
+  /**
+   * Creates blocks that access only arguments of their outer scopes. Such blocks capture only
+   * the arguments, and not the outer frame with all its locals. This keeps the locals from
+   * being retained by the block, and the outer frame does not need to be materialized.
+   *
+   * <p>
+   * Outer locals and non-local returns need the outer frame, and thus
+   * {@link BlockNodeWithContext}.
+   */
+  public static final class BlockNodeWithArgumentContext extends BlockNodeWithContext {
+
+    private static final FrameDescriptor ARGUMENTS_ONLY =
+        FrameDescriptor.newBuilder(0).build();
+
+    public BlockNodeWithArgumentContext(final SMethod blockMethod) {
+      super(blockMethod, false);
+    }
+
+    @Override
+    public SBlock executeGeneric(final VirtualFrame frame) {
+      if (blockClass == null) {
+        CompilerDirectives.transferToInterpreter();
+        setBlockClass();
+      }
+      return new SBlock(blockMethod, blockClass, captureArguments(frame));
+    }
+
+    @Override
+    public Object doPreEvaluated(final VirtualFrame frame, final Object[] arguments) {
+      if (blockClass == null) {
+        CompilerDirectives.transferToInterpreter();
+        setBlockClass();
+      }
+      return new SBlock(blockMethod, blockClass, captureArguments(frame));
+    }
+
+    private static MaterializedFrame captureArguments(final VirtualFrame frame) {
+      return Truffle.getRuntime().createMaterializedFrame(
+          frame.getArguments(), ARGUMENTS_ONLY);
+    }
+
+    @Override
+    protected boolean capturesContextFor(final Method blockIvk) {
+      return accessesOnlyOuterArguments(blockIvk, 0);
+    }
+
+    @Override
+    protected BlockNode createNode(final SMethod adapted) {
+      if (accessesOnlyOuterArguments((Method) adapted.getInvokable(), 0)) {
+        return new BlockNodeWithArgumentContext(adapted).initialize(sourceCoord);
+      }
+      return new BlockNodeWithContext(adapted, true).initialize(sourceCoord);
+    }
+
+    /**
+     * @param depth of the block in the scopes of the block this node creates
+     */
+    private static boolean accessesOnlyOuterArguments(final Method blockIvk,
+        final int depth) {
+      boolean[] onlyArguments = {true};
+      blockIvk.accept((final Node n) -> {
+        if (n instanceof ReturnNonLocalNode) {
+          onlyArguments[0] = false;
+        } else if (n instanceof NonLocalVariableNode) {
+          onlyArguments[0] = ((NonLocalVariableNode) n).getContextLevel() <= depth;
+        } else if (n instanceof BlockNode) {
+          onlyArguments[0] = accessesOnlyOuterArguments(
+              (Method) ((BlockNode) n).blockMethod.getInvokable(), depth + 1);
+        }
+        return onlyArguments[0];
+      });
+      return onlyArguments[0];
+    }
+  }
 }
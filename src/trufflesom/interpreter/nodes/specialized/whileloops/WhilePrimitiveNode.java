@@ -7,13 +7,14 @@ import com.oracle.truffle.api.nodes.Node;
 
 import trufflesom.interpreter.Invokable;
 import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
+import trufflesom.vm.VmSettings;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SBlock;
 import trufflesom.vmobjects.SObject;
 
 
 public abstract class WhilePrimitiveNode extends BinaryExpressionNode {
-  public static final int INLINE_CACHE_SIZE = 6;
+  public static final int INLINE_CACHE_SIZE = VmSettings.InlineCacheSize;
 
   private final boolean predicateBool;
 
@@ -1,6 +1,7 @@
 package trufflesom.interpreter.objectstorage;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.HostCompilerDirectives.InliningCutoff;
 import com.oracle.truffle.api.nodes.InvalidAssumptionException;
 import com.oracle.truffle.api.nodes.Node;
@@ -9,6 +10,7 @@ import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import trufflesom.interpreter.TypesGen;
 import trufflesom.interpreter.nodes.SOMNode;
 import trufflesom.interpreter.objectstorage.StorageLocation.AbstractObjectStorageLocation;
+import trufflesom.interpreter.objectstorage.StorageLocation.BooleanStorageLocation;
 import trufflesom.interpreter.objectstorage.StorageLocation.DoubleStorageLocation;
 import trufflesom.interpreter.objectstorage.StorageLocation.LongStorageLocation;
 import trufflesom.vm.VmSettings;
@@ -16,7 +18,20 @@ import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SObject;
 
 
+/**
+ * Field accesses are specialized to the layouts of the objects they see, forming a
+ * polymorphic inline cache with an entry per layout.
+ *
+ * <p>
+ * Since initializing a field does not deprecate the previous layout of a class, entries stay
+ * valid while new layouts are added for the class. Only objects that reach the end of the
+ * cache are migrated to the latest layout of their class, which keeps the number of layouts
+ * seen by a node small. Once the cache holds {@link #INLINE_CACHE_SIZE} entries, it is
+ * replaced by a generic node that accesses the field through the layout of the object.
+ */
 public abstract class FieldAccessorNode extends Node {
+  public static final int INLINE_CACHE_SIZE = VmSettings.InlineCacheSize;
+
   protected final int fieldIndex;
 
   @InliningCutoff
@@ -65,6 +80,10 @@ public abstract class FieldAccessorNode extends Node {
       return TypesGen.expectDouble(read(obj));
     }
 
+    public boolean readBoolean(final SObject obj) throws UnexpectedResultException {
+      return TypesGen.expectBoolean(read(obj));
+    }
+
     protected final Object specializeAndRead(final SObject obj, final String reason,
         final AbstractReadFieldNode next) {
       return specialize(obj, reason, next).read(obj);
@@ -77,11 +96,53 @@ public abstract class FieldAccessorNode extends Node {
       obj.updateLayoutToMatchClass();
 
       final ObjectLayout layout = obj.getObjectLayout();
+      AbstractReadFieldNode cached = findInCache(layout);
+      if (cached != null) {
+        return cached;
+      }
+
+      if (lengthOfCache() >= INLINE_CACHE_SIZE) {
+        return determineCacheHead().replace(new GenericReadFieldNode(fieldIndex),
+            "megamorphic field read");
+      }
+
       final StorageLocation location = layout.getStorageLocation(fieldIndex);
 
       AbstractReadFieldNode newNode = location.getReadNode(fieldIndex, layout, next);
       return replace(newNode, reason);
     }
+
+    /** @return the cache entry preceding this node for the layout, if there is one */
+    private AbstractReadFieldNode findInCache(final ObjectLayout layout) {
+      Node node = getParent();
+      while (node instanceof ReadSpecializedFieldNode) {
+        ReadSpecializedFieldNode entry = (ReadSpecializedFieldNode) node;
+        if (entry.layout == layout) {
+          return entry;
+        }
+        node = node.getParent();
+      }
+      return null;
+    }
+
+    /** @return the number of cache entries preceding this node */
+    private int lengthOfCache() {
+      int length = 0;
+      Node node = getParent();
+      while (node instanceof ReadSpecializedFieldNode) {
+        length += 1;
+        node = node.getParent();
+      }
+      return length;
+    }
+
+    private AbstractReadFieldNode determineCacheHead() {
+      Node node = this;
+      while (node.getParent() instanceof ReadSpecializedFieldNode) {
+        node = node.getParent();
+      }
+      return (AbstractReadFieldNode) node;
+    }
   }
 
   private static final class UninitializedReadFieldNode extends AbstractReadFieldNode {
@@ -99,6 +160,20 @@ public abstract class FieldAccessorNode extends Node {
     }
   }
 
+  /** Reads the field of objects of any layout, once the cache is full. */
+  public static final class GenericReadFieldNode extends AbstractReadFieldNode {
+    GenericReadFieldNode(final int fieldIndex) {
+      super(fieldIndex);
+    }
+
+    @Override
+    @TruffleBoundary
+    public Object read(final SObject obj) {
+      obj.updateLayoutToMatchClass();
+      return obj.getField(fieldIndex);
+    }
+  }
+
   public abstract static class ReadSpecializedFieldNode extends AbstractReadFieldNode {
     protected final ObjectLayout           layout;
     @Child protected AbstractReadFieldNode nextInCache;
@@ -112,17 +187,9 @@ public abstract class FieldAccessorNode extends Node {
 
     protected final boolean hasExpectedLayout(final SObject obj)
         throws InvalidAssumptionException {
-      layout.checkIsLatest();
+      layout.checkIsValid();
       return layout == obj.getObjectLayout();
     }
-
-    protected final AbstractReadFieldNode respecializedNodeOrNext(final SObject obj) {
-      if (layout.layoutForSameClass(obj.getObjectLayout())) {
-        return specialize(obj, "update outdated read node", nextInCache);
-      } else {
-        return nextInCache;
-      }
-    }
   }
 
   public static final class ReadUnwrittenFieldNode extends ReadSpecializedFieldNode {
@@ -137,7 +204,7 @@ public abstract class FieldAccessorNode extends Node {
         if (hasExpectedLayout(obj)) {
           return Nil.nilObject;
         } else {
-          return respecializedNodeOrNext(obj).read(obj);
+          return nextInCache.read(obj);
         }
       } catch (InvalidAssumptionException e) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -166,7 +233,7 @@ public abstract class FieldAccessorNode extends Node {
         if (hasExpectedLayout(obj)) {
           return storage.readLong(obj);
         } else {
-          return respecializedNodeOrNext(obj).readLong(obj);
+          return nextInCache.readLong(obj);
         }
       } catch (InvalidAssumptionException e) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -204,7 +271,7 @@ public abstract class FieldAccessorNode extends Node {
         if (hasExpectedLayout(obj)) {
           return storage.readDouble(obj);
         } else {
-          return respecializedNodeOrNext(obj).readDouble(obj);
+          return nextInCache.readDouble(obj);
         }
       } catch (InvalidAssumptionException e) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -227,6 +294,44 @@ public abstract class FieldAccessorNode extends Node {
     }
   }
 
+  public static final class ReadBooleanFieldNode extends ReadSpecializedFieldNode {
+    private final BooleanStorageLocation storage;
+
+    public ReadBooleanFieldNode(final int fieldIndex, final ObjectLayout layout,
+        final AbstractReadFieldNode next) {
+      super(fieldIndex, layout, next);
+      this.storage = (BooleanStorageLocation) layout.getStorageLocation(fieldIndex);
+    }
+
+    @Override
+    public boolean readBoolean(final SObject obj) throws UnexpectedResultException {
+      try {
+        if (hasExpectedLayout(obj)) {
+          return storage.readBoolean(obj);
+        } else {
+          return nextInCache.readBoolean(obj);
+        }
+      } catch (InvalidAssumptionException e) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        return dropAndReadNext(obj);
+      }
+    }
+
+    @InliningCutoff
+    private boolean dropAndReadNext(final SObject obj) throws UnexpectedResultException {
+      return replace(SOMNode.unwrapIfNeeded(nextInCache)).readBoolean(obj);
+    }
+
+    @Override
+    public Object read(final SObject obj) {
+      try {
+        return readBoolean(obj);
+      } catch (UnexpectedResultException e) {
+        return e.getResult();
+      }
+    }
+  }
+
   public static final class ReadObjectFieldNode extends ReadSpecializedFieldNode {
     private final AbstractObjectStorageLocation storage;
 
@@ -242,7 +347,7 @@ public abstract class FieldAccessorNode extends Node {
         if (hasExpectedLayout(obj)) {
           return storage.read(obj);
         } else {
-          return respecializedNodeOrNext(obj).read(obj);
+          return nextInCache.read(obj);
         }
       } catch (InvalidAssumptionException e) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -273,6 +378,11 @@ public abstract class FieldAccessorNode extends Node {
       return value;
     }
 
+    public boolean write(final SObject obj, final boolean value) {
+      write(obj, (Object) value);
+      return value;
+    }
+
     @InliningCutoff
     protected final void writeAndRespecialize(final SObject obj, final Object value,
         final String reason, final AbstractWriteFieldNode next) {
@@ -296,10 +406,69 @@ public abstract class FieldAccessorNode extends Node {
     @InliningCutoff
     public Object write(final SObject obj, final Object value) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
+      if (obj.updateLayoutToMatchClass()) {
+        AbstractWriteFieldNode cached = findInCache(obj.getObjectLayout());
+        if (cached != null) {
+          return cached.write(obj, value);
+        }
+      }
+
+      if (lengthOfCache() >= INLINE_CACHE_SIZE) {
+        return determineCacheHead().replace(new GenericWriteFieldNode(fieldIndex),
+            "megamorphic field write").write(obj, value);
+      }
+
       writeAndRespecialize(obj, value, "initialize write field node",
           new UninitializedWriteFieldNode(fieldIndex));
       return value;
     }
+
+    /** @return the cache entry preceding this node for the layout, if there is one */
+    private AbstractWriteFieldNode findInCache(final ObjectLayout layout) {
+      Node node = getParent();
+      while (node instanceof WriteSpecializedFieldNode) {
+        WriteSpecializedFieldNode entry = (WriteSpecializedFieldNode) node;
+        if (entry.layout == layout) {
+          return entry;
+        }
+        node = node.getParent();
+      }
+      return null;
+    }
+
+    /** @return the number of cache entries preceding this node */
+    private int lengthOfCache() {
+      int length = 0;
+      Node node = getParent();
+      while (node instanceof WriteSpecializedFieldNode) {
+        length += 1;
+        node = node.getParent();
+      }
+      return length;
+    }
+
+    private AbstractWriteFieldNode determineCacheHead() {
+      Node node = this;
+      while (node.getParent() instanceof WriteSpecializedFieldNode) {
+        node = node.getParent();
+      }
+      return (AbstractWriteFieldNode) node;
+    }
+  }
+
+  /** Writes the field of objects of any layout, once the cache is full. */
+  public static final class GenericWriteFieldNode extends AbstractWriteFieldNode {
+    GenericWriteFieldNode(final int fieldIndex) {
+      super(fieldIndex);
+    }
+
+    @Override
+    @TruffleBoundary
+    public Object write(final SObject obj, final Object value) {
+      obj.updateLayoutToMatchClass();
+      obj.setField(fieldIndex, value);
+      return value;
+    }
   }
 
   private abstract static class WriteSpecializedFieldNode extends AbstractWriteFieldNode {
@@ -316,7 +485,7 @@ public abstract class FieldAccessorNode extends Node {
 
     protected final boolean hasExpectedLayout(final SObject obj)
         throws InvalidAssumptionException {
-      layout.checkIsLatest();
+      layout.checkIsValid();
       return layout == obj.getObjectLayout();
     }
   }
@@ -335,7 +504,7 @@ public abstract class FieldAccessorNode extends Node {
 
     protected boolean hasExpectedLayout(final SObject obj)
         throws InvalidAssumptionException {
-      layout.checkIsLatest();
+      layout.checkIsValid();
       return layout == obj.getObjectLayout();
     }
 
@@ -383,11 +552,7 @@ public abstract class FieldAccessorNode extends Node {
         if (hasExpectedLayout(obj)) {
           storage.writeLong(obj, value);
         } else {
-          if (layout.layoutForSameClass(obj.getObjectLayout())) {
-            writeAndRespecialize(obj, value, "update outdated write node", nextInCache);
-          } else {
-            nextInCache.write(obj, value);
-          }
+          nextInCache.write(obj, value);
         }
       } catch (InvalidAssumptionException e) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -405,12 +570,10 @@ public abstract class FieldAccessorNode extends Node {
     public Object write(final SObject obj, final Object value) {
       if (value instanceof Long) {
         write(obj, (long) value);
+      } else if (layout == obj.getObjectLayout()) {
+        writeAndRespecialize(obj, value, "generalize write node", nextInCache);
       } else {
-        if (layout.layoutForSameClass(obj.getObjectLayout())) {
-          writeAndRespecialize(obj, value, "update outdated read node", nextInCache);
-        } else {
-          nextInCache.write(obj, (long) value);
-        }
+        nextInCache.write(obj, value);
       }
       return value;
     }
@@ -431,11 +594,7 @@ public abstract class FieldAccessorNode extends Node {
         if (hasExpectedLayout(obj)) {
           storage.writeDouble(obj, value);
         } else {
-          if (layout.layoutForSameClass(obj.getObjectLayout())) {
-            writeAndRespecialize(obj, value, "update outdated read node", nextInCache);
-          } else {
-            nextInCache.write(obj, value);
-          }
+          nextInCache.write(obj, value);
         }
       } catch (InvalidAssumptionException e) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -453,12 +612,52 @@ public abstract class FieldAccessorNode extends Node {
     public Object write(final SObject obj, final Object value) {
       if (value instanceof Double) {
         write(obj, (double) value);
+      } else if (layout == obj.getObjectLayout()) {
+        writeAndRespecialize(obj, value, "generalize write node", nextInCache);
       } else {
-        if (layout.layoutForSameClass(obj.getObjectLayout())) {
-          writeAndRespecialize(obj, value, "update outdated read node", nextInCache);
+        nextInCache.write(obj, value);
+      }
+      return value;
+    }
+  }
+
+  public static final class WriteBooleanFieldNode extends WriteSpecializedFieldNode {
+    private final BooleanStorageLocation storage;
+
+    public WriteBooleanFieldNode(final int fieldIndex, final ObjectLayout layout,
+        final AbstractWriteFieldNode next) {
+      super(fieldIndex, layout, next);
+      this.storage = (BooleanStorageLocation) layout.getStorageLocation(fieldIndex);
+    }
+
+    @Override
+    public boolean write(final SObject obj, final boolean value) {
+      try {
+        if (hasExpectedLayout(obj)) {
+          storage.writeBoolean(obj, value);
         } else {
-          nextInCache.write(obj, (double) value);
+          nextInCache.write(obj, value);
         }
+      } catch (InvalidAssumptionException e) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        dropAndWriteNext(obj, value);
+      }
+      return value;
+    }
+
+    @InliningCutoff
+    private void dropAndWriteNext(final SObject obj, final boolean value) {
+      replace(SOMNode.unwrapIfNeeded(nextInCache)).write(obj, value);
+    }
+
+    @Override
+    public Object write(final SObject obj, final Object value) {
+      if (value instanceof Boolean) {
+        write(obj, (boolean) value);
+      } else if (layout == obj.getObjectLayout()) {
+        writeAndRespecialize(obj, value, "generalize write node", nextInCache);
+      } else {
+        nextInCache.write(obj, value);
       }
       return value;
     }
@@ -479,11 +678,7 @@ public abstract class FieldAccessorNode extends Node {
         if (hasExpectedLayout(obj)) {
           storage.write(obj, value);
         } else {
-          if (layout.layoutForSameClass(obj.getObjectLayout())) {
-            writeAndRespecialize(obj, value, "update outdated read node", nextInCache);
-          } else {
-            nextInCache.write(obj, value);
-          }
+          nextInCache.write(obj, value);
         }
       } catch (InvalidAssumptionException e) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -10,9 +10,35 @@ import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SObject;
 
 
+/**
+ * The layout of the objects of a class determines where each field is stored, based on the
+ * type of the values seen for it.
+ *
+ * <p>
+ * The layouts of a class form a chain of transitions, which only ever make field types more
+ * general: an unwritten field gets a type when it is first written, an int field that needs
+ * to hold a larger value or that is incremented becomes a long field, and any other field
+ * whose type does not fit a new value becomes an object field. Each transition starts from
+ * the latest layout of the class, so that objects converge on the same layouts, independent
+ * of the order in which their fields are initialized.
+ *
+ * <p>
+ * Initializing a field creates the next layout without deprecating the current one. Objects
+ * with an older layout remain valid, and nodes specialized to it keep working. Only
+ * generalizing a field deprecates the layouts of the class, because then, objects need to be
+ * migrated to avoid that the old field types remain in use.
+ *
+ * <p>
+ * Booleans are packed as bits, and two longs that fit into 32 bits share a primitive field,
+ * so that objects with many flags or small integers stay small.
+ */
 public final class ObjectLayout {
   private final SClass     forClass;
   private final Assumption latestLayoutForClass;
+  private final Assumption notDeprecated;
+
+  /** The layout that transitioned to this one by initializing a field, if not deprecated. */
+  private ObjectLayout previous;
 
   private final int primitiveStorageLocationsUsed;
   private final int objectStorageLocationsUsed;
@@ -26,10 +52,17 @@ public final class ObjectLayout {
   }
 
   public ObjectLayout(final Class<?>[] knownFieldTypes, final SClass forClass) {
+    this(knownFieldTypes, forClass, null);
+  }
+
+  private ObjectLayout(final Class<?>[] knownFieldTypes, final SClass forClass,
+      final ObjectLayout previous) {
     CompilerAsserts.neverPartOfCompilation("Layouts should not be created in compiled code");
 
     this.forClass = forClass;
+    this.previous = previous;
     this.latestLayoutForClass = Truffle.getRuntime().createAssumption();
+    this.notDeprecated = Truffle.getRuntime().createAssumption();
 
     storageTypes = knownFieldTypes;
     totalNumberOfStorageLocations = knownFieldTypes.length;
@@ -37,18 +70,36 @@ public final class ObjectLayout {
 
     int nextFreePrimIdx = 0;
     int nextFreeObjIdx = 0;
+    int nextMaskIdx = 0;
+    int nextBooleanIdx = 0;
+    int halfUsedPrimIdx = -1;
 
     for (int i = 0; i < totalNumberOfStorageLocations; i++) {
       Class<?> type = knownFieldTypes[i];
 
       StorageLocation storage;
       if (type == Long.class) {
-        storage = StorageLocation.createForLong(i, nextFreePrimIdx);
+        storage = StorageLocation.createForLong(i, nextFreePrimIdx, nextMaskIdx);
         nextFreePrimIdx++;
+        nextMaskIdx++;
       } else if (type == Double.class) {
-        storage = StorageLocation.createForDouble(i, nextFreePrimIdx);
+        storage = StorageLocation.createForDouble(i, nextFreePrimIdx, nextMaskIdx);
         nextFreePrimIdx++;
-      } else if (type == Object.class) {
+        nextMaskIdx++;
+      } else if (type == Integer.class) {
+        if (halfUsedPrimIdx >= 0) {
+          storage = StorageLocation.createForInt(i, halfUsedPrimIdx, 1, nextMaskIdx);
+          halfUsedPrimIdx = -1;
+        } else {
+          storage = StorageLocation.createForInt(i, nextFreePrimIdx, 0, nextMaskIdx);
+          halfUsedPrimIdx = nextFreePrimIdx;
+          nextFreePrimIdx++;
+        }
+        nextMaskIdx++;
+      } else if (type == Boolean.class && nextBooleanIdx < SObject.MAX_PACKED_BOOLEANS) {
+        storage = StorageLocation.createForBoolean(i, nextBooleanIdx);
+        nextBooleanIdx++;
+      } else if (type == Object.class || type == Boolean.class) {
         storage = StorageLocation.createForObject(nextFreeObjIdx);
         nextFreeObjIdx++;
       } else {
@@ -63,7 +114,8 @@ public final class ObjectLayout {
     objectStorageLocationsUsed = nextFreeObjIdx;
   }
 
-  public boolean isValid() {
+  /** @return true, if this is the layout for new instances of the class */
+  public boolean isLatest() {
     return latestLayoutForClass.isValid();
   }
 
@@ -75,9 +127,13 @@ public final class ObjectLayout {
     return latestLayoutForClass;
   }
 
-  public boolean layoutForSameClass(final ObjectLayout other) {
-    // TODO: think we don't need this with new guard logic
-    return forClass == other.forClass;
+  /** @return true, if objects with this layout do not need to be migrated */
+  public boolean isValid() {
+    return notDeprecated.isValid();
+  }
+
+  public void checkIsValid() throws InvalidAssumptionException {
+    notDeprecated.check();
   }
 
   public boolean layoutForSameClass(final SClass clazz) {
@@ -88,48 +144,93 @@ public final class ObjectLayout {
     return storageTypes.length;
   }
 
-  public ObjectLayout withGeneralizedField(final long fieldIndex) {
-    return withGeneralizedField((int) fieldIndex);
+  /** @return the type of storage a field needs to hold the value */
+  public static Class<?> getStorageType(final Object value) {
+    if (value instanceof Long) {
+      long longValue = (Long) value;
+      return (int) longValue == longValue ? Integer.class : Long.class;
+    } else if (value instanceof Double) {
+      return Double.class;
+    } else if (value instanceof Boolean) {
+      return Boolean.class;
+    }
+    return Object.class;
+  }
+
+  /** @return the most specific storage type that can hold values of both types */
+  private static Class<?> generalize(final Class<?> current, final Class<?> type) {
+    if (current == null || current == type) {
+      return type;
+    }
+    if ((current == Integer.class && type == Long.class)
+        || (current == Long.class && type == Integer.class)) {
+      return Long.class;
+    }
+    return Object.class;
+  }
+
+  public ObjectLayout withGeneralizedField(final long fieldIndex, final Object value) {
+    int index = (int) fieldIndex;
+    return withGeneralizedField(index, generalize(storageTypes[index], getStorageType(value)));
   }
 
+  /**
+   * Counters are likely to outgrow 32 bits, so an int field that is incremented becomes a
+   * long field right away, instead of when the compiled increment overflows.
+   */
+  public ObjectLayout withIncrementedField(final long fieldIndex) {
+    int index = (int) fieldIndex;
+    if (storageTypes[index] != Integer.class) {
+      return this;
+    }
+    return withGeneralizedField(index, Long.class);
+  }
+
+  /** Deprecates this layout and the ones it was derived from. */
   public void invalidate() {
-    latestLayoutForClass.invalidate();
+    ObjectLayout layout = this;
+    while (layout != null) {
+      layout.latestLayoutForClass.invalidate();
+      layout.notDeprecated.invalidate();
+
+      ObjectLayout prev = layout.previous;
+      layout.previous = null;
+      layout = prev;
+    }
   }
 
-  public ObjectLayout withGeneralizedField(final int fieldIndex) {
-    if (storageTypes[fieldIndex] == Object.class) {
+  private ObjectLayout withGeneralizedField(final int fieldIndex, final Class<?> type) {
+    if (storageTypes[fieldIndex] == type) {
       return this;
     } else {
       assert storageTypes[fieldIndex] != Object.class;
       Class<?>[] withGeneralizedField = storageTypes.clone();
-      withGeneralizedField[fieldIndex] = Object.class;
+      withGeneralizedField[fieldIndex] = type;
 
-      latestLayoutForClass.invalidate();
+      invalidate();
       return new ObjectLayout(withGeneralizedField, forClass);
     }
   }
 
-  public ObjectLayout withInitializedField(final long fieldIndex, final Class<?> type) {
-    Class<?> specType;
-    if (type == Long.class || type == Double.class) {
-      specType = type;
-    } else {
-      specType = Object.class;
-    }
-    return withInitializedField((int) fieldIndex, specType);
-  }
-
-  private ObjectLayout withInitializedField(final int fieldIndex, final Class<?> type) {
-    if (storageTypes[fieldIndex] == type) {
+  public ObjectLayout withInitializedField(final long fieldIndex, final Object value) {
+    int index = (int) fieldIndex;
+    Class<?> current = storageTypes[index];
+    Class<?> type = generalize(current, getStorageType(value));
+    if (current == type) {
       return this;
-    } else {
-      assert storageTypes[fieldIndex] == null;
-      Class<?>[] withInitializedField = storageTypes.clone();
-      withInitializedField[fieldIndex] = type;
+    }
 
-      latestLayoutForClass.invalidate();
-      return new ObjectLayout(withInitializedField, forClass);
+    if (current != null) {
+      // the field was initialized with a value that does not fit its type
+      return withGeneralizedField(index, type);
     }
+
+    Class<?>[] withInitializedField = storageTypes.clone();
+    withInitializedField[index] = type;
+
+    // objects with this layout remain valid, only new ones get the next layout
+    latestLayoutForClass.invalidate();
+    return new ObjectLayout(withInitializedField, forClass, this);
   }
 
   public StorageLocation getStorageLocation(final long fieldIndex) {
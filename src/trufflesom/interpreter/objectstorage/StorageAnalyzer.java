@@ -7,21 +7,36 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 import sun.misc.Unsafe;
 import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SObject.SObjectWith1Field;
+import trufflesom.vmobjects.SObject.SObjectWith2Fields;
+import trufflesom.vmobjects.SObject.SObjectWith3Fields;
+import trufflesom.vmobjects.SObject.SObjectWith4Fields;
+import trufflesom.vmobjects.SObject.SObjectWith5Fields;
 
 
 public class StorageAnalyzer {
   private static final Unsafe unsafe = UnsafeUtil.load();
 
-  private static final long SMO_PRIM_FIELD_1_OFFSET = getFieldOffset("primField1");
-  private static final long SMO_PRIM_FIELD_2_OFFSET = getFieldOffset("primField2");
-  private static final long SMO_PRIM_FIELD_3_OFFSET = getFieldOffset("primField3");
-  private static final long SMO_PRIM_FIELD_4_OFFSET = getFieldOffset("primField4");
-  private static final long SMO_PRIM_FIELD_5_OFFSET = getFieldOffset("primField5");
-  private static final long SMO_FIELD_1_OFFSET      = getFieldOffset("field1");
-  private static final long SMO_FIELD_2_OFFSET      = getFieldOffset("field2");
-  private static final long SMO_FIELD_3_OFFSET      = getFieldOffset("field3");
-  private static final long SMO_FIELD_4_OFFSET      = getFieldOffset("field4");
-  private static final long SMO_FIELD_5_OFFSET      = getFieldOffset("field5");
+  private static final long SMO_PRIM_FIELD_1_OFFSET =
+      getFieldOffset(SObjectWith1Field.class, "primField1");
+  private static final long SMO_PRIM_FIELD_2_OFFSET =
+      getFieldOffset(SObjectWith2Fields.class, "primField2");
+  private static final long SMO_PRIM_FIELD_3_OFFSET =
+      getFieldOffset(SObjectWith3Fields.class, "primField3");
+  private static final long SMO_PRIM_FIELD_4_OFFSET =
+      getFieldOffset(SObjectWith4Fields.class, "primField4");
+  private static final long SMO_PRIM_FIELD_5_OFFSET =
+      getFieldOffset(SObjectWith5Fields.class, "primField5");
+  private static final long SMO_FIELD_1_OFFSET =
+      getFieldOffset(SObjectWith1Field.class, "field1");
+  private static final long SMO_FIELD_2_OFFSET =
+      getFieldOffset(SObjectWith2Fields.class, "field2");
+  private static final long SMO_FIELD_3_OFFSET =
+      getFieldOffset(SObjectWith3Fields.class, "field3");
+  private static final long SMO_FIELD_4_OFFSET =
+      getFieldOffset(SObjectWith4Fields.class, "field4");
+  private static final long SMO_FIELD_5_OFFSET =
+      getFieldOffset(SObjectWith5Fields.class, "field5");
 
   @CompilationFinal(
       dimensions = 1) private static final DirectObjectAccessor[]                  objAccessors  =
@@ -30,9 +45,14 @@ public class StorageAnalyzer {
       dimensions = 1) private static final DirectPrimitiveAccessor[]               primAccessors =
           new DirectPrimitiveAccessor[SObject.NUM_PRIMITIVE_FIELDS];
 
-  private static long getFieldOffset(final String fieldName) {
+  /**
+   * Each field is declared in the first subclass of {@link SObject} that has it, and has the
+   * same offset in all further subclasses.
+   */
+  private static long getFieldOffset(final Class<? extends SObject> declaringClass,
+      final String fieldName) {
     try {
-      Field field = SObject.class.getDeclaredField(fieldName);
+      Field field = declaringClass.getDeclaredField(fieldName);
       return unsafe.objectFieldOffset(field);
     } catch (NoSuchFieldException | SecurityException e) {
       throw new RuntimeException(e);
@@ -9,13 +9,16 @@ import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import sun.misc.Unsafe;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.AbstractReadFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.AbstractWriteFieldNode;
+import trufflesom.interpreter.objectstorage.FieldAccessorNode.ReadBooleanFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.ReadDoubleFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.ReadLongFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.ReadObjectFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.ReadUnwrittenFieldNode;
+import trufflesom.interpreter.objectstorage.FieldAccessorNode.WriteBooleanFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.WriteDoubleFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.WriteLongFieldNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.WriteObjectFieldNode;
+import trufflesom.vm.NotYetImplementedException;
 import trufflesom.vm.Universe;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SObject;
@@ -42,29 +45,69 @@ public abstract class StorageLocation {
     void writeDouble(SObject obj, double value);
   }
 
+  public interface BooleanStorageLocation {
+    boolean readBoolean(SObject obj) throws UnexpectedResultException;
+
+    void writeBoolean(SObject obj, boolean value);
+  }
+
   public static StorageLocation createForLong(final long fieldIndex,
       final int primFieldIndex) {
+    return createForLong(fieldIndex, primFieldIndex, primFieldIndex);
+  }
+
+  /**
+   * @param maskIndex identifies the bit that marks the field as set, it is different from
+   *          the primitive field index when int fields share primitive fields
+   */
+  public static StorageLocation createForLong(final long fieldIndex,
+      final int primFieldIndex, final int maskIndex) {
     CompilerAsserts.neverPartOfCompilation("StorageLocation");
     if (primFieldIndex < SObject.NUM_PRIMITIVE_FIELDS) {
-      return new LongDirectStoreLocation(fieldIndex, primFieldIndex);
+      return new LongDirectStoreLocation(fieldIndex, primFieldIndex, maskIndex);
     } else {
-      return new LongArrayStoreLocation(fieldIndex, primFieldIndex);
+      return new LongArrayStoreLocation(fieldIndex, primFieldIndex, maskIndex);
     }
   }
 
   public static StorageLocation createForDouble(final long fieldIndex,
       final int primFieldIndex) {
+    return createForDouble(fieldIndex, primFieldIndex, primFieldIndex);
+  }
+
+  public static StorageLocation createForDouble(final long fieldIndex,
+      final int primFieldIndex, final int maskIndex) {
     CompilerAsserts.neverPartOfCompilation("StorageLocation");
     if (primFieldIndex < SObject.NUM_PRIMITIVE_FIELDS) {
-      return new DoubleDirectStoreLocation(fieldIndex, primFieldIndex);
+      return new DoubleDirectStoreLocation(fieldIndex, primFieldIndex, maskIndex);
     } else {
-      return new DoubleArrayStoreLocation(fieldIndex, primFieldIndex);
+      return new DoubleArrayStoreLocation(fieldIndex, primFieldIndex, maskIndex);
     }
   }
 
+  /**
+   * Creates a location for values that fit into 32 bits. Two of them share a primitive
+   * field, {@code half} selects which half of it is used.
+   */
+  public static StorageLocation createForInt(final long fieldIndex, final int primFieldIndex,
+      final int half, final int maskIndex) {
+    CompilerAsserts.neverPartOfCompilation("StorageLocation");
+    if (primFieldIndex < SObject.NUM_PRIMITIVE_FIELDS) {
+      return new IntDirectStoreLocation(fieldIndex, primFieldIndex, half, maskIndex);
+    } else {
+      return new IntArrayStoreLocation(fieldIndex, primFieldIndex, half, maskIndex);
+    }
+  }
+
+  public static StorageLocation createForBoolean(final long fieldIndex,
+      final int booleanIndex) {
+    CompilerAsserts.neverPartOfCompilation("StorageLocation");
+    return new BooleanPackedStoreLocation(fieldIndex, booleanIndex);
+  }
+
   public static StorageLocation createForObject(final int objFieldIndex) {
     CompilerAsserts.neverPartOfCompilation("StorageLocation");
-    if (objFieldIndex < SObject.NUM_PRIMITIVE_FIELDS) {
+    if (objFieldIndex < SObject.NUM_OBJECT_FIELDS) {
       return new ObjectDirectStorageLocation(objFieldIndex);
     } else {
       return new ObjectArrayStorageLocation(objFieldIndex);
@@ -227,9 +270,9 @@ public abstract class StorageLocation {
   protected abstract static class PrimitiveStorageLocation extends StorageLocation {
     protected final int mask;
 
-    protected PrimitiveStorageLocation(final long fieldIndex, final int primField) {
+    protected PrimitiveStorageLocation(final long fieldIndex, final int maskIndex) {
       super(fieldIndex);
-      mask = SObject.getPrimitiveFieldMask(primField);
+      mask = SObject.getPrimitiveFieldMask(maskIndex);
     }
 
     @Override
@@ -246,16 +289,18 @@ public abstract class StorageLocation {
       extends PrimitiveStorageLocation {
     protected final long fieldMemoryOffset;
 
-    protected PrimitiveDirectStoreLocation(final long fieldIndex, final int primField) {
-      super(fieldIndex, primField);
+    protected PrimitiveDirectStoreLocation(final long fieldIndex, final int primField,
+        final int maskIndex) {
+      super(fieldIndex, maskIndex);
       this.fieldMemoryOffset = StorageAnalyzer.getPrimitiveFieldOffset(primField);
     }
   }
 
   public static final class DoubleDirectStoreLocation extends PrimitiveDirectStoreLocation
       implements DoubleStorageLocation {
-    public DoubleDirectStoreLocation(final long fieldIndex, final int primField) {
-      super(fieldIndex, primField);
+    public DoubleDirectStoreLocation(final long fieldIndex, final int primField,
+        final int maskIndex) {
+      super(fieldIndex, primField, maskIndex);
     }
 
     @Override
@@ -319,8 +364,9 @@ public abstract class StorageLocation {
   protected static final class LongDirectStoreLocation extends PrimitiveDirectStoreLocation
       implements LongStorageLocation {
 
-    public LongDirectStoreLocation(final long fieldIndex, final int primField) {
-      super(fieldIndex, primField);
+    public LongDirectStoreLocation(final long fieldIndex, final int primField,
+        final int maskIndex) {
+      super(fieldIndex, primField, maskIndex);
     }
 
     @Override
@@ -391,8 +437,9 @@ public abstract class StorageLocation {
   public abstract static class PrimitiveArrayStoreLocation extends PrimitiveStorageLocation {
     protected final int extensionIndex;
 
-    public PrimitiveArrayStoreLocation(final long fieldIndex, final int primField) {
-      super(fieldIndex, primField);
+    public PrimitiveArrayStoreLocation(final long fieldIndex, final int primField,
+        final int maskIndex) {
+      super(fieldIndex, maskIndex);
       extensionIndex = primField - SObject.NUM_PRIMITIVE_FIELDS;
       assert extensionIndex >= 0;
     }
@@ -400,8 +447,9 @@ public abstract class StorageLocation {
 
   public static final class LongArrayStoreLocation extends PrimitiveArrayStoreLocation
       implements LongStorageLocation {
-    public LongArrayStoreLocation(final long fieldIndex, final int primField) {
-      super(fieldIndex, primField);
+    public LongArrayStoreLocation(final long fieldIndex, final int primField,
+        final int maskIndex) {
+      super(fieldIndex, primField, maskIndex);
     }
 
     @Override
@@ -473,8 +521,9 @@ public abstract class StorageLocation {
 
   public static final class DoubleArrayStoreLocation extends PrimitiveArrayStoreLocation
       implements DoubleStorageLocation {
-    public DoubleArrayStoreLocation(final long fieldIndex, final int primField) {
-      super(fieldIndex, primField);
+    public DoubleArrayStoreLocation(final long fieldIndex, final int primField,
+        final int maskIndex) {
+      super(fieldIndex, primField, maskIndex);
     }
 
     @Override
@@ -507,7 +556,7 @@ public abstract class StorageLocation {
       } else {
         assert value != Nil.nilObject;
         CompilerDirectives.transferToInterpreterAndInvalidate();
-        obj.setUninitializedField(fieldIndex, value);
+        obj.setFieldAndGeneralize(fieldIndex, value);
       }
     }
 
@@ -543,5 +592,229 @@ public abstract class StorageLocation {
     }
   }
 
+  /**
+   * Stores long values that fit into 32 bits in one half of a primitive field. Writing a
+   * larger value generalizes the field to a long field, as does the first increment, see
+   * {@link ObjectLayout#withIncrementedField(long)}.
+   */
+  protected abstract static class IntStoreLocation extends PrimitiveStorageLocation
+      implements LongStorageLocation {
+
+    protected IntStoreLocation(final long fieldIndex, final int maskIndex) {
+      super(fieldIndex, maskIndex);
+    }
+
+    protected abstract int readInt(SObject obj);
+
+    protected abstract void writeInt(SObject obj, int value);
+
+    @Override
+    public final Object read(final SObject obj) {
+      try {
+        return readLong(obj);
+      } catch (UnexpectedResultException e) {
+        return e.getResult();
+      }
+    }
+
+    @Override
+    public final long readLong(final SObject obj) throws UnexpectedResultException {
+      if (isSet(obj)) {
+        return readInt(obj);
+      } else {
+        CompilerDirectives.transferToInterpreter();
+        throw new UnexpectedResultException(Nil.nilObject);
+      }
+    }
+
+    @Override
+    public final long increment(final SObject obj) {
+      if (!isSet(obj)) {
+        CompilerDirectives.transferToInterpreter();
+        throw new NotYetImplementedException();
+      }
+      long result = readInt(obj) + 1L;
+      writeLong(obj, result);
+      return result;
+    }
+
+    @Override
+    public final void write(final SObject obj, final Object value) {
+      assert value != null;
+      if (value instanceof Long) {
+        writeLong(obj, (long) value);
+      } else {
+        assert value != Nil.nilObject;
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        obj.setFieldAndGeneralize(fieldIndex, value);
+      }
+    }
+
+    @Override
+    public final void writeLong(final SObject obj, final long value) {
+      int intValue = (int) value;
+      if (intValue == value) {
+        writeInt(obj, intValue);
+        markAsSet(obj);
+      } else {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        obj.setFieldAndGeneralize(fieldIndex, value);
+      }
+    }
+
+    @Override
+    public final AbstractReadFieldNode getReadNode(final int fieldIndex,
+        final ObjectLayout layout, final AbstractReadFieldNode next) {
+      CompilerAsserts.neverPartOfCompilation("StorageLocation");
+      return new ReadLongFieldNode(fieldIndex, layout, next);
+    }
+
+    @Override
+    public final AbstractWriteFieldNode getWriteNode(final int fieldIndex,
+        final ObjectLayout layout, final AbstractWriteFieldNode next) {
+      CompilerAsserts.neverPartOfCompilation("StorageLocation");
+      return new WriteLongFieldNode(fieldIndex, layout, next);
+    }
+  }
+
+  protected static final class IntDirectStoreLocation extends IntStoreLocation {
+    private final long fieldMemoryOffset;
+
+    public IntDirectStoreLocation(final long fieldIndex, final int primField, final int half,
+        final int maskIndex) {
+      super(fieldIndex, maskIndex);
+      this.fieldMemoryOffset =
+          StorageAnalyzer.getPrimitiveFieldOffset(primField) + half * Integer.BYTES;
+    }
+
+    @Override
+    protected int readInt(final SObject obj) {
+      return unsafe.getInt(obj, fieldMemoryOffset);
+    }
+
+    @Override
+    protected void writeInt(final SObject obj, final int value) {
+      unsafe.putInt(obj, fieldMemoryOffset, value);
+    }
+
+    @Override
+    public void debugPrint(final SObject obj) {
+      Universe.println("IntDirectStorageLocation: fieldIdx=" + this.fieldIndex
+          + " primMask=" + mask + " fieldOffset=" + fieldMemoryOffset);
+    }
+  }
+
+  protected static final class IntArrayStoreLocation extends IntStoreLocation {
+    private final long arrayOffset;
+
+    public IntArrayStoreLocation(final long fieldIndex, final int primField, final int half,
+        final int maskIndex) {
+      super(fieldIndex, maskIndex);
+      int extensionIndex = primField - SObject.NUM_PRIMITIVE_FIELDS;
+      assert extensionIndex >= 0;
+      this.arrayOffset = (long) Unsafe.ARRAY_LONG_BASE_OFFSET
+          + (long) Unsafe.ARRAY_LONG_INDEX_SCALE * extensionIndex + half * Integer.BYTES;
+    }
+
+    @Override
+    protected int readInt(final SObject obj) {
+      return unsafe.getInt(obj.getExtendedPrimFields(), arrayOffset);
+    }
+
+    @Override
+    protected void writeInt(final SObject obj, final int value) {
+      unsafe.putInt(obj.getExtendedPrimFields(), arrayOffset, value);
+    }
+
+    @Override
+    public void debugPrint(final SObject obj) {
+      Universe.println("IntArrayStorageLocation: fieldIdx=" + this.fieldIndex
+          + " primMask=" + mask + " arrayOffset=" + arrayOffset);
+    }
+  }
+
+  /**
+   * Stores a boolean as two bits of {@link SObject#getPackedBooleans()}, one that marks the
+   * field as set, and one for the value.
+   */
+  protected static final class BooleanPackedStoreLocation extends StorageLocation
+      implements BooleanStorageLocation {
+    private final int setMask;
+    private final int valueMask;
+
+    public BooleanPackedStoreLocation(final long fieldIndex, final int booleanIndex) {
+      super(fieldIndex);
+      assert 0 <= booleanIndex && booleanIndex < SObject.MAX_PACKED_BOOLEANS;
+      setMask = 1 << (2 * booleanIndex);
+      valueMask = 1 << (2 * booleanIndex + 1);
+    }
+
+    @Override
+    public boolean isSet(final SObject obj) {
+      return (obj.getPackedBooleans() & setMask) != 0;
+    }
+
+    @Override
+    public Object read(final SObject obj) {
+      try {
+        return readBoolean(obj);
+      } catch (UnexpectedResultException e) {
+        return e.getResult();
+      }
+    }
+
+    @Override
+    public boolean readBoolean(final SObject obj) throws UnexpectedResultException {
+      int bits = obj.getPackedBooleans();
+      if ((bits & setMask) != 0) {
+        return (bits & valueMask) != 0;
+      } else {
+        CompilerDirectives.transferToInterpreter();
+        throw new UnexpectedResultException(Nil.nilObject);
+      }
+    }
+
+    @Override
+    public void write(final SObject obj, final Object value) {
+      assert value != null;
+      if (value instanceof Boolean) {
+        writeBoolean(obj, (boolean) value);
+      } else {
+        assert value != Nil.nilObject;
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        obj.setFieldAndGeneralize(fieldIndex, value);
+      }
+    }
+
+    @Override
+    public void writeBoolean(final SObject obj, final boolean value) {
+      int bits = (obj.getPackedBooleans() | setMask) & ~valueMask;
+      if (value) {
+        bits |= valueMask;
+      }
+      obj.setPackedBooleans(bits);
+    }
+
+    @Override
+    public AbstractReadFieldNode getReadNode(final int fieldIndex,
+        final ObjectLayout layout, final AbstractReadFieldNode next) {
+      CompilerAsserts.neverPartOfCompilation("StorageLocation");
+      return new ReadBooleanFieldNode(fieldIndex, layout, next);
+    }
+
+    @Override
+    public AbstractWriteFieldNode getWriteNode(final int fieldIndex,
+        final ObjectLayout layout, final AbstractWriteFieldNode next) {
+      CompilerAsserts.neverPartOfCompilation("StorageLocation");
+      return new WriteBooleanFieldNode(fieldIndex, layout, next);
+    }
+
+    @Override
+    public void debugPrint(final SObject obj) {
+      Universe.println("BooleanPackedStorageLocation: fieldIdx=" + this.fieldIndex
+          + " setMask=" + setMask);
+    }
+  }
+
   public abstract void debugPrint(SObject obj);
 }
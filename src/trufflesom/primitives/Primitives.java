@@ -87,11 +87,19 @@ import trufflesom.primitives.arithmetic.SqrtPrimFactory;
 import trufflesom.primitives.arithmetic.SubtractionPrimFactory;
 import trufflesom.primitives.arrays.AtPrimFactory;
 import trufflesom.primitives.arrays.AtPutPrimFactory;
+import trufflesom.primitives.arrays.CollectPrimFactory;
+import trufflesom.primitives.arrays.CopyFromToPrimFactory;
 import trufflesom.primitives.arrays.CopyPrimFactory;
+import trufflesom.primitives.arrays.CopyWithPrimFactory;
 import trufflesom.primitives.arrays.DoIndexesPrimFactory;
 import trufflesom.primitives.arrays.DoPrimFactory;
+import trufflesom.primitives.arrays.InjectIntoPrimFactory;
+import trufflesom.primitives.arrays.KeysAndValuesDoPrimFactory;
 import trufflesom.primitives.arrays.NewPrimFactory;
 import trufflesom.primitives.arrays.PutAllNodeFactory;
+import trufflesom.primitives.arrays.ReplaceFromToWithStartingAtPrimFactory;
+import trufflesom.primitives.arrays.SortPrimFactory;
+import trufflesom.primitives.arrays.SortWithBlockPrimFactory;
 import trufflesom.primitives.basics.AsStringPrimFactory;
 import trufflesom.primitives.basics.BlockPrimsFactory;
 import trufflesom.primitives.basics.DoublePrimsFactory;
@@ -101,6 +109,7 @@ import trufflesom.primitives.basics.HashPrimFactory;
 import trufflesom.primitives.basics.IntegerPrimsFactory;
 import trufflesom.primitives.basics.LengthPrimFactory;
 import trufflesom.primitives.basics.NewObjectPrimFactory;
+import trufflesom.primitives.basics.StringBuilderPrimsFactory;
 import trufflesom.primitives.basics.StringPrimsFactory;
 import trufflesom.primitives.basics.SystemPrimsFactory;
 import trufflesom.primitives.basics.UnequalUnequalPrimFactory;
@@ -244,6 +253,7 @@ public final class Primitives extends PrimitiveLoader<ExpressionNode, SSymbol> {
     addAll(allFactories, DoublePrimsFactory.getFactories());
     addAll(allFactories, IntegerPrimsFactory.getFactories());
     addAll(allFactories, StringPrimsFactory.getFactories());
+    addAll(allFactories, StringBuilderPrimsFactory.getFactories());
     addAll(allFactories, SystemPrimsFactory.getFactories());
     addAll(allFactories, ClassPrimsFactory.getFactories());
     addAll(allFactories, MethodPrimsFactory.getFactories());
@@ -268,11 +278,19 @@ public final class Primitives extends PrimitiveLoader<ExpressionNode, SSymbol> {
 
     add(allFactories, AtPrimFactory.getInstance());
     add(allFactories, AtPutPrimFactory.getInstance());
+    add(allFactories, CollectPrimFactory.getInstance());
+    add(allFactories, CopyFromToPrimFactory.getInstance());
     add(allFactories, CopyPrimFactory.getInstance());
+    add(allFactories, CopyWithPrimFactory.getInstance());
     add(allFactories, DoIndexesPrimFactory.getInstance());
     add(allFactories, DoPrimFactory.getInstance());
+    add(allFactories, InjectIntoPrimFactory.getInstance());
+    add(allFactories, KeysAndValuesDoPrimFactory.getInstance());
     add(allFactories, NewPrimFactory.getInstance());
     add(allFactories, PutAllNodeFactory.getInstance());
+    add(allFactories, ReplaceFromToWithStartingAtPrimFactory.getInstance());
+    add(allFactories, SortPrimFactory.getInstance());
+    add(allFactories, SortWithBlockPrimFactory.getInstance());
 
     add(allFactories, AsStringPrimFactory.getInstance());
     add(allFactories, EqualsEqualsPrimFactory.getInstance());
@@ -9,6 +9,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import bdt.primitives.Primitive;
 import trufflesom.vm.SymbolTable;
 import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -98,15 +99,30 @@ public abstract class AdditionPrim extends ArithmeticPrim {
     return left + right.getString();
   }
 
+  @Specialization
+  public static final Object doString(final String left, final SRope right) {
+    return SRope.concat(left, right);
+  }
+
+  @Specialization
+  public static final Object doSRope(final SRope left, final String right) {
+    return SRope.concat(left, right);
+  }
+
+  @Specialization
+  public static final Object doSRope(final SRope left, final SRope right) {
+    return SRope.concat(left, right);
+  }
+
   @Specialization
   @TruffleBoundary
   public static final SSymbol doSSymbol(final SSymbol left, final SSymbol right) {
-    return SymbolTable.symbolFor(left.getString() + right.getString());
+    return SymbolTable.weakSymbolFor(left.getString() + right.getString());
   }
 
   @Specialization
   @TruffleBoundary
   public static final SSymbol doSSymbol(final SSymbol left, final String right) {
-    return SymbolTable.symbolFor(left.getString() + right);
+    return SymbolTable.weakSymbolFor(left.getString() + right);
   }
 }
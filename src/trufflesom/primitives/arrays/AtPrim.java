@@ -42,6 +42,16 @@ public abstract class AtPrim extends BinaryMsgExprNode {
     return receiver.getLongStorage()[(int) idx - 1];
   }
 
+  @Specialization(guards = "receiver.isIntType()")
+  public static final long doIntSArray(final SArray receiver, final long idx) {
+    return receiver.getIntStorage()[(int) idx - 1];
+  }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public static final long doByteSArray(final SArray receiver, final long idx) {
+    return SArray.readByte(receiver.getByteStorage(), idx - 1);
+  }
+
   @Specialization(guards = "receiver.isDoubleType()")
   public static final double doDoubleSArray(final SArray receiver, final long idx) {
     return receiver.getDoubleStorage()[(int) idx - 1];
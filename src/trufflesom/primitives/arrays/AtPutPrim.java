@@ -29,6 +29,14 @@ public abstract class AtPutPrim extends TernaryExpressionNode {
     return !(value instanceof Long);
   }
 
+  protected static final boolean valueFitsInByte(final long value) {
+    return SArray.fitsInByte(value);
+  }
+
+  protected static final boolean valueFitsInInt(final long value) {
+    return SArray.fitsInInt(value);
+  }
+
   protected static final boolean valueIsNotDouble(final Object value) {
     return !(value instanceof Double);
   }
@@ -117,7 +125,7 @@ public abstract class AtPutPrim extends TernaryExpressionNode {
   @Specialization(guards = "receiver.isPartiallyEmptyType()")
   public static final long doPartiallyEmptySArray(final SArray receiver,
       final long index, final long value) {
-    setAndPossiblyTransition(receiver, index, value, PartiallyEmptyArray.Type.LONG);
+    setAndPossiblyTransition(receiver, index, value, PartiallyEmptyArray.Type.forLong(value));
     return value;
   }
 
@@ -185,6 +193,74 @@ public abstract class AtPutPrim extends TernaryExpressionNode {
     return transitionAndSet(receiver, index, value, newStorage);
   }
 
+  @Specialization(guards = {"receiver.isIntType()", "valueFitsInInt(value)"})
+  public static final Object doIntSArray(final SArray receiver, final long index,
+      final long value) {
+    long idx = index - 1;
+    receiver.getIntStorage()[(int) idx] = (int) value;
+    return value;
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "!valueFitsInInt(value)"})
+  public static final Object doIntSArrayWidenToLong(final SArray receiver, final long index,
+      final long value) {
+    long[] newStorage = SArray.toLong(receiver.getIntStorage());
+    receiver.transitionTo(newStorage);
+    newStorage[(int) index - 1] = value;
+    return value;
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "valueIsNotLong(value)"})
+  public static final Object doIntSArray(final SArray receiver, final long index,
+      final Object value) {
+    int[] storage = receiver.getIntStorage();
+    Object[] newStorage = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = (long) storage[i];
+    }
+
+    return transitionAndSet(receiver, index, value, newStorage);
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "valueFitsInByte(value)"})
+  public static final Object doByteSArray(final SArray receiver, final long index,
+      final long value) {
+    long idx = index - 1;
+    receiver.getByteStorage()[(int) idx] = (byte) value;
+    return value;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "!valueFitsInByte(value)",
+      "valueFitsInInt(value)"})
+  public static final Object doByteSArrayWidenToInt(final SArray receiver, final long index,
+      final long value) {
+    int[] newStorage = SArray.toInt(receiver.getByteStorage());
+    receiver.transitionTo(newStorage);
+    newStorage[(int) index - 1] = (int) value;
+    return value;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "!valueFitsInInt(value)"})
+  public static final Object doByteSArrayWidenToLong(final SArray receiver, final long index,
+      final long value) {
+    long[] newStorage = SArray.toLong(receiver.getByteStorage());
+    receiver.transitionTo(newStorage);
+    newStorage[(int) index - 1] = value;
+    return value;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "valueIsNotLong(value)"})
+  public static final Object doByteSArray(final SArray receiver, final long index,
+      final Object value) {
+    byte[] storage = receiver.getByteStorage();
+    Object[] newStorage = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = Byte.toUnsignedLong(storage[i]);
+    }
+
+    return transitionAndSet(receiver, index, value, newStorage);
+  }
+
   @Specialization(guards = "receiver.isDoubleType()")
   public static final Object doDoubleSArray(final SArray receiver, final long index,
       final double value) {
@@ -238,9 +314,7 @@ public abstract class AtPutPrim extends TernaryExpressionNode {
       final long index, final Object value, final PartiallyEmptyArray.Type expectedType) {
     PartiallyEmptyArray storage = receiver.getPartiallyEmptyStorage();
     setValue(index - 1, value, storage);
-    if (storage.getType() != expectedType) {
-      storage.setType(PartiallyEmptyArray.Type.OBJECT);
-    }
+    storage.setType(storage.getType().generalize(expectedType));
     receiver.ifFullOrObjectTransitionPartiallyEmpty();
   }
 }
@@ -0,0 +1,248 @@
+package trufflesom.primitives.arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.primitives.basics.BlockPrims.ValueOnePrim;
+import trufflesom.primitives.basics.BlockPrimsFactory.ValueOnePrimFactory;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SArray.PartiallyEmptyArray;
+import trufflesom.vmobjects.SBlock;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Collects the results of evaluating a block for each element of an array.
+ *
+ * <p>
+ * Each storage strategy has its own loop. If the block changes the strategy of the array,
+ * the iteration continues in the interpreter with
+ * {@link #collectRemaining(VirtualFrame, SArray, SBlock, Object[], int)}, which reads the
+ * elements from the new storage.
+ */
+@GenerateNodeFactory
+@Primitive(className = "Array", primitive = "collect:", selector = "collect:",
+    receiverType = SArray.class)
+public abstract class CollectPrim extends BinaryMsgExprNode {
+  @Child private ValueOnePrim block = ValueOnePrimFactory.create(null, null);
+
+  @Override
+  public SSymbol getSelector() {
+    return SymbolTable.symbolFor("collect:");
+  }
+
+  private void collectRemaining(final VirtualFrame frame, final SArray arr,
+      final SBlock block, final Object[] result, final int startIdx) {
+    for (int i = startIdx; i < result.length; i++) {
+      result[i] = this.block.executeEvaluated(frame, block, arr.getValue(i));
+    }
+  }
+
+  @Specialization(guards = "arr.isEmptyType()")
+  public final SArray doEmptyArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    int length = arr.getEmptyStorage();
+    Object[] result = new Object[length];
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.isEmptyType()) {
+          CompilerDirectives.transferToInterpreter();
+          collectRemaining(frame, arr, block, result, i);
+          break;
+        }
+        result[i] = this.block.executeEvaluated(frame, block, Nil.nilObject);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "arr.isPartiallyEmptyType()")
+  public final SArray doPartiallyEmptyArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    PartiallyEmptyArray storage = arr.getPartiallyEmptyStorage();
+    int length = storage.getLength();
+    Object[] result = new Object[length];
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          collectRemaining(frame, arr, block, result, i);
+          break;
+        }
+        result[i] = this.block.executeEvaluated(frame, block, storage.get(i));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "arr.isObjectType()")
+  public final SArray doObjectArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    Object[] storage = arr.getObjectStorage();
+    int length = storage.length;
+    Object[] result = new Object[length];
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          collectRemaining(frame, arr, block, result, i);
+          break;
+        }
+        result[i] = this.block.executeEvaluated(frame, block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "arr.isLongType()")
+  public final SArray doLongArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    long[] storage = arr.getLongStorage();
+    int length = storage.length;
+    Object[] result = new Object[length];
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          collectRemaining(frame, arr, block, result, i);
+          break;
+        }
+        result[i] = this.block.executeEvaluated(frame, block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public final SArray doIntArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    int[] storage = arr.getIntStorage();
+    int length = storage.length;
+    Object[] result = new Object[length];
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          collectRemaining(frame, arr, block, result, i);
+          break;
+        }
+        result[i] = this.block.executeEvaluated(frame, block, (long) storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "arr.isByteType()")
+  public final SArray doByteArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    byte[] storage = arr.getByteStorage();
+    int length = storage.length;
+    Object[] result = new Object[length];
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          collectRemaining(frame, arr, block, result, i);
+          break;
+        }
+        result[i] = this.block.executeEvaluated(frame, block, SArray.readByte(storage, i));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "arr.isDoubleType()")
+  public final SArray doDoubleArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    double[] storage = arr.getDoubleStorage();
+    int length = storage.length;
+    Object[] result = new Object[length];
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          collectRemaining(frame, arr, block, result, i);
+          break;
+        }
+        result[i] = this.block.executeEvaluated(frame, block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "arr.isBooleanType()")
+  public final SArray doBooleanArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    boolean[] storage = arr.getBooleanStorage();
+    int length = storage.length;
+    Object[] result = new Object[length];
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          collectRemaining(frame, arr, block, result, i);
+          break;
+        }
+        result[i] = this.block.executeEvaluated(frame, block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return SArray.create(result);
+  }
+
+  protected final void reportLoopCount(final long count) {
+    if (count == 0) {
+      return;
+    }
+
+    CompilerAsserts.neverPartOfCompilation("reportLoopCount");
+    Node current = getParent();
+    while (current != null && !(current instanceof RootNode)) {
+      current = current.getParent();
+    }
+    if (current != null) {
+      ((Invokable) current).propagateLoopCountThroughoutLexicalScope(count);
+    }
+  }
+}
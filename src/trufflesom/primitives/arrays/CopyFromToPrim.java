@@ -0,0 +1,94 @@
+package trufflesom.primitives.arrays;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.nary.TernaryMsgExprNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Copies the elements from {@code start} to {@code end} into a new array, which has the same
+ * storage strategy as the receiver. A range outside of the receiver fails like {@code at:}
+ * with an out-of-range index.
+ */
+@GenerateNodeFactory
+@Primitive(className = "Array", primitive = "copyFrom:to:", selector = "copyFrom:to:",
+    receiverType = SArray.class)
+public abstract class CopyFromToPrim extends TernaryMsgExprNode {
+  @Override
+  public SSymbol getSelector() {
+    return SymbolTable.symbolFor("copyFrom:to:");
+  }
+
+  protected static int checkedFrom(final SArray receiver, final long start, final long end) {
+    if (start < 1 || end < start - 1 || end > receiver.getLength()) {
+      CompilerDirectives.transferToInterpreter();
+      throw new ArrayIndexOutOfBoundsException("copyFrom: " + start + " to: " + end
+          + " is out of bounds for an array of length " + receiver.getLength());
+    }
+    return (int) start - 1;
+  }
+
+  @Specialization(guards = "receiver.isEmptyType()")
+  public static final SArray doEmptyArray(final SArray receiver, final long start,
+      final long end) {
+    int from = checkedFrom(receiver, start, end);
+    return new SArray(end - from);
+  }
+
+  @Specialization(guards = "receiver.isPartiallyEmptyType()")
+  public static final SArray doPartiallyEmptyArray(final SArray receiver, final long start,
+      final long end) {
+    int from = checkedFrom(receiver, start, end);
+    return SArray.create(receiver.getPartiallyEmptyStorage().copyOfRange(from, (int) end));
+  }
+
+  @Specialization(guards = "receiver.isObjectType()")
+  public static final SArray doObjectArray(final SArray receiver, final long start,
+      final long end) {
+    int from = checkedFrom(receiver, start, end);
+    return SArray.create(Arrays.copyOfRange(receiver.getObjectStorage(), from, (int) end));
+  }
+
+  @Specialization(guards = "receiver.isLongType()")
+  public static final SArray doLongArray(final SArray receiver, final long start,
+      final long end) {
+    int from = checkedFrom(receiver, start, end);
+    return SArray.create(Arrays.copyOfRange(receiver.getLongStorage(), from, (int) end));
+  }
+
+  @Specialization(guards = "receiver.isIntType()")
+  public static final SArray doIntArray(final SArray receiver, final long start,
+      final long end) {
+    int from = checkedFrom(receiver, start, end);
+    return SArray.create(Arrays.copyOfRange(receiver.getIntStorage(), from, (int) end));
+  }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public static final SArray doByteArray(final SArray receiver, final long start,
+      final long end) {
+    int from = checkedFrom(receiver, start, end);
+    return SArray.create(Arrays.copyOfRange(receiver.getByteStorage(), from, (int) end));
+  }
+
+  @Specialization(guards = "receiver.isDoubleType()")
+  public static final SArray doDoubleArray(final SArray receiver, final long start,
+      final long end) {
+    int from = checkedFrom(receiver, start, end);
+    return SArray.create(Arrays.copyOfRange(receiver.getDoubleStorage(), from, (int) end));
+  }
+
+  @Specialization(guards = "receiver.isBooleanType()")
+  public static final SArray doBooleanArray(final SArray receiver, final long start,
+      final long end) {
+    int from = checkedFrom(receiver, start, end);
+    return SArray.create(Arrays.copyOfRange(receiver.getBooleanStorage(), from, (int) end));
+  }
+}
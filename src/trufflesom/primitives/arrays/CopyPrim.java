@@ -32,6 +32,16 @@ public abstract class CopyPrim extends UnaryExpressionNode {
     return SArray.create(receiver.getLongStorage().clone());
   }
 
+  @Specialization(guards = "receiver.isIntType()")
+  public final SArray doIntArray(final SArray receiver) {
+    return SArray.create(receiver.getIntStorage().clone());
+  }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public final SArray doByteArray(final SArray receiver) {
+    return SArray.create(receiver.getByteStorage().clone());
+  }
+
   @Specialization(guards = "receiver.isDoubleType()")
   public final SArray doDoubleArray(final SArray receiver) {
     return SArray.create(receiver.getDoubleStorage().clone());
@@ -0,0 +1,151 @@
+package trufflesom.primitives.arrays;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SArray.PartiallyEmptyArray;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Creates a copy of the array that is extended by one element. If the value fits the storage
+ * of the receiver, the copy keeps the strategy. Integer storage is widened to int or long
+ * storage for larger integers, and everything else is copied to object storage.
+ */
+@GenerateNodeFactory
+@Primitive(className = "Array", primitive = "copyWith:", selector = "copyWith:",
+    receiverType = SArray.class)
+public abstract class CopyWithPrim extends BinaryMsgExprNode {
+  @Override
+  public SSymbol getSelector() {
+    return SymbolTable.symbolFor("copyWith:");
+  }
+
+  protected static final boolean valueIsNil(final Object value) {
+    return value == Nil.nilObject;
+  }
+
+  protected static final boolean valueFitsInByte(final long value) {
+    return SArray.fitsInByte(value);
+  }
+
+  protected static final boolean valueFitsInInt(final long value) {
+    return SArray.fitsInInt(value);
+  }
+
+  @Specialization(guards = {"receiver.isEmptyType()", "valueIsNil(value)"})
+  public static final SArray doEmptyArrayWithNil(final SArray receiver, final Object value) {
+    return new SArray(receiver.getEmptyStorage() + 1);
+  }
+
+  @Specialization(guards = {"receiver.isEmptyType()", "!valueIsNil(value)"})
+  public static final SArray doEmptyArray(final SArray receiver, final Object value) {
+    int length = receiver.getEmptyStorage();
+    return SArray.create(new PartiallyEmptyArray(
+        PartiallyEmptyArray.Type.of(value), length + 1, length, value));
+  }
+
+  @Specialization(guards = "receiver.isPartiallyEmptyType()")
+  public static final SArray doPartiallyEmptyArray(final SArray receiver,
+      final Object value) {
+    PartiallyEmptyArray storage = receiver.getPartiallyEmptyStorage();
+    int length = storage.getLength();
+    PartiallyEmptyArray newStorage = storage.copyOfRange(0, length + 1);
+    if (value != Nil.nilObject) {
+      newStorage.set(length, value);
+      newStorage.decEmptyElements();
+      newStorage.setType(newStorage.getType().generalize(PartiallyEmptyArray.Type.of(value)));
+    }
+    return SArray.create(newStorage);
+  }
+
+  @Specialization(guards = "receiver.isObjectType()")
+  public static final SArray doObjectArray(final SArray receiver, final Object value) {
+    Object[] storage = receiver.getObjectStorage();
+    Object[] newStorage = Arrays.copyOf(storage, storage.length + 1);
+    newStorage[storage.length] = value;
+    return SArray.create(newStorage);
+  }
+
+  @Specialization(guards = "receiver.isLongType()")
+  public static final SArray doLongArray(final SArray receiver, final long value) {
+    long[] storage = receiver.getLongStorage();
+    long[] newStorage = Arrays.copyOf(storage, storage.length + 1);
+    newStorage[storage.length] = value;
+    return SArray.create(newStorage);
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "valueFitsInInt(value)"})
+  public static final SArray doIntArray(final SArray receiver, final long value) {
+    int[] storage = receiver.getIntStorage();
+    int[] newStorage = Arrays.copyOf(storage, storage.length + 1);
+    newStorage[storage.length] = (int) value;
+    return SArray.create(newStorage);
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "valueFitsInByte(value)"})
+  public static final SArray doByteArray(final SArray receiver, final long value) {
+    byte[] storage = receiver.getByteStorage();
+    byte[] newStorage = Arrays.copyOf(storage, storage.length + 1);
+    newStorage[storage.length] = (byte) value;
+    return SArray.create(newStorage);
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "valueFitsInInt(value)"})
+  public static final SArray doByteArrayWithInt(final SArray receiver, final long value) {
+    int[] storage = SArray.toInt(receiver.getByteStorage());
+    int[] newStorage = Arrays.copyOf(storage, storage.length + 1);
+    newStorage[storage.length] = (int) value;
+    return SArray.create(newStorage);
+  }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public static final SArray doByteArrayWithLong(final SArray receiver, final long value) {
+    return copyWith(SArray.toLong(receiver.getByteStorage()), value);
+  }
+
+  @Specialization(guards = "receiver.isIntType()")
+  public static final SArray doIntArrayWithLong(final SArray receiver, final long value) {
+    return copyWith(SArray.toLong(receiver.getIntStorage()), value);
+  }
+
+  private static SArray copyWith(final long[] storage, final long value) {
+    long[] newStorage = Arrays.copyOf(storage, storage.length + 1);
+    newStorage[storage.length] = value;
+    return SArray.create(newStorage);
+  }
+
+  @Specialization(guards = "receiver.isDoubleType()")
+  public static final SArray doDoubleArray(final SArray receiver, final double value) {
+    double[] storage = receiver.getDoubleStorage();
+    double[] newStorage = Arrays.copyOf(storage, storage.length + 1);
+    newStorage[storage.length] = value;
+    return SArray.create(newStorage);
+  }
+
+  @Specialization(guards = "receiver.isBooleanType()")
+  public static final SArray doBooleanArray(final SArray receiver, final boolean value) {
+    boolean[] storage = receiver.getBooleanStorage();
+    boolean[] newStorage = Arrays.copyOf(storage, storage.length + 1);
+    newStorage[storage.length] = value;
+    return SArray.create(newStorage);
+  }
+
+  /**
+   * The value does not fit the storage of the receiver. The copy uses object storage.
+   */
+  @Specialization
+  public static final SArray doGeneric(final SArray receiver, final Object value) {
+    int length = receiver.getLength();
+    Object[] newStorage = receiver.toObjectArray(length + 1);
+    newStorage[length] = value;
+    return SArray.create(newStorage);
+  }
+}
@@ -23,7 +23,7 @@ import trufflesom.vmobjects.SSymbol;
 
 @GenerateNodeFactory
 @Primitive(className = "Array", primitive = "doIndexes:", selector = "doIndexes:",
-    receiverType = SArray.class, disabled = true)
+    receiverType = SArray.class)
 public abstract class DoIndexesPrim extends BinaryMsgExprNode {
   @Child private ValueOnePrim block;
   @Child private LengthPrim   length;
@@ -21,9 +21,18 @@ import trufflesom.vmobjects.SBlock;
 import trufflesom.vmobjects.SSymbol;
 
 
+/**
+ * Iterates over the elements of an array.
+ *
+ * <p>
+ * The block may change the storage strategy of the array, for instance by storing a value
+ * of a different type. In that case, the iteration continues with
+ * {@link #doRemaining(VirtualFrame, SArray, SBlock, int)}, which reads the elements from
+ * the new storage.
+ */
 @GenerateNodeFactory
 @Primitive(className = "Array", primitive = "do:", selector = "do:",
-    receiverType = SArray.class, disabled = true)
+    receiverType = SArray.class)
 public abstract class DoPrim extends BinaryMsgExprNode {
   @Child private ValueOnePrim block = ValueOnePrimFactory.create(null, null);
 
@@ -32,6 +41,13 @@ public abstract class DoPrim extends BinaryMsgExprNode {
     return SymbolTable.symbolFor("do:");
   }
 
+  private void doRemaining(final VirtualFrame frame, final SArray arr, final SBlock block,
+      final int startIdx) {
+    for (int i = startIdx; i < arr.getLength(); i++) {
+      this.block.executeEvaluated(frame, block, arr.getValue(i));
+    }
+  }
+
   @Specialization(guards = "arr.isEmptyType()")
   public final SArray doEmptyArray(final VirtualFrame frame,
       final SArray arr, final SBlock block) {
@@ -40,7 +56,11 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       if (SArray.FIRST_IDX < length) {
         this.block.executeEvaluated(frame, block, Nil.nilObject);
       }
-      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        if (!arr.isEmptyType()) {
+          doRemaining(frame, arr, block, i);
+          break;
+        }
         this.block.executeEvaluated(frame, block, Nil.nilObject);
       }
     } finally {
@@ -60,7 +80,11 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       if (SArray.FIRST_IDX < length) {
         this.block.executeEvaluated(frame, block, storage.get(SArray.FIRST_IDX));
       }
-      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          doRemaining(frame, arr, block, i);
+          break;
+        }
         this.block.executeEvaluated(frame, block, storage.get(i));
       }
     } finally {
@@ -80,8 +104,12 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       if (SArray.FIRST_IDX < length) {
         this.block.executeEvaluated(frame, block, storage[SArray.FIRST_IDX]);
       }
-      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
-        this.block.executeEvaluated(frame, block, storage[(int) i]);
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          doRemaining(frame, arr, block, i);
+          break;
+        }
+        this.block.executeEvaluated(frame, block, storage[i]);
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
@@ -100,8 +128,60 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       if (SArray.FIRST_IDX < length) {
         this.block.executeEvaluated(frame, block, storage[SArray.FIRST_IDX]);
       }
-      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
-        this.block.executeEvaluated(frame, block, storage[(int) i]);
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          doRemaining(frame, arr, block, i);
+          break;
+        }
+        this.block.executeEvaluated(frame, block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public final SArray doIntArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    int[] storage = arr.getIntStorage();
+    int length = storage.length;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        this.block.executeEvaluated(frame, block, (long) storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          doRemaining(frame, arr, block, i);
+          break;
+        }
+        this.block.executeEvaluated(frame, block, (long) storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isByteType()")
+  public final SArray doByteArray(final VirtualFrame frame,
+      final SArray arr, final SBlock block) {
+    byte[] storage = arr.getByteStorage();
+    int length = storage.length;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        this.block.executeEvaluated(frame, block, SArray.readByte(storage, SArray.FIRST_IDX));
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          doRemaining(frame, arr, block, i);
+          break;
+        }
+        this.block.executeEvaluated(frame, block, SArray.readByte(storage, i));
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
@@ -120,8 +200,12 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       if (SArray.FIRST_IDX < length) {
         this.block.executeEvaluated(frame, block, storage[SArray.FIRST_IDX]);
       }
-      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
-        this.block.executeEvaluated(frame, block, storage[(int) i]);
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          doRemaining(frame, arr, block, i);
+          break;
+        }
+        this.block.executeEvaluated(frame, block, storage[i]);
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
@@ -140,8 +224,12 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       if (SArray.FIRST_IDX < length) {
         this.block.executeEvaluated(frame, block, storage[SArray.FIRST_IDX]);
       }
-      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
-        this.block.executeEvaluated(frame, block, storage[(int) i]);
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          doRemaining(frame, arr, block, i);
+          break;
+        }
+        this.block.executeEvaluated(frame, block, storage[i]);
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
@@ -0,0 +1,241 @@
+package trufflesom.primitives.arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.nodes.nary.TernaryMsgExprNode;
+import trufflesom.primitives.basics.BlockPrims.ValueTwoPrim;
+import trufflesom.primitives.basics.BlockPrimsFactory.ValueTwoPrimFactory;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SArray.PartiallyEmptyArray;
+import trufflesom.vmobjects.SBlock;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Folds the elements of an array with a block, starting with the initial value.
+ *
+ * <p>
+ * Each storage strategy has its own loop. If the block changes the strategy of the array,
+ * the iteration continues in the interpreter with
+ * {@link #injectRemaining(SArray, Object, SBlock, int)}, which reads the elements from the
+ * new storage.
+ */
+@GenerateNodeFactory
+@Primitive(className = "Array", primitive = "inject:into:", selector = "inject:into:",
+    receiverType = SArray.class)
+public abstract class InjectIntoPrim extends TernaryMsgExprNode {
+  @Child private ValueTwoPrim block = ValueTwoPrimFactory.create(null, null, null);
+
+  @Override
+  public SSymbol getSelector() {
+    return SymbolTable.symbolFor("inject:into:");
+  }
+
+  private Object injectRemaining(final SArray arr, final Object initial, final SBlock block,
+      final int startIdx) {
+    Object next = initial;
+    for (int i = startIdx; i < arr.getLength(); i++) {
+      next = this.block.executeEvaluated(block, next, arr.getValue(i));
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isEmptyType()")
+  public final Object doEmptyArray(final SArray arr, final Object initial,
+      final SBlock block) {
+    int length = arr.getEmptyStorage();
+    Object next = initial;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.isEmptyType()) {
+          CompilerDirectives.transferToInterpreter();
+          return injectRemaining(arr, next, block, i);
+        }
+        next = this.block.executeEvaluated(block, next, Nil.nilObject);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isPartiallyEmptyType()")
+  public final Object doPartiallyEmptyArray(final SArray arr, final Object initial,
+      final SBlock block) {
+    PartiallyEmptyArray storage = arr.getPartiallyEmptyStorage();
+    int length = storage.getLength();
+    Object next = initial;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          return injectRemaining(arr, next, block, i);
+        }
+        next = this.block.executeEvaluated(block, next, storage.get(i));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isObjectType()")
+  public final Object doObjectArray(final SArray arr, final Object initial,
+      final SBlock block) {
+    Object[] storage = arr.getObjectStorage();
+    int length = storage.length;
+    Object next = initial;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          return injectRemaining(arr, next, block, i);
+        }
+        next = this.block.executeEvaluated(block, next, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isLongType()")
+  public final Object doLongArray(final SArray arr, final Object initial,
+      final SBlock block) {
+    long[] storage = arr.getLongStorage();
+    int length = storage.length;
+    Object next = initial;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          return injectRemaining(arr, next, block, i);
+        }
+        next = this.block.executeEvaluated(block, next, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public final Object doIntArray(final SArray arr, final Object initial,
+      final SBlock block) {
+    int[] storage = arr.getIntStorage();
+    int length = storage.length;
+    Object next = initial;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          return injectRemaining(arr, next, block, i);
+        }
+        next = this.block.executeEvaluated(block, next, (long) storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isByteType()")
+  public final Object doByteArray(final SArray arr, final Object initial,
+      final SBlock block) {
+    byte[] storage = arr.getByteStorage();
+    int length = storage.length;
+    Object next = initial;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          return injectRemaining(arr, next, block, i);
+        }
+        next = this.block.executeEvaluated(block, next, SArray.readByte(storage, i));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isDoubleType()")
+  public final Object doDoubleArray(final SArray arr, final Object initial,
+      final SBlock block) {
+    double[] storage = arr.getDoubleStorage();
+    int length = storage.length;
+    Object next = initial;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          return injectRemaining(arr, next, block, i);
+        }
+        next = this.block.executeEvaluated(block, next, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isBooleanType()")
+  public final Object doBooleanArray(final SArray arr, final Object initial,
+      final SBlock block) {
+    boolean[] storage = arr.getBooleanStorage();
+    int length = storage.length;
+    Object next = initial;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          return injectRemaining(arr, next, block, i);
+        }
+        next = this.block.executeEvaluated(block, next, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return next;
+  }
+
+  protected final void reportLoopCount(final long count) {
+    if (count == 0) {
+      return;
+    }
+
+    CompilerAsserts.neverPartOfCompilation("reportLoopCount");
+    Node current = getParent();
+    while (current != null && !(current instanceof RootNode)) {
+      current = current.getParent();
+    }
+    if (current != null) {
+      ((Invokable) current).propagateLoopCountThroughoutLexicalScope(count);
+    }
+  }
+}
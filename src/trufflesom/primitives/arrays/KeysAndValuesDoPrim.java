@@ -0,0 +1,238 @@
+package trufflesom.primitives.arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.primitives.basics.BlockPrims.ValueTwoPrim;
+import trufflesom.primitives.basics.BlockPrimsFactory.ValueTwoPrimFactory;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SArray.PartiallyEmptyArray;
+import trufflesom.vmobjects.SBlock;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Evaluates a block with the index and the value of each element of an array.
+ *
+ * <p>
+ * Each storage strategy has its own loop. If the block changes the strategy of the array,
+ * the iteration continues in the interpreter with {@link #doRemaining(SArray, SBlock, int)},
+ * which reads the elements from the new storage.
+ */
+@GenerateNodeFactory
+@Primitive(className = "Array", primitive = "keysAndValuesDo:", selector = "keysAndValuesDo:",
+    receiverType = SArray.class)
+public abstract class KeysAndValuesDoPrim extends BinaryMsgExprNode {
+  @Child private ValueTwoPrim block = ValueTwoPrimFactory.create(null, null, null);
+
+  @Override
+  public SSymbol getSelector() {
+    return SymbolTable.symbolFor("keysAndValuesDo:");
+  }
+
+  private void doRemaining(final SArray arr, final SBlock block, final int startIdx) {
+    for (int i = startIdx; i < arr.getLength(); i++) {
+      // +1 because it is going to the Smalltalk level
+      this.block.executeEvaluated(block, (long) i + 1, arr.getValue(i));
+    }
+  }
+
+  @Specialization(guards = "arr.isEmptyType()")
+  public final SArray doEmptyArray(final SArray arr, final SBlock block) {
+    int length = arr.getEmptyStorage();
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.isEmptyType()) {
+          CompilerDirectives.transferToInterpreter();
+          doRemaining(arr, block, i);
+          break;
+        }
+        // +1 because it is going to the Smalltalk level
+        this.block.executeEvaluated(block, (long) i + 1, Nil.nilObject);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isPartiallyEmptyType()")
+  public final SArray doPartiallyEmptyArray(final SArray arr, final SBlock block) {
+    PartiallyEmptyArray storage = arr.getPartiallyEmptyStorage();
+    int length = storage.getLength();
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          doRemaining(arr, block, i);
+          break;
+        }
+        // +1 because it is going to the Smalltalk level
+        this.block.executeEvaluated(block, (long) i + 1, storage.get(i));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isObjectType()")
+  public final SArray doObjectArray(final SArray arr, final SBlock block) {
+    Object[] storage = arr.getObjectStorage();
+    int length = storage.length;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          doRemaining(arr, block, i);
+          break;
+        }
+        // +1 because it is going to the Smalltalk level
+        this.block.executeEvaluated(block, (long) i + 1, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isLongType()")
+  public final SArray doLongArray(final SArray arr, final SBlock block) {
+    long[] storage = arr.getLongStorage();
+    int length = storage.length;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          doRemaining(arr, block, i);
+          break;
+        }
+        // +1 because it is going to the Smalltalk level
+        this.block.executeEvaluated(block, (long) i + 1, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public final SArray doIntArray(final SArray arr, final SBlock block) {
+    int[] storage = arr.getIntStorage();
+    int length = storage.length;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          doRemaining(arr, block, i);
+          break;
+        }
+        // +1 because it is going to the Smalltalk level
+        this.block.executeEvaluated(block, (long) i + 1, (long) storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isByteType()")
+  public final SArray doByteArray(final SArray arr, final SBlock block) {
+    byte[] storage = arr.getByteStorage();
+    int length = storage.length;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          doRemaining(arr, block, i);
+          break;
+        }
+        // +1 because it is going to the Smalltalk level
+        this.block.executeEvaluated(block, (long) i + 1, SArray.readByte(storage, i));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isDoubleType()")
+  public final SArray doDoubleArray(final SArray arr, final SBlock block) {
+    double[] storage = arr.getDoubleStorage();
+    int length = storage.length;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          doRemaining(arr, block, i);
+          break;
+        }
+        // +1 because it is going to the Smalltalk level
+        this.block.executeEvaluated(block, (long) i + 1, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isBooleanType()")
+  public final SArray doBooleanArray(final SArray arr, final SBlock block) {
+    boolean[] storage = arr.getBooleanStorage();
+    int length = storage.length;
+    try {
+      for (int i = SArray.FIRST_IDX; i < length; i++) {
+        if (!arr.hasStorage(storage)) {
+          CompilerDirectives.transferToInterpreter();
+          doRemaining(arr, block, i);
+          break;
+        }
+        // +1 because it is going to the Smalltalk level
+        this.block.executeEvaluated(block, (long) i + 1, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(length);
+      }
+    }
+    return arr;
+  }
+
+  protected final void reportLoopCount(final long count) {
+    if (count == 0) {
+      return;
+    }
+
+    CompilerAsserts.neverPartOfCompilation("reportLoopCount");
+    Node current = getParent();
+    while (current != null && !(current instanceof RootNode)) {
+      current = current.getParent();
+    }
+    if (current != null) {
+      ((Invokable) current).propagateLoopCountThroughoutLexicalScope(count);
+    }
+  }
+}
@@ -25,7 +25,7 @@ import trufflesom.vmobjects.SObject;
 
 
 @GenerateNodeFactory
-@Primitive(className = "Array", primitive = "putAll:", selector = "putAll:", disabled = true,
+@Primitive(className = "Array", primitive = "putAll:", selector = "putAll:",
     extraChild = LengthPrimFactory.class)
 @NodeChild(value = "length", type = LengthPrim.class, executeWith = "receiver")
 public abstract class PutAllNode extends BinaryExpressionNode {
@@ -57,62 +57,106 @@ public abstract class PutAllNode extends BinaryExpressionNode {
   }
 
   private void evalBlockForRemaining(final VirtualFrame frame,
-      final SBlock block, final long length, final Object[] storage) {
-    for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+      final SBlock block, final long length, final Object[] storage, final int startIdx) {
+    for (int i = startIdx; i < length; i++) {
       storage[i] = this.block.executeEvaluated(frame, block);
     }
   }
 
-  private void evalBlockForRemaining(final VirtualFrame frame,
+  /**
+   * Fill the remaining elements. If the block returns a value that does not fit into the
+   * storage, it continues with an object storage.
+   *
+   * @return the storage with all elements
+   */
+  private Object evalBlockForRemaining(final VirtualFrame frame,
       final SBlock block, final long length, final long[] storage) {
     for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
-      storage[i] = (long) this.block.executeEvaluated(frame, block);
+      Object value = this.block.executeEvaluated(frame, block);
+      if (value instanceof Long) {
+        storage[i] = (long) value;
+      } else {
+        Object[] newStorage = new Object[(int) length];
+        for (int j = 0; j < i; j++) {
+          newStorage[j] = storage[j];
+        }
+        newStorage[i] = value;
+        evalBlockForRemaining(frame, block, length, newStorage, i + 1);
+        return newStorage;
+      }
     }
+    return storage;
   }
 
-  private void evalBlockForRemaining(final VirtualFrame frame,
+  private Object evalBlockForRemaining(final VirtualFrame frame,
       final SBlock block, final long length, final double[] storage) {
     for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
-      storage[i] = (double) this.block.executeEvaluated(frame, block);
+      Object value = this.block.executeEvaluated(frame, block);
+      if (value instanceof Double) {
+        storage[i] = (double) value;
+      } else {
+        Object[] newStorage = new Object[(int) length];
+        for (int j = 0; j < i; j++) {
+          newStorage[j] = storage[j];
+        }
+        newStorage[i] = value;
+        evalBlockForRemaining(frame, block, length, newStorage, i + 1);
+        return newStorage;
+      }
     }
+    return storage;
   }
 
-  private void evalBlockForRemaining(final VirtualFrame frame,
+  private Object evalBlockForRemaining(final VirtualFrame frame,
       final SBlock block, final long length, final boolean[] storage) {
     for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
-      storage[i] = (boolean) this.block.executeEvaluated(frame, block);
+      Object value = this.block.executeEvaluated(frame, block);
+      if (value instanceof Boolean) {
+        storage[i] = (boolean) value;
+      } else {
+        Object[] newStorage = new Object[(int) length];
+        for (int j = 0; j < i; j++) {
+          newStorage[j] = storage[j];
+        }
+        newStorage[i] = value;
+        evalBlockForRemaining(frame, block, length, newStorage, i + 1);
+        return newStorage;
+      }
     }
+    return storage;
   }
 
+  /**
+   * Evaluates the block for each element. The new storage is only installed once all values
+   * are computed. Thus, if the block does a non-local return, the array remains unchanged.
+   */
   @Specialization
   public SArray doPutEvalBlock(final VirtualFrame frame, final SArray rcvr,
       final SBlock block, final long length) {
     if (length <= 0) {
       return rcvr;
     }
-    // TODO: this version does not handle the case that a subsequent value is not of the
-    // expected type...
+
     try {
       Object result = this.block.executeEvaluated(frame, block);
       if (result instanceof Long) {
         long[] newStorage = new long[(int) length];
         newStorage[0] = (long) result;
-        evalBlockForRemaining(frame, block, length, newStorage);
-        rcvr.transitionTo(newStorage);
+        Object storage = evalBlockForRemaining(frame, block, length, newStorage);
+        // only once all values are known, we can pick the narrowest integer storage
+        rcvr.transitionTo(storage == newStorage ? SArray.narrow(newStorage) : storage);
       } else if (result instanceof Double) {
         double[] newStorage = new double[(int) length];
         newStorage[0] = (double) result;
-        evalBlockForRemaining(frame, block, length, newStorage);
-        rcvr.transitionTo(newStorage);
+        rcvr.transitionTo(evalBlockForRemaining(frame, block, length, newStorage));
       } else if (result instanceof Boolean) {
         boolean[] newStorage = new boolean[(int) length];
         newStorage[0] = (boolean) result;
-        evalBlockForRemaining(frame, block, length, newStorage);
-        rcvr.transitionTo(newStorage);
+        rcvr.transitionTo(evalBlockForRemaining(frame, block, length, newStorage));
       } else {
         Object[] newStorage = new Object[(int) length];
         newStorage[0] = result;
-        evalBlockForRemaining(frame, block, length, newStorage);
+        evalBlockForRemaining(frame, block, length, newStorage, SArray.FIRST_IDX + 1);
         rcvr.transitionTo(newStorage);
       }
     } finally {
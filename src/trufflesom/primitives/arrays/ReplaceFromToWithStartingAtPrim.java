@@ -0,0 +1,134 @@
+package trufflesom.primitives.arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.nary.QuaternaryMsgExprNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Replaces the elements from {@code start} to {@code stop} with the elements of the
+ * replacement array, starting at {@code repStart}.
+ *
+ * <p>
+ * If both arrays use the same storage strategy, the elements are copied with
+ * {@link System#arraycopy}. Otherwise, the elements are stored one by one with
+ * {@link AtPutPrim}, which transitions the receiver to a strategy that can hold them.
+ */
+@GenerateNodeFactory
+@Primitive(className = "Array", primitive = "replaceFrom:to:with:startingAt:",
+    selector = "replaceFrom:to:with:startingAt:", receiverType = SArray.class)
+public abstract class ReplaceFromToWithStartingAtPrim extends QuaternaryMsgExprNode {
+  @Child private AtPutPrim atPut = AtPutPrimFactory.create(null, null, null);
+
+  @Override
+  public SSymbol getSelector() {
+    return SymbolTable.symbolFor("replaceFrom:to:with:startingAt:");
+  }
+
+  /**
+   * Validates the range like {@link CopyFromToPrim#checkedFrom}, before any element is
+   * copied.
+   *
+   * @return the number of elements to replace
+   */
+  protected static int checkedLength(final long start, final long stop,
+      final int receiverLength, final long repStart, final int replacementLength) {
+    long length = stop - start + 1;
+    if (start < 1 || length < 0 || stop > receiverLength || repStart < 1
+        || repStart - 1 + length > replacementLength) {
+      CompilerDirectives.transferToInterpreter();
+      throw new ArrayIndexOutOfBoundsException("replaceFrom: " + start + " to: " + stop
+          + " with: an array of length " + replacementLength + " startingAt: " + repStart
+          + " is out of bounds for an array of length " + receiverLength);
+    }
+    return (int) length;
+  }
+
+  @Specialization(guards = {"receiver.isObjectType()", "replacement.isObjectType()"})
+  public static final SArray doObjectArray(final SArray receiver, final long start,
+      final long stop, final SArray replacement, final long repStart) {
+    Object[] rcvrStorage = receiver.getObjectStorage();
+    Object[] repStorage = replacement.getObjectStorage();
+    int length = checkedLength(start, stop, rcvrStorage.length, repStart, repStorage.length);
+    System.arraycopy(repStorage, (int) repStart - 1, rcvrStorage, (int) start - 1, length);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isLongType()", "replacement.isLongType()"})
+  public static final SArray doLongArray(final SArray receiver, final long start,
+      final long stop, final SArray replacement, final long repStart) {
+    long[] rcvrStorage = receiver.getLongStorage();
+    long[] repStorage = replacement.getLongStorage();
+    int length = checkedLength(start, stop, rcvrStorage.length, repStart, repStorage.length);
+    System.arraycopy(repStorage, (int) repStart - 1, rcvrStorage, (int) start - 1, length);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "replacement.isIntType()"})
+  public static final SArray doIntArray(final SArray receiver, final long start,
+      final long stop, final SArray replacement, final long repStart) {
+    int[] rcvrStorage = receiver.getIntStorage();
+    int[] repStorage = replacement.getIntStorage();
+    int length = checkedLength(start, stop, rcvrStorage.length, repStart, repStorage.length);
+    System.arraycopy(repStorage, (int) repStart - 1, rcvrStorage, (int) start - 1, length);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "replacement.isByteType()"})
+  public static final SArray doByteArray(final SArray receiver, final long start,
+      final long stop, final SArray replacement, final long repStart) {
+    byte[] rcvrStorage = receiver.getByteStorage();
+    byte[] repStorage = replacement.getByteStorage();
+    int length = checkedLength(start, stop, rcvrStorage.length, repStart, repStorage.length);
+    System.arraycopy(repStorage, (int) repStart - 1, rcvrStorage, (int) start - 1, length);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isDoubleType()", "replacement.isDoubleType()"})
+  public static final SArray doDoubleArray(final SArray receiver, final long start,
+      final long stop, final SArray replacement, final long repStart) {
+    double[] rcvrStorage = receiver.getDoubleStorage();
+    double[] repStorage = replacement.getDoubleStorage();
+    int length = checkedLength(start, stop, rcvrStorage.length, repStart, repStorage.length);
+    System.arraycopy(repStorage, (int) repStart - 1, rcvrStorage, (int) start - 1, length);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isBooleanType()", "replacement.isBooleanType()"})
+  public static final SArray doBooleanArray(final SArray receiver, final long start,
+      final long stop, final SArray replacement, final long repStart) {
+    boolean[] rcvrStorage = receiver.getBooleanStorage();
+    boolean[] repStorage = replacement.getBooleanStorage();
+    int length = checkedLength(start, stop, rcvrStorage.length, repStart, repStorage.length);
+    System.arraycopy(repStorage, (int) repStart - 1, rcvrStorage, (int) start - 1, length);
+    return receiver;
+  }
+
+  /**
+   * The strategies differ, or the receiver is empty or partially empty.
+   * Each element is stored with {@link AtPutPrim}, which takes care of the transitions.
+   */
+  @Specialization
+  public final SArray doGeneric(final VirtualFrame frame, final SArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    int length = checkedLength(start, stop, receiver.getLength(), repStart,
+        replacement.getLength());
+    Object[] values = new Object[length];
+    for (int i = 0; i < length; i++) {
+      // read all values first, because the replacement can be the receiver itself
+      values[i] = replacement.getValue(repStart - 1 + i);
+    }
+
+    for (int i = 0; i < length; i++) {
+      atPut.executeEvaluated(frame, receiver, start + i, values[i]);
+    }
+    return receiver;
+  }
+}
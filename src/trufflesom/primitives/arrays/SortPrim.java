@@ -0,0 +1,130 @@
+package trufflesom.primitives.arrays;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.AbstractMessageSendNode;
+import trufflesom.interpreter.nodes.MessageSendNode;
+import trufflesom.interpreter.nodes.nary.UnaryMsgExprNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Sorts the array in place in ascending order.
+ *
+ * <p>
+ * Integer and double storage is sorted directly. Object storage is sorted with
+ * {@link TimSort}, comparing the elements with {@code <=}. Booleans are not ordered, so
+ * sorting them falls back to a send.
+ */
+@GenerateNodeFactory
+@Primitive(className = "Array", primitive = "sort", selector = "sort",
+    receiverType = SArray.class)
+public abstract class SortPrim extends UnaryMsgExprNode implements TimSort.Order {
+  @Child private AbstractMessageSendNode lessOrEqual;
+
+  @Override
+  public SSymbol getSelector() {
+    return SymbolTable.symbolFor("sort");
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public SortPrim initialize(final long coord) {
+    super.initialize(coord);
+    lessOrEqual = MessageSendNode.createForPerformNodes(SymbolTable.symLessOrEqual, coord);
+    return this;
+  }
+
+  @Override
+  public final boolean isOrdered(final VirtualFrame frame, final Object comparator,
+      final Object a, final Object b) {
+    Object result = lessOrEqual.doPreEvaluated(frame, new Object[] {a, b});
+    if (result instanceof Boolean) {
+      return (boolean) result;
+    }
+    CompilerDirectives.transferToInterpreter();
+    throw new UnsupportedSpecializationException(this, new Node[] {lessOrEqual}, result);
+  }
+
+  @TruffleBoundary
+  private static void sort(final long[] storage) {
+    Arrays.sort(storage);
+  }
+
+  @TruffleBoundary
+  private static void sort(final int[] storage) {
+    Arrays.sort(storage);
+  }
+
+  @TruffleBoundary
+  private static void sort(final double[] storage) {
+    Arrays.sort(storage);
+  }
+
+  @Specialization(guards = "arr.isEmptyType()")
+  public static final SArray doEmptyArray(final SArray arr) {
+    // all elements are nil, there is nothing to sort
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isLongType()")
+  public static final SArray doLongArray(final SArray arr) {
+    sort(arr.getLongStorage());
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public static final SArray doIntArray(final SArray arr) {
+    sort(arr.getIntStorage());
+    return arr;
+  }
+
+  /**
+   * Byte storage holds unsigned values, which {@link Arrays#sort(byte[])} would not order
+   * correctly. Instead, we count the occurrences of each value.
+   */
+  @Specialization(guards = "arr.isByteType()")
+  public static final SArray doByteArray(final SArray arr) {
+    byte[] storage = arr.getByteStorage();
+    int[] counts = new int[256];
+    for (byte b : storage) {
+      counts[Byte.toUnsignedInt(b)]++;
+    }
+
+    int i = 0;
+    for (int val = 0; val < counts.length; val++) {
+      Arrays.fill(storage, i, i + counts[val], (byte) val);
+      i += counts[val];
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isDoubleType()")
+  public static final SArray doDoubleArray(final SArray arr) {
+    sort(arr.getDoubleStorage());
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isPartiallyEmptyType()")
+  public final SArray doPartiallyEmptyArray(final VirtualFrame frame, final SArray arr) {
+    TimSort.sort(frame, arr.getPartiallyEmptyStorage().getStorage(), this, null);
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isObjectType()")
+  public final SArray doObjectArray(final VirtualFrame frame, final SArray arr) {
+    TimSort.sort(frame, arr.getObjectStorage(), this, null);
+    return arr;
+  }
+}
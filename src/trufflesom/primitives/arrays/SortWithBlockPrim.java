@@ -0,0 +1,183 @@
+package trufflesom.primitives.arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.primitives.basics.BlockPrims.ValueTwoPrim;
+import trufflesom.primitives.basics.BlockPrimsFactory.ValueTwoPrimFactory;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SBlock;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Sorts the array in place with {@link TimSort}. The block answers whether its first argument
+ * is to be sorted before its second argument.
+ *
+ * <p>
+ * Primitive storage is boxed for sorting, because each comparison passes the elements to
+ * the block anyway. Since the result is a permutation of the elements, it is written back to
+ * the same storage.
+ */
+@GenerateNodeFactory
+@Primitive(className = "Array", primitive = "sort:", selector = "sort:",
+    receiverType = SArray.class)
+public abstract class SortWithBlockPrim extends BinaryMsgExprNode implements TimSort.Order {
+  @Child private ValueTwoPrim block = ValueTwoPrimFactory.create(null, null, null);
+
+  @Override
+  public SSymbol getSelector() {
+    return SymbolTable.symbolFor("sort:");
+  }
+
+  @Override
+  public final boolean isOrdered(final VirtualFrame frame, final Object comparator,
+      final Object a, final Object b) {
+    Object result = block.executeEvaluated((SBlock) comparator, a, b);
+    if (result instanceof Boolean) {
+      return (boolean) result;
+    }
+    CompilerDirectives.transferToInterpreter();
+    throw new UnsupportedSpecializationException(this, new Node[] {block}, result);
+  }
+
+  private void sort(final VirtualFrame frame, final Object[] values, final SBlock block) {
+    try {
+      TimSort.sort(frame, values, this, block);
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        reportLoopCount(values.length);
+      }
+    }
+  }
+
+  @Specialization(guards = "arr.isEmptyType()")
+  public final SArray doEmptyArray(final SArray arr, final SBlock block) {
+    // all elements are nil, there is nothing to sort
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isPartiallyEmptyType()")
+  public final SArray doPartiallyEmptyArray(final VirtualFrame frame, final SArray arr,
+      final SBlock block) {
+    sort(frame, arr.getPartiallyEmptyStorage().getStorage(), block);
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isObjectType()")
+  public final SArray doObjectArray(final VirtualFrame frame, final SArray arr,
+      final SBlock block) {
+    sort(frame, arr.getObjectStorage(), block);
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isLongType()")
+  public final SArray doLongArray(final VirtualFrame frame, final SArray arr,
+      final SBlock block) {
+    long[] storage = arr.getLongStorage();
+    Object[] values = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      values[i] = storage[i];
+    }
+
+    sort(frame, values, block);
+
+    for (int i = 0; i < storage.length; i++) {
+      storage[i] = (long) values[i];
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public final SArray doIntArray(final VirtualFrame frame, final SArray arr,
+      final SBlock block) {
+    int[] storage = arr.getIntStorage();
+    Object[] values = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      values[i] = (long) storage[i];
+    }
+
+    sort(frame, values, block);
+
+    for (int i = 0; i < storage.length; i++) {
+      storage[i] = (int) (long) values[i];
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isByteType()")
+  public final SArray doByteArray(final VirtualFrame frame, final SArray arr,
+      final SBlock block) {
+    byte[] storage = arr.getByteStorage();
+    Object[] values = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      values[i] = SArray.readByte(storage, i);
+    }
+
+    sort(frame, values, block);
+
+    for (int i = 0; i < storage.length; i++) {
+      storage[i] = (byte) (long) values[i];
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isDoubleType()")
+  public final SArray doDoubleArray(final VirtualFrame frame, final SArray arr,
+      final SBlock block) {
+    double[] storage = arr.getDoubleStorage();
+    Object[] values = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      values[i] = storage[i];
+    }
+
+    sort(frame, values, block);
+
+    for (int i = 0; i < storage.length; i++) {
+      storage[i] = (double) values[i];
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isBooleanType()")
+  public final SArray doBooleanArray(final VirtualFrame frame, final SArray arr,
+      final SBlock block) {
+    boolean[] storage = arr.getBooleanStorage();
+    Object[] values = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      values[i] = storage[i];
+    }
+
+    sort(frame, values, block);
+
+    for (int i = 0; i < storage.length; i++) {
+      storage[i] = (boolean) values[i];
+    }
+    return arr;
+  }
+
+  protected final void reportLoopCount(final long count) {
+    if (count == 0) {
+      return;
+    }
+
+    CompilerAsserts.neverPartOfCompilation("reportLoopCount");
+    Node current = getParent();
+    while (current != null && !(current instanceof RootNode)) {
+      current = current.getParent();
+    }
+    if (current != null) {
+      ((Invokable) current).propagateLoopCountThroughoutLexicalScope(count);
+    }
+  }
+}
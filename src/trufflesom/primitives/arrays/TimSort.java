@@ -0,0 +1,95 @@
+package trufflesom.primitives.arrays;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+
+/**
+ * A simplified TimSort for the sort primitives, which compare elements with SOM code.
+ *
+ * <p>
+ * The array is split into runs of {@link #RUN} elements that are sorted with an insertion
+ * sort, and then merged bottom-up. Adjacent runs that are already in order are not merged.
+ * In contrast to {@link java.util.Arrays#sort(Object[], java.util.Comparator)}, the
+ * implementation consists of plain loops, so that it can be compiled together with the
+ * comparison, instead of being behind a boundary.
+ *
+ * <p>
+ * The sort is stable, if the comparison answers true for equal elements.
+ */
+final class TimSort {
+  private static final int RUN = 32;
+
+  interface Order {
+    /**
+     * Answers whether {@code a} is to be sorted before {@code b}.
+     *
+     * @param comparator the object passed to {@link TimSort#sort}, for instance a block
+     */
+    boolean isOrdered(VirtualFrame frame, Object comparator, Object a, Object b);
+  }
+
+  private TimSort() {}
+
+  static void sort(final VirtualFrame frame, final Object[] arr, final Order order,
+      final Object comparator) {
+    int n = arr.length;
+    for (int lo = 0; lo < n; lo += RUN) {
+      insertionSort(frame, arr, lo, Math.min(lo + RUN, n), order, comparator);
+    }
+
+    if (n <= RUN) {
+      return;
+    }
+
+    Object[] src = arr;
+    Object[] dst = new Object[n];
+    for (int width = RUN; width < n; width *= 2) {
+      for (int lo = 0; lo < n; lo += 2 * width) {
+        int mid = Math.min(lo + width, n);
+        int hi = Math.min(lo + 2 * width, n);
+        merge(frame, src, dst, lo, mid, hi, order, comparator);
+      }
+      Object[] tmp = src;
+      src = dst;
+      dst = tmp;
+    }
+
+    if (src != arr) {
+      System.arraycopy(src, 0, arr, 0, n);
+    }
+  }
+
+  private static void insertionSort(final VirtualFrame frame, final Object[] arr,
+      final int lo, final int hi, final Order order, final Object comparator) {
+    for (int i = lo + 1; i < hi; i++) {
+      Object val = arr[i];
+      int j = i - 1;
+      while (j >= lo && !order.isOrdered(frame, comparator, arr[j], val)) {
+        arr[j + 1] = arr[j];
+        j--;
+      }
+      arr[j + 1] = val;
+    }
+  }
+
+  private static void merge(final VirtualFrame frame, final Object[] src, final Object[] dst,
+      final int lo, final int mid, final int hi, final Order order, final Object comparator) {
+    if (mid >= hi || order.isOrdered(frame, comparator, src[mid - 1], src[mid])) {
+      // the second run is empty, or both runs are already in order
+      System.arraycopy(src, lo, dst, lo, hi - lo);
+      return;
+    }
+
+    int i = lo;
+    int j = mid;
+    for (int k = lo; k < hi; k++) {
+      if (i < mid && (j >= hi || order.isOrdered(frame, comparator, src[i], src[j]))) {
+        dst[k] = src[i];
+        i++;
+      } else {
+        dst[k] = src[j];
+        j++;
+      }
+    }
+  }
+}
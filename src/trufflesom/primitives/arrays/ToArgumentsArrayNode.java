@@ -74,6 +74,30 @@ public abstract class ToArgumentsArrayNode extends NoPreEvalExprNode {
     return args;
   }
 
+  @Specialization(guards = "somArray.isIntType()")
+  public final Object[] doIntArray(final SArray somArray,
+      final Object rcvr) {
+    int[] arr = somArray.getIntStorage();
+    Object[] args = new Object[arr.length + 1];
+    args[0] = rcvr;
+    for (int i = 0; i < arr.length; i++) {
+      args[i + 1] = (long) arr[i];
+    }
+    return args;
+  }
+
+  @Specialization(guards = "somArray.isByteType()")
+  public final Object[] doByteArray(final SArray somArray,
+      final Object rcvr) {
+    byte[] arr = somArray.getByteStorage();
+    Object[] args = new Object[arr.length + 1];
+    args[0] = rcvr;
+    for (int i = 0; i < arr.length; i++) {
+      args[i + 1] = Byte.toUnsignedLong(arr[i]);
+    }
+    return args;
+  }
+
   @Specialization(guards = "somArray.isDoubleType()")
   public final Object[] doDoubleArray(final SArray somArray,
       final Object rcvr) {
@@ -27,10 +27,15 @@ public abstract class AsStringPrim extends UnaryExpressionNode {
     return Long.toString(receiver);
   }
 
-  @TruffleBoundary
   @Specialization
   public final String doDouble(final double receiver) {
-    return Double.toString(receiver);
+    return toString(receiver);
+  }
+
+  /** The format of Double>>#asString, which is also used by StringBuilder>>#append:. */
+  @TruffleBoundary
+  public static String toString(final double value) {
+    return Double.toString(value);
   }
 
   @TruffleBoundary
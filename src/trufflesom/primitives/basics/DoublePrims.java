@@ -10,6 +10,7 @@ import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
 import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
 import trufflesom.vm.Classes;
 import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SRope;
 
 
 public abstract class DoublePrims {
@@ -56,5 +57,10 @@ public abstract class DoublePrims {
         return Double.NaN;
       }
     }
+
+    @Specialization(guards = "receiver == doubleClass")
+    public final double doSRope(final SClass receiver, final SRope str) {
+      return doSClass(receiver, str.getString());
+    }
   }
 }
@@ -10,6 +10,7 @@ import bdt.primitives.Primitive;
 import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
 import trufflesom.vm.SymbolTable;
 import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -65,6 +66,11 @@ public abstract class EqualsPrim extends BinaryMsgExprNode {
     return false;
   }
 
+  @Specialization
+  public static final boolean doLong(final long left, final SRope right) {
+    return false;
+  }
+
   @Specialization
   @TruffleBoundary
   public static final boolean doBigInteger(final BigInteger left, final long right) {
@@ -103,6 +109,12 @@ public abstract class EqualsPrim extends BinaryMsgExprNode {
     return receiver.equals(argument.getString());
   }
 
+  @Specialization
+  public static final boolean doString(final String receiver, final SRope argument) {
+    return receiver.length() == argument.getLength()
+        && receiver.equals(argument.getString());
+  }
+
   @Specialization
   public static final boolean doString(final String receiver, final long argument) {
     return false;
@@ -123,6 +135,11 @@ public abstract class EqualsPrim extends BinaryMsgExprNode {
     return receiver.getString().equals(argument);
   }
 
+  @Specialization
+  public static final boolean doSSymbol(final SSymbol receiver, final SRope argument) {
+    return receiver.getString().equals(argument.getString());
+  }
+
   @Specialization
   public static final boolean doSSymbol(final SSymbol receiver, final long argument) {
     return false;
@@ -132,4 +149,30 @@ public abstract class EqualsPrim extends BinaryMsgExprNode {
   public static final boolean doSSymbol(final SSymbol receiver, final SObject argument) {
     return false;
   }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final SRope argument) {
+    return receiver == argument || (receiver.getLength() == argument.getLength()
+        && receiver.getString().equals(argument.getString()));
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final String argument) {
+    return doString(argument, receiver);
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final SSymbol argument) {
+    return doSSymbol(argument, receiver);
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final long argument) {
+    return false;
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final SObject argument) {
+    return false;
+  }
 }
@@ -7,6 +7,8 @@ import com.oracle.truffle.api.dsl.Specialization;
 import bdt.primitives.Primitive;
 import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
 import trufflesom.vmobjects.SAbstractObject;
+import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -20,11 +22,21 @@ public abstract class HashPrim extends UnaryExpressionNode {
   }
 
   @Specialization
-  @TruffleBoundary
   public final long doSSymbol(final SSymbol receiver) {
+    return receiver.getHash();
+  }
+
+  /** Needs to be consistent with the hash of an equal {@link String}. */
+  @Specialization
+  public final long doSRope(final SRope receiver) {
     return receiver.getString().hashCode();
   }
 
+  @Specialization
+  public final long doSObject(final SObject receiver) {
+    return receiver.getIdentityHash();
+  }
+
   @Specialization
   @TruffleBoundary
   public final long doSAbstractObject(final SAbstractObject receiver) {
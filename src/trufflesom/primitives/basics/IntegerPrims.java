@@ -21,6 +21,7 @@ import trufflesom.vm.Classes;
 import trufflesom.vm.SymbolTable;
 import trufflesom.vmobjects.SArray;
 import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -51,6 +52,20 @@ public abstract class IntegerPrims {
     }
   }
 
+  @GenerateNodeFactory
+  @Primitive(className = "Integer", primitive = "asCharacterString")
+  @Primitive(selector = "asCharacterString")
+  public abstract static class AsCharacterStringPrim extends UnaryExpressionNode {
+    /** Answers the string with the UTF-16 code unit, as answered by String>>#charCodeAt:. */
+    @Specialization
+    public static final String doLong(final long receiver) {
+      if (0 <= receiver && receiver <= Character.MAX_VALUE) {
+        return StringPrims.charString((char) receiver);
+      }
+      return "Error - not a valid character code";
+    }
+  }
+
   @GenerateNodeFactory
   @Primitive(className = "Integer", primitive = "as32BitUnsignedValue")
   @Primitive(selector = "as32BitUnsignedValue")
@@ -124,6 +139,11 @@ public abstract class IntegerPrims {
     public static final Object doSymbol(final SClass receiver, final SSymbol argument) {
       return doString(receiver, argument.getString());
     }
+
+    @Specialization(guards = "receiver == integerClass")
+    public static final Object doSRope(final SClass receiver, final SRope argument) {
+      return doString(receiver, argument.getString());
+    }
   }
 
   @GenerateNodeFactory
@@ -9,6 +9,8 @@ import com.oracle.truffle.api.instrumentation.ProbeNode;
 import bdt.primitives.Primitive;
 import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
 import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SRope;
+import trufflesom.vmobjects.SStringBuilder;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -16,8 +18,9 @@ import trufflesom.vmobjects.SSymbol;
 @GenerateWrapper
 @Primitive(className = "Array", primitive = "length")
 @Primitive(className = "String", primitive = "length")
-@Primitive(selector = "length", receiverType = {String.class, SArray.class, SSymbol.class},
-    inParser = false)
+@Primitive(className = "StringBuilder", primitive = "length")
+@Primitive(selector = "length", receiverType = {String.class, SArray.class, SSymbol.class,
+    SStringBuilder.class}, inParser = false)
 public abstract class LengthPrim extends UnaryExpressionNode {
 
   @Specialization(guards = "receiver.isEmptyType()")
@@ -40,6 +43,16 @@ public abstract class LengthPrim extends UnaryExpressionNode {
     return receiver.getLongStorage().length;
   }
 
+  @Specialization(guards = "receiver.isIntType()")
+  public static final long doIntSArray(final SArray receiver) {
+    return receiver.getIntStorage().length;
+  }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public static final long doByteSArray(final SArray receiver) {
+    return receiver.getByteStorage().length;
+  }
+
   @Specialization(guards = "receiver.isDoubleType()")
   public static final long doDoubleSArray(final SArray receiver) {
     return receiver.getDoubleStorage().length;
@@ -57,11 +70,21 @@ public abstract class LengthPrim extends UnaryExpressionNode {
     return receiver.length();
   }
 
+  @Specialization
+  public static final long doSRope(final SRope receiver) {
+    return receiver.getLength();
+  }
+
   @Specialization
   public static final long doSSymbol(final SSymbol receiver) {
     return receiver.getString().length();
   }
 
+  @Specialization
+  public static final long doSStringBuilder(final SStringBuilder receiver) {
+    return receiver.getLength();
+  }
+
   @Override
   public WrapperNode createWrapper(final ProbeNode probe) {
     return new LengthPrimWrapper(this, probe);
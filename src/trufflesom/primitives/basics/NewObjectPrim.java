@@ -21,16 +21,17 @@ import trufflesom.vmobjects.SObject;
 public abstract class NewObjectPrim extends UnaryExpressionNode {
   protected static final int LIMIT = 3;
 
+  /** Allocates in the latest layout, see {@link CachedNewObject}. */
   @Specialization(assumptions = "layout.getAssumption()",
       guards = "layout.layoutForSameClass(receiver)", limit = "LIMIT")
   public final SAbstractObject doCached(final SClass receiver,
       @Cached("receiver.getLayoutForInstances()") final ObjectLayout layout) {
-    return new SObject(receiver, layout);
+    return SObject.create(receiver, layout);
   }
 
   @Specialization(replaces = "doCached")
   public final SAbstractObject doUncached(final SClass receiver) {
-    return new SObject(receiver);
+    return SObject.create(receiver);
   }
 
   @Override
@@ -0,0 +1,169 @@
+package trufflesom.primitives.basics;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+import bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
+import trufflesom.interpreter.nodes.nary.UnaryMsgExprNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SRope;
+import trufflesom.vmobjects.SStringBuilder;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Primitives of the StringBuilder class, a mutable character buffer.
+ * The length primitive is implemented by {@link LengthPrim}.
+ */
+public class StringBuilderPrims {
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "new", classSide = true)
+  public abstract static class NewPrim extends UnaryExpressionNode {
+    @Specialization(guards = "receiver.getNumberOfInstanceFields() == 0")
+    public static final SStringBuilder doSClass(final SClass receiver) {
+      return new SStringBuilder(receiver);
+    }
+
+    /** Instances only hold the buffer, and have no storage for fields. */
+    @Specialization(guards = "receiver.getNumberOfInstanceFields() != 0")
+    public static final String doSClassWithFields(final SClass receiver) {
+      return "Error - subclasses of StringBuilder cannot have fields";
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "append:", selector = "append:",
+      receiverType = SStringBuilder.class, inParser = false)
+  public abstract static class AppendPrim extends BinaryMsgExprNode {
+    @Override
+    public SSymbol getSelector() {
+      return SymbolTable.symbolFor("append:");
+    }
+
+    @Specialization
+    public static final SStringBuilder doString(final SStringBuilder receiver,
+        final String argument) {
+      receiver.append(argument);
+      return receiver;
+    }
+
+    @Specialization
+    public static final SStringBuilder doSSymbol(final SStringBuilder receiver,
+        final SSymbol argument) {
+      receiver.append(argument.getString());
+      return receiver;
+    }
+
+    @Specialization
+    public static final SStringBuilder doSRope(final SStringBuilder receiver,
+        final SRope argument) {
+      receiver.append(argument.getString());
+      return receiver;
+    }
+
+    @Specialization
+    public static final SStringBuilder doLong(final SStringBuilder receiver,
+        final long argument) {
+      receiver.append(argument);
+      return receiver;
+    }
+
+    @Specialization
+    public static final SStringBuilder doDouble(final SStringBuilder receiver,
+        final double argument) {
+      receiver.append(AsStringPrim.toString(argument));
+      return receiver;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "appendChar:", selector = "appendChar:",
+      receiverType = SStringBuilder.class, inParser = false)
+  public abstract static class AppendCharPrim extends BinaryMsgExprNode {
+    @Override
+    public SSymbol getSelector() {
+      return SymbolTable.symbolFor("appendChar:");
+    }
+
+    /** Appends a one-character string, as it is answered for instance by charAt:. */
+    @Specialization
+    public static final SStringBuilder doString(final SStringBuilder receiver,
+        final String argument) {
+      receiver.append(argument);
+      return receiver;
+    }
+
+    /** Appends the character with the given code point. */
+    @Specialization
+    public static final Object doLong(final SStringBuilder receiver, final long argument) {
+      if (0 <= argument && argument <= Character.MAX_CODE_POINT) {
+        receiver.appendCodePoint((int) argument);
+        return receiver;
+      }
+      return "Error - not a valid code point";
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "appendInteger:",
+      selector = "appendInteger:", receiverType = SStringBuilder.class, inParser = false)
+  public abstract static class AppendIntegerPrim extends BinaryMsgExprNode {
+    @Override
+    public SSymbol getSelector() {
+      return SymbolTable.symbolFor("appendInteger:");
+    }
+
+    @Specialization
+    public static final SStringBuilder doLong(final SStringBuilder receiver,
+        final long argument) {
+      receiver.append(argument);
+      return receiver;
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public static final SStringBuilder doBigInteger(final SStringBuilder receiver,
+        final BigInteger argument) {
+      receiver.append(argument.toString());
+      return receiver;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "reset", selector = "reset",
+      receiverType = SStringBuilder.class, inParser = false)
+  public abstract static class ResetPrim extends UnaryMsgExprNode {
+    @Override
+    public SSymbol getSelector() {
+      return SymbolTable.symbolFor("reset");
+    }
+
+    @Specialization
+    public static final SStringBuilder doSStringBuilder(final SStringBuilder receiver) {
+      receiver.reset();
+      return receiver;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "asString", selector = "asString",
+      receiverType = SStringBuilder.class, inParser = false)
+  public abstract static class AsStringPrim extends UnaryMsgExprNode {
+    @Override
+    public SSymbol getSelector() {
+      return SymbolTable.symbolFor("asString");
+    }
+
+    @Specialization
+    public static final String doSStringBuilder(final SStringBuilder receiver) {
+      return receiver.getString();
+    }
+  }
+}
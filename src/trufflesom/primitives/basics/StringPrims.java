@@ -1,6 +1,6 @@
 package trufflesom.primitives.basics;
 
-import static trufflesom.vm.SymbolTable.symbolFor;
+import static trufflesom.vm.SymbolTable.weakSymbolFor;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
@@ -14,11 +14,40 @@ import trufflesom.interpreter.nodes.nary.TernaryExpressionNode;
 import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
 import trufflesom.vm.SymbolTable;
 import trufflesom.vmobjects.SAbstractObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
 public class StringPrims {
 
+  /** Interned single-character strings for the Latin-1 range. */
+  @CompilationFinal(dimensions = 1) private static final String[] singleCharStrings;
+
+  static {
+    singleCharStrings = new String[256];
+    for (int i = 0; i < singleCharStrings.length; i++) {
+      singleCharStrings[i] = String.valueOf((char) i).intern();
+    }
+  }
+
+  /**
+   * Strings are indexed by UTF-16 code units, which is also the unit of charAt:,
+   * charCodeAt:, and Integer>>#asCharacterString.
+   *
+   * @return a string with the single code unit, from the preallocated table if possible
+   */
+  public static String charString(final char c) {
+    if (c < singleCharStrings.length) {
+      return singleCharStrings[c];
+    }
+    return newCharString(c);
+  }
+
+  @TruffleBoundary
+  private static String newCharString(final char c) {
+    return String.valueOf(c);
+  }
+
   @GenerateNodeFactory
   @Primitive(className = "String", primitive = "concatenate:")
   public abstract static class ConcatPrim extends BinaryMsgExprNode {
@@ -28,27 +57,48 @@ public class StringPrims {
     }
 
     @Specialization
-    @TruffleBoundary
-    public static final String doString(final String receiver, final String argument) {
-      return receiver + argument;
+    public static final Object doString(final String receiver, final String argument) {
+      return SRope.concat(receiver, argument);
     }
 
     @Specialization
-    @TruffleBoundary
-    public static final String doString(final String receiver, final SSymbol argument) {
-      return receiver + argument.getString();
+    public static final Object doString(final String receiver, final SSymbol argument) {
+      return SRope.concat(receiver, argument.getString());
     }
 
     @Specialization
-    @TruffleBoundary
-    public static final String doSSymbol(final SSymbol receiver, final String argument) {
-      return receiver.getString() + argument;
+    public static final Object doString(final String receiver, final SRope argument) {
+      return SRope.concat(receiver, argument);
     }
 
     @Specialization
-    @TruffleBoundary
-    public static final String doSSymbol(final SSymbol receiver, final SSymbol argument) {
-      return receiver.getString() + argument.getString();
+    public static final Object doSSymbol(final SSymbol receiver, final String argument) {
+      return SRope.concat(receiver.getString(), argument);
+    }
+
+    @Specialization
+    public static final Object doSSymbol(final SSymbol receiver, final SSymbol argument) {
+      return SRope.concat(receiver.getString(), argument.getString());
+    }
+
+    @Specialization
+    public static final Object doSSymbol(final SSymbol receiver, final SRope argument) {
+      return SRope.concat(receiver.getString(), argument);
+    }
+
+    @Specialization
+    public static final Object doSRope(final SRope receiver, final String argument) {
+      return SRope.concat(receiver, argument);
+    }
+
+    @Specialization
+    public static final Object doSRope(final SRope receiver, final SSymbol argument) {
+      return SRope.concat(receiver, argument.getString());
+    }
+
+    @Specialization
+    public static final Object doSRope(final SRope receiver, final SRope argument) {
+      return SRope.concat(receiver, argument);
     }
   }
 
@@ -72,7 +122,7 @@ public class StringPrims {
     public final String doString(final String receiver, final long idx) {
       int index = (int) idx;
       if (0 < index && index <= receiver.length()) {
-        return substring(receiver, index - 1, index);
+        return charString(receiver.charAt(index - 1));
       }
 
       if (!branchTaken) {
@@ -87,7 +137,7 @@ public class StringPrims {
       int index = (int) idx;
       String s = receiver.getString();
       if (0 < index && index <= s.length()) {
-        return substring(s, index - 1, index);
+        return charString(s.charAt(index - 1));
       }
 
       if (!branchTaken) {
@@ -96,6 +146,48 @@ public class StringPrims {
       }
       return "Error - index out of bounds";
     }
+
+    @Specialization
+    public final String doSRope(final SRope receiver, final long idx) {
+      return doString(receiver.getString(), idx);
+    }
+  }
+
+  /** Answers the UTF-16 code unit at the index, the inverse of Integer>>#asCharacterString. */
+  @GenerateNodeFactory
+  @Primitive(className = "String", primitive = "charCodeAt:", selector = "charCodeAt:")
+  public abstract static class CharCodeAtPrim extends BinaryMsgExprNode {
+
+    @CompilationFinal private boolean branchTaken;
+
+    @Override
+    public SSymbol getSelector() {
+      return SymbolTable.symbolFor("charCodeAt:");
+    }
+
+    @Specialization
+    public final Object doString(final String receiver, final long idx) {
+      int index = (int) idx;
+      if (0 < index && index <= receiver.length()) {
+        return (long) receiver.charAt(index - 1);
+      }
+
+      if (!branchTaken) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        branchTaken = true;
+      }
+      return "Error - index out of bounds";
+    }
+
+    @Specialization
+    public final Object doSSymbol(final SSymbol receiver, final long idx) {
+      return doString(receiver.getString(), idx);
+    }
+
+    @Specialization
+    public final Object doSRope(final SRope receiver, final long idx) {
+      return doString(receiver.getString(), idx);
+    }
   }
 
   @GenerateNodeFactory
@@ -103,13 +195,18 @@ public class StringPrims {
   public abstract static class AsSymbolPrim extends UnaryExpressionNode {
     @Specialization
     public final SAbstractObject doString(final String receiver) {
-      return symbolFor(receiver);
+      return weakSymbolFor(receiver);
     }
 
     @Specialization
     public static final SAbstractObject doSSymbol(final SSymbol receiver) {
       return receiver;
     }
+
+    @Specialization
+    public final SAbstractObject doSRope(final SRope receiver) {
+      return weakSymbolFor(receiver.getString());
+    }
   }
 
   @GenerateNodeFactory
@@ -130,6 +227,12 @@ public class StringPrims {
         final long end) {
       return doString(receiver.getString(), start, end);
     }
+
+    @Specialization
+    public static final String doSRope(final SRope receiver, final long start,
+        final long end) {
+      return doString(receiver.getString(), start, end);
+    }
   }
 
   @GenerateNodeFactory
@@ -166,6 +269,11 @@ public class StringPrims {
     public static final boolean doSSymbol(final SSymbol receiver) {
       return doString(receiver.getString());
     }
+
+    @Specialization
+    public static final boolean doSRope(final SRope receiver) {
+      return doString(receiver.getString());
+    }
   }
 
   @GenerateNodeFactory
@@ -202,6 +310,11 @@ public class StringPrims {
     public static final boolean doSSymbol(final SSymbol receiver) {
       return doString(receiver.getString());
     }
+
+    @Specialization
+    public static final boolean doSRope(final SRope receiver) {
+      return doString(receiver.getString());
+    }
   }
 
   @GenerateNodeFactory
@@ -238,5 +351,10 @@ public class StringPrims {
     public static final boolean doSSymbol(final SSymbol receiver) {
       return doString(receiver.getString());
     }
+
+    @Specialization
+    public static final boolean doSRope(final SRope receiver) {
+      return doString(receiver.getString());
+    }
   }
 }
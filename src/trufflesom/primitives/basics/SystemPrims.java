@@ -36,6 +36,7 @@ import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SArray;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -85,6 +86,11 @@ public final class SystemPrims {
     public final Object doSObject(final SObject receiver, final SSymbol argument) {
       return doSObject(receiver, argument.getString());
     }
+
+    @Specialization
+    public final Object doSObject(final SObject receiver, final SRope argument) {
+      return doSObject(receiver, argument.getString());
+    }
   }
 
   @GenerateNodeFactory
@@ -100,6 +106,11 @@ public final class SystemPrims {
     public final Object doSObject(final SObject receiver, final SSymbol argument) {
       return doSObject(receiver, argument.getString());
     }
+
+    @Specialization
+    public final Object doSObject(final SObject receiver, final SRope argument) {
+      return doSObject(receiver, argument.getString());
+    }
   }
 
   @GenerateNodeFactory
@@ -115,6 +126,11 @@ public final class SystemPrims {
     public final Object doSObject(final SObject receiver, final SSymbol argument) {
       return doSObject(receiver, argument.getString());
     }
+
+    @Specialization
+    public final Object doSObject(final SObject receiver, final SRope argument) {
+      return doSObject(receiver, argument.getString());
+    }
   }
 
   @GenerateNodeFactory
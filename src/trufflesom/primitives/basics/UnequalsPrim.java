@@ -10,6 +10,7 @@ import bdt.primitives.Primitive;
 import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
 import trufflesom.vm.SymbolTable;
 import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -96,6 +97,11 @@ public abstract class UnequalsPrim extends BinaryMsgExprNode {
     return true;
   }
 
+  @Specialization
+  public static final boolean doLong(final long left, final SRope right) {
+    return true;
+  }
+
   @Specialization
   public static final boolean doString(final String receiver, final long argument) {
     return true;
@@ -115,4 +121,49 @@ public abstract class UnequalsPrim extends BinaryMsgExprNode {
   public static final boolean doSSymbol(final SSymbol receiver, final SObject argument) {
     return true;
   }
+
+  @Specialization
+  public static final boolean doString(final String receiver, final SSymbol argument) {
+    return !EqualsPrim.doString(receiver, argument);
+  }
+
+  @Specialization
+  public static final boolean doString(final String receiver, final SRope argument) {
+    return !EqualsPrim.doString(receiver, argument);
+  }
+
+  @Specialization
+  public static final boolean doSSymbol(final SSymbol receiver, final String argument) {
+    return !EqualsPrim.doSSymbol(receiver, argument);
+  }
+
+  @Specialization
+  public static final boolean doSSymbol(final SSymbol receiver, final SRope argument) {
+    return !EqualsPrim.doSSymbol(receiver, argument);
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final SRope argument) {
+    return !EqualsPrim.doSRope(receiver, argument);
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final String argument) {
+    return !EqualsPrim.doString(argument, receiver);
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final SSymbol argument) {
+    return !EqualsPrim.doSSymbol(argument, receiver);
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final long argument) {
+    return true;
+  }
+
+  @Specialization
+  public static final boolean doSRope(final SRope receiver, final SObject argument) {
+    return true;
+  }
 }
@@ -11,6 +11,7 @@ import trufflesom.interpreter.nodes.GlobalNode;
 import trufflesom.interpreter.nodes.GlobalNode.UninitializedGlobalReadWithoutErrorNode;
 import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
 import trufflesom.vm.Globals;
+import trufflesom.vm.VmSettings;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SObject;
 import trufflesom.vmobjects.SSymbol;
@@ -28,7 +29,7 @@ public abstract class GlobalPrim extends BinaryExpressionNode {
   }
 
   private abstract static class GetGlobalNode extends Node {
-    protected static final int INLINE_CACHE_SIZE = 6;
+    protected static final int INLINE_CACHE_SIZE = VmSettings.InlineCacheSize;
 
     public abstract Object getGlobal(VirtualFrame frame, SSymbol argument);
   }
@@ -8,6 +8,7 @@ import com.oracle.truffle.api.nodes.Node;
 import bdt.primitives.Primitive;
 import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
 import trufflesom.vm.Globals;
+import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SObject;
 import trufflesom.vmobjects.SSymbol;
 
@@ -24,7 +25,7 @@ public abstract class HasGlobalPrim extends BinaryExpressionNode {
   }
 
   private abstract static class HasGlobalNode extends Node {
-    protected static final int INLINE_CACHE_SIZE = 6;
+    protected static final int INLINE_CACHE_SIZE = VmSettings.InlineCacheSize;
 
     public abstract boolean hasGlobal(SSymbol argument);
   }
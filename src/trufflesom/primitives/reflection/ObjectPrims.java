@@ -31,6 +31,7 @@ import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SInvokable.SMethod;
 import trufflesom.vmobjects.SInvokable.SPrimitive;
 import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -174,6 +175,11 @@ public final class ObjectPrims {
       return stringClass;
     }
 
+    @Specialization
+    public static final SClass getSomClass(final SRope receiver) {
+      return stringClass;
+    }
+
     @TruffleBoundary
     @Specialization
     public static final SClass getSomClass(final double receiver) {
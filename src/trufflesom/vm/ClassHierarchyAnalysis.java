@@ -0,0 +1,119 @@
+package trufflesom.vm;
+
+import java.util.HashMap;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.Truffle;
+
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Records for each selector the classes that implement it, as classes are loaded.
+ *
+ * <p>
+ * A selector that is implemented by a single class can be dispatched without a cache per
+ * receiver class. This is only valid as long as no other class implements the selector,
+ * which is guarded by an {@link Assumption} that is invalidated when a class is loaded that
+ * adds another implementation.
+ */
+public final class ClassHierarchyAnalysis {
+
+  /** Marks selectors with more than one implementation. */
+  private static final UniqueImplementor POLYMORPHIC = new UniqueImplementor(null);
+
+  private static final HashMap<SSymbol, UniqueImplementor> implementors = new HashMap<>();
+
+  private static Assumption allClassesInheritFromObject = createAllClassesInheritFromObject();
+
+  private ClassHierarchyAnalysis() {}
+
+  public static final class UniqueImplementor {
+    private final SInvokable method;
+    private final Assumption isUnique;
+
+    private UniqueImplementor(final SInvokable method) {
+      this.method = method;
+      this.isUnique = method == null ? null
+          : Truffle.getRuntime().createAssumption(
+              "Unique implementor of " + method.getSignature().getString());
+    }
+
+    public SInvokable getMethod() {
+      return method;
+    }
+
+    public Assumption getIsUnique() {
+      return isUnique;
+    }
+  }
+
+  private static Assumption createAllClassesInheritFromObject() {
+    return Truffle.getRuntime().createAssumption("All classes inherit from Object");
+  }
+
+  /**
+   * Needs to be called for every method that is installed in a class, after its holder was
+   * set.
+   */
+  public static synchronized void recordMethod(final SInvokable method) {
+    CompilerAsserts.neverPartOfCompilation("ClassHierarchyAnalysis.recordMethod");
+    SSymbol selector = method.getSignature();
+    UniqueImplementor existing = implementors.get(selector);
+
+    if (existing == POLYMORPHIC || (existing != null && existing.method == method)) {
+      return;
+    }
+
+    if (existing == null) {
+      implementors.put(selector, new UniqueImplementor(method));
+      return;
+    }
+
+    existing.isUnique.invalidate();
+    if (existing.method.getHolder() == method.getHolder()) {
+      // the method was replaced, for instance by a primitive
+      implementors.put(selector, new UniqueImplementor(method));
+    } else {
+      implementors.put(selector, POLYMORPHIC);
+    }
+  }
+
+  /**
+   * @return the only implementation of the selector, or {@code null} if there is none or
+   *         more than one
+   */
+  public static synchronized UniqueImplementor getUniqueImplementor(final SSymbol selector) {
+    UniqueImplementor impl = implementors.get(selector);
+    if (impl == null || impl == POLYMORPHIC) {
+      return null;
+    }
+    return impl;
+  }
+
+  /**
+   * Needs to be called when a class is loaded that has {@code nil} as superclass, because
+   * its instances do not understand the methods of Object.
+   */
+  public static void recordClassNotInheritingFromObject() {
+    allClassesInheritFromObject.invalidate();
+  }
+
+  public static Assumption getAllClassesInheritFromObject() {
+    return allClassesInheritFromObject;
+  }
+
+  public static synchronized void reset() {
+    for (UniqueImplementor impl : implementors.values()) {
+      if (impl.isUnique != null) {
+        impl.isUnique.invalidate();
+      }
+    }
+    implementors.clear();
+
+    allClassesInheritFromObject.invalidate();
+    allClassesInheritFromObject = createAllClassesInheritFromObject();
+  }
+}
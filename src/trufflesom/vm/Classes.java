@@ -104,6 +104,8 @@ public class Classes {
     Arrays.fill(blockClasses, null);
 
     Globals.reset();
+    MethodCache.reset();
+    ClassHierarchyAnalysis.reset();
     Universe.reset();
   }
 }
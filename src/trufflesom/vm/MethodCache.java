@@ -0,0 +1,111 @@
+package trufflesom.vm;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Global method lookup cache in the style of the Smalltalk-80 VMs.
+ *
+ * <p>
+ * It is a fixed-size, direct-mapped table keyed on (receiver class, selector),
+ * which is consulted by uncached {@code perform:} sends before falling back to
+ * {@link SClass#lookupInvokable(SSymbol)} and its per-class dispatch tables.
+ * A change to a class' methods or superclass drops only the entries of that class
+ * and its subclasses. Hit and miss counts are reported with
+ * {@code -Dsom.printMethodCacheStats=true}.
+ */
+public final class MethodCache {
+  private static final int SIZE = 1024;
+  private static final int MASK = SIZE - 1;
+
+  private static final Entry[] entries = new Entry[SIZE];
+
+  private static long hits;
+  private static long misses;
+
+  private MethodCache() {}
+
+  private static final class Entry {
+    private final SClass     rcvrClass;
+    private final SSymbol    selector;
+    private final SInvokable method;
+
+    Entry(final SClass rcvrClass, final SSymbol selector, final SInvokable method) {
+      this.rcvrClass = rcvrClass;
+      this.selector = selector;
+      this.method = method;
+    }
+  }
+
+  private static int index(final SClass rcvrClass, final SSymbol selector) {
+    int hash = System.identityHashCode(rcvrClass) ^ System.identityHashCode(selector);
+    return (hash ^ (hash >>> 16)) & MASK;
+  }
+
+  /**
+   * Lookup the method for the given receiver class and selector.
+   *
+   * @return the invokable, or {@code null} if the class does not understand the selector
+   */
+  @TruffleBoundary
+  public static SInvokable lookup(final SClass rcvrClass, final SSymbol selector) {
+    CompilerAsserts.neverPartOfCompilation("MethodCache.lookup");
+    int i = index(rcvrClass, selector);
+
+    Entry e = entries[i];
+    if (e != null && e.rcvrClass == rcvrClass && e.selector == selector) {
+      hits += 1;
+      return e.method;
+    }
+
+    misses += 1;
+    SInvokable method = rcvrClass.lookupInvokable(selector);
+    if (method != null) {
+      entries[i] = new Entry(rcvrClass, selector, method);
+    }
+    return method;
+  }
+
+  /**
+   * Needs to be called whenever the methods or the superclass of a class change. Drops the
+   * entries of the class and its subclasses.
+   */
+  public static void invalidate(final SClass changed) {
+    CompilerAsserts.neverPartOfCompilation("MethodCache.invalidate");
+    for (int i = 0; i < SIZE; i++) {
+      Entry e = entries[i];
+      if (e != null && e.rcvrClass.isKindOf(changed)) {
+        entries[i] = null;
+      }
+    }
+  }
+
+  public static long getHits() {
+    return hits;
+  }
+
+  public static long getMisses() {
+    return misses;
+  }
+
+  public static void reset() {
+    Arrays.fill(entries, null);
+    hits = 0;
+    misses = 0;
+  }
+
+  @TruffleBoundary
+  public static void reportStatistics() {
+    long total = hits + misses;
+    double rate = total == 0 ? 0.0 : 100.0 * hits / total;
+    Universe.errorPrintln("[MethodCache] lookups: " + total + " hits: " + hits + " misses: "
+        + misses + " hit rate: " + String.format("%.2f%%", rate));
+  }
+}
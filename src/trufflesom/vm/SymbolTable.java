@@ -1,6 +1,10 @@
 package trufflesom.vm;
 
-import java.util.HashMap;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
@@ -8,8 +12,48 @@ import bdt.basic.IdProvider;
 import trufflesom.vmobjects.SSymbol;
 
 
+/**
+ * The table of all symbols, so that each string has a unique symbol.
+ *
+ * <p>
+ * The table uses open addressing with linear probing. Lookups do not take a lock, only
+ * inserting a new symbol does. Symbols created by the parser are referenced strongly. Symbols
+ * created at run time, for instance with {@code asSymbol}, are referenced weakly, so that the
+ * table does not keep symbols alive that were created from input data. Slots of collected
+ * symbols are reclaimed when the table is rebuilt, and their selector ids are reused.
+ *
+ * <p>
+ * The hash of a symbol is the same as the one of its string, so that lookups can compute it
+ * from a range of characters, without creating a {@link String} first.
+ */
 public class SymbolTable {
-  private static final HashMap<String, SSymbol> symbolTable;
+  private static final int INITIAL_CAPACITY = 4096;
+
+  /** Slots hold an {@link SSymbol}, a {@link WeakReference} to one, or null. */
+  private static volatile AtomicReferenceArray<Object> table;
+
+  /** Number of non-null slots, including cleared weak references. */
+  private static int numUsedSlots;
+
+  /**
+   * Symbols by selector id. Selector ids are dense, so that they can index the dispatch
+   * tables of classes.
+   */
+  private static final ArrayList<SelectorRef> selectors = new ArrayList<>();
+
+  /** Selector ids of collected symbols, which are handed out again first. */
+  private static final ArrayList<Integer> freeSelectorIds = new ArrayList<>();
+
+  private static final ReferenceQueue<SSymbol> collectedSelectors = new ReferenceQueue<>();
+
+  private static final class SelectorRef extends WeakReference<SSymbol> {
+    private final int selectorId;
+
+    SelectorRef(final SSymbol selector, final int selectorId) {
+      super(selector, collectedSelectors);
+      this.selectorId = selectorId;
+    }
+  }
 
   public static final SSymbol symNil;
   public static final SSymbol symTrue;
@@ -27,6 +71,12 @@ public class SymbolTable {
 
   public static final SSymbol symPlus;
   public static final SSymbol symMinus;
+  public static final SSymbol symLessThan;
+  public static final SSymbol symLessOrEqual;
+  public static final SSymbol symGreaterThan;
+  public static final SSymbol symEquals;
+  public static final SSymbol symAtMsg;
+  public static final SSymbol symDnu;
 
   public static IdProvider<SSymbol> SymbolProvider = new Provider();
 
@@ -37,22 +87,194 @@ public class SymbolTable {
     }
   }
 
+  /**
+   * @return the symbol for the string, which is kept alive by the table
+   */
   @TruffleBoundary
   public static SSymbol symbolFor(final String string) {
-    String interned = string.intern();
-    // Lookup the symbol in the symbol table
-    SSymbol result = symbolTable.get(interned);
-    if (result != null) {
-      return result;
+    return symbolFor(string, 0, string.length(), true);
+  }
+
+  /**
+   * Looks up the symbol for the characters from {@code start} (inclusive) to {@code end}
+   * (exclusive), and creates a {@link String} only if the symbol does not exist yet.
+   *
+   * @return the symbol, which is kept alive by the table
+   */
+  @TruffleBoundary
+  public static SSymbol symbolFor(final CharSequence chars, final int start, final int end) {
+    return symbolFor(chars, start, end, true);
+  }
+
+  /**
+   * @return the symbol for the string, which is only kept alive by the table, if it was
+   *         requested with {@link #symbolFor(String)} before
+   */
+  @TruffleBoundary
+  public static SSymbol weakSymbolFor(final String string) {
+    return symbolFor(string, 0, string.length(), false);
+  }
+
+  private static SSymbol symbolFor(final CharSequence chars, final int start, final int end,
+      final boolean strong) {
+    int hash = hash(chars, start, end);
+
+    AtomicReferenceArray<Object> t = table;
+    int mask = t.length() - 1;
+    for (int i = hash & mask;; i = (i + 1) & mask) {
+      Object entry = t.get(i);
+      if (entry == null) {
+        break;
+      }
+      SSymbol sym = symbolIn(entry);
+      if (matches(sym, hash, chars, start, end)) {
+        if (strong && entry != sym) {
+          return insert(chars, start, end, hash, true);
+        }
+        return sym;
+      }
+    }
+
+    return insert(chars, start, end, hash, strong);
+  }
+
+  private static synchronized SSymbol insert(final CharSequence chars, final int start,
+      final int end, final int hash, final boolean strong) {
+    // the table might have changed since the lookup, so we probe again
+    AtomicReferenceArray<Object> t = table;
+    int mask = t.length() - 1;
+    int i = hash & mask;
+    for (;; i = (i + 1) & mask) {
+      Object entry = t.get(i);
+      if (entry == null) {
+        break;
+      }
+      SSymbol sym = symbolIn(entry);
+      if (matches(sym, hash, chars, start, end)) {
+        if (strong && entry != sym) {
+          t.set(i, sym);
+        }
+        return sym;
+      }
+    }
+
+    SSymbol sym = new SSymbol(chars.subSequence(start, end).toString());
+    t.set(i, strong ? sym : new WeakReference<>(sym));
+    numUsedSlots += 1;
+
+    if (numUsedSlots > t.length() / 2) {
+      rebuild(t);
+    }
+    return sym;
+  }
+
+  /**
+   * Copies the live entries into a new table, which is twice as large, unless enough
+   * entries were collected.
+   */
+  private static void rebuild(final AtomicReferenceArray<Object> old) {
+    int numLive = 0;
+    for (int i = 0; i < old.length(); i++) {
+      Object entry = old.get(i);
+      if (entry != null && symbolIn(entry) != null) {
+        numLive += 1;
+      }
+    }
+
+    int capacity = old.length();
+    if (numLive > capacity / 4) {
+      capacity *= 2;
+    }
+
+    AtomicReferenceArray<Object> t = new AtomicReferenceArray<>(capacity);
+    int mask = capacity - 1;
+    for (int j = 0; j < old.length(); j++) {
+      Object entry = old.get(j);
+      SSymbol sym = entry == null ? null : symbolIn(entry);
+      if (sym != null) {
+        int i = sym.getHash() & mask;
+        while (t.get(i) != null) {
+          i = (i + 1) & mask;
+        }
+        t.set(i, entry);
+      }
+    }
+
+    numUsedSlots = numLive;
+    table = t;
+  }
+
+  /**
+   * The id of a collected symbol is safe to reuse, because entries in dispatch tables
+   * reference the symbol as their signature, and thus keep it alive.
+   *
+   * @return a new id for a symbol that is used as selector, possibly the one of a collected
+   *         symbol
+   */
+  @TruffleBoundary
+  public static synchronized int nextSelectorId(final SSymbol selector) {
+    Reference<? extends SSymbol> collected;
+    while ((collected = collectedSelectors.poll()) != null) {
+      freeSelectorIds.add(((SelectorRef) collected).selectorId);
     }
 
-    result = new SSymbol(interned);
-    symbolTable.put(interned, result);
-    return result;
+    int id;
+    if (freeSelectorIds.isEmpty()) {
+      id = selectors.size();
+      selectors.add(null);
+    } else {
+      id = freeSelectorIds.remove(freeSelectorIds.size() - 1);
+    }
+    selectors.set(id, new SelectorRef(selector, id));
+    return id;
+  }
+
+  /** Enqueues the reference to a selector as if its symbol was collected. */
+  static synchronized void releaseSelectorId(final int selectorId) {
+    selectors.get(selectorId).enqueue();
+  }
+
+  static synchronized int getNumberOfSelectorIds() {
+    return selectors.size();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static SSymbol symbolIn(final Object entry) {
+    if (entry instanceof SSymbol) {
+      return (SSymbol) entry;
+    }
+    return ((WeakReference<SSymbol>) entry).get();
+  }
+
+  /** Same as {@link String#hashCode()}. */
+  private static int hash(final CharSequence chars, final int start, final int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + chars.charAt(i);
+    }
+    return hash;
+  }
+
+  private static boolean matches(final SSymbol sym, final int hash, final CharSequence chars,
+      final int start, final int end) {
+    if (sym == null || sym.getHash() != hash) {
+      return false;
+    }
+
+    String str = sym.getString();
+    if (str.length() != end - start) {
+      return false;
+    }
+    for (int i = 0; i < str.length(); i++) {
+      if (str.charAt(i) != chars.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   static {
-    symbolTable = new HashMap<>();
+    table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
 
     symNil = symbolFor("nil");
     symTrue = symbolFor("true");
@@ -69,6 +291,12 @@ public class SymbolTable {
 
     symPlus = symbolFor("+");
     symMinus = symbolFor("-");
+    symLessThan = symbolFor("<");
+    symLessOrEqual = symbolFor("<=");
+    symGreaterThan = symbolFor(">");
+    symEquals = symbolFor("=");
+    symAtMsg = symbolFor("at:");
+    symDnu = symbolFor("doesNotUnderstand:arguments:");
 
     // Name for the frameOnStack slot,
     // starting with ! to make it a name that's not possible in Smalltalk
@@ -68,6 +68,8 @@ import trufflesom.compiler.Field;
 import trufflesom.compiler.SourcecodeCompiler;
 import trufflesom.compiler.Variable;
 import trufflesom.interpreter.SomLanguage;
+import trufflesom.interpreter.bc.BytecodeProfiler;
+import trufflesom.interpreter.nodes.dispatch.PolymorphismStatistics;
 import trufflesom.primitives.Primitives;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SArray;
@@ -129,6 +131,7 @@ public final class Universe {
 
   public static void main(final String[] arguments) {
     Value returnCode = eval(arguments);
+    reportStatistics();
     if (returnCode.isNumber()) {
       System.exit(returnCode.asInt());
     } else {
@@ -136,6 +139,18 @@ public final class Universe {
     }
   }
 
+  public static void reportStatistics() {
+    if (VmSettings.PrintMethodCacheStats) {
+      MethodCache.reportStatistics();
+    }
+    if (VmSettings.ProfileBytecodes) {
+      BytecodeProfiler.reportStatistics();
+    }
+    if (VmSettings.PrintPolymorphismStats) {
+      PolymorphismStatistics.reportStatistics();
+    }
+  }
+
   public static Builder createContextBuilder() {
     Builder builder = Context.newBuilder(SomLanguage.LANG_ID)
                              .in(System.in)
@@ -399,7 +414,7 @@ public final class Universe {
 
     // Load the system class and create an instance of it
     systemClass = loadClass(symbolFor("System"));
-    systemObject = new SObject(systemClass);
+    systemObject = SObject.create(systemClass);
 
     // Put special objects into the dictionary of globals
     setGlobal("nil", nilObject);
@@ -5,7 +5,23 @@ public class VmSettings {
   public static final boolean UseAstInterp;
   public static final boolean UseBcInterp;
   public static final boolean UseJitCompiler;
+  public static final boolean UseFrameStack;
   public static final boolean PrintStackTraceOnDNU;
+  public static final boolean PrintMethodCacheStats;
+  public static final boolean ProfileBytecodes;
+  public static final boolean PrintPolymorphismStats;
+
+  /**
+   * Number of does not understand sends after which a (class, selector) pair is promoted to
+   * a forwarding method, or 0 to disable the promotion.
+   */
+  public static final int DnuPromotionThreshold;
+
+  /** Number of receiver classes cached at a call site before it becomes megamorphic. */
+  public static final int InlineCacheSize;
+
+  /** Number of receiver classes that frequently called, stable call sites may cache. */
+  public static final int MaxInlineCacheSize;
 
   public static final boolean UseInstrumentation;
 
@@ -22,11 +38,29 @@ public class VmSettings {
     val = System.getProperty("som.jitCompiler", "true");
     UseJitCompiler = "true".equals(val);
 
+    val = System.getProperty("som.bcFrameStack", "false");
+    UseFrameStack = UseBcInterp && "true".equals(val);
+
     val = System.getProperty("polyglot.nodestats", "false");
     String val2 = System.getProperty("polyglot.coverage", "false");
     UseInstrumentation = "true".equals(val) || "true".equals(val2);
 
     val = System.getProperty("som.printStackTraceOnDNU", "false");
     PrintStackTraceOnDNU = "true".equals(val);
+
+    val = System.getProperty("som.printMethodCacheStats", "false");
+    PrintMethodCacheStats = "true".equals(val);
+
+    val = System.getProperty("som.profileBytecodes", "false");
+    ProfileBytecodes = UseBcInterp && "true".equals(val);
+
+    val = System.getProperty("som.printPolymorphismStats", "false");
+    PrintPolymorphismStats = "true".equals(val);
+
+    DnuPromotionThreshold = Integer.parseInt(System.getProperty("som.promoteDnuAfter", "0"));
+
+    InlineCacheSize = Integer.parseInt(System.getProperty("som.inlineCacheSize", "6"));
+    MaxInlineCacheSize = Math.max(InlineCacheSize,
+        Integer.parseInt(System.getProperty("som.maxInlineCacheSize", "12")));
   }
 }
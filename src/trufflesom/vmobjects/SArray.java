@@ -27,6 +27,14 @@ public final class SArray extends SAbstractObject {
     return new SArray(values);
   }
 
+  public static SArray create(final int[] values) {
+    return new SArray(values);
+  }
+
+  public static SArray create(final byte[] values) {
+    return new SArray(values);
+  }
+
   public static SArray create(final double[] values) {
     return new SArray(values);
   }
@@ -39,6 +47,20 @@ public final class SArray extends SAbstractObject {
     return new SArray(length);
   }
 
+  /**
+   * Creates an array with the given partially empty storage, and normalizes it to the empty
+   * or a fully populated strategy if possible.
+   */
+  public static SArray create(final PartiallyEmptyArray values) {
+    if (values.isEmpty()) {
+      return new SArray(values.getLength());
+    }
+
+    SArray arr = new SArray(values);
+    arr.ifFullOrObjectTransitionPartiallyEmpty();
+    return arr;
+  }
+
   private Object storage;
 
   public int getEmptyStorage() {
@@ -61,6 +83,16 @@ public final class SArray extends SAbstractObject {
     return (long[]) storage;
   }
 
+  public int[] getIntStorage() {
+    assert isIntType();
+    return (int[]) storage;
+  }
+
+  public byte[] getByteStorage() {
+    assert isByteType();
+    return (byte[]) storage;
+  }
+
   public double[] getDoubleStorage() {
     assert isDoubleType();
     return (double[]) storage;
@@ -87,6 +119,14 @@ public final class SArray extends SAbstractObject {
     return storage.getClass() == long[].class;
   }
 
+  public boolean isIntType() {
+    return storage.getClass() == int[].class;
+  }
+
+  public boolean isByteType() {
+    return storage.getClass() == byte[].class;
+  }
+
   public boolean isDoubleType() {
     return storage.getClass() == double[].class;
   }
@@ -95,6 +135,93 @@ public final class SArray extends SAbstractObject {
     return storage.getClass() == boolean[].class;
   }
 
+  /**
+   * Checks whether the array still uses the given storage.
+   * Loops over the array use it to detect that the strategy changed
+   * while iterating.
+   */
+  public boolean hasStorage(final Object storage) {
+    return this.storage == storage;
+  }
+
+  /**
+   * Length of the array, independent of the strategy.
+   * Only to be used on slow paths, nodes specialize on the strategy instead.
+   */
+  public int getLength() {
+    if (isEmptyType()) {
+      return getEmptyStorage();
+    } else if (isPartiallyEmptyType()) {
+      return getPartiallyEmptyStorage().getLength();
+    } else if (isObjectType()) {
+      return getObjectStorage().length;
+    } else if (isLongType()) {
+      return getLongStorage().length;
+    } else if (isIntType()) {
+      return getIntStorage().length;
+    } else if (isByteType()) {
+      return getByteStorage().length;
+    } else if (isDoubleType()) {
+      return getDoubleStorage().length;
+    } else {
+      return getBooleanStorage().length;
+    }
+  }
+
+  /**
+   * Read the element at the zero-based index, independent of the strategy.
+   * Only to be used on slow paths, nodes specialize on the strategy instead.
+   */
+  public Object getValue(final long idx) {
+    if (isEmptyType()) {
+      return Nil.nilObject;
+    } else if (isPartiallyEmptyType()) {
+      return getPartiallyEmptyStorage().get(idx);
+    } else if (isObjectType()) {
+      return getObjectStorage()[(int) idx];
+    } else if (isLongType()) {
+      return getLongStorage()[(int) idx];
+    } else if (isIntType()) {
+      return (long) getIntStorage()[(int) idx];
+    } else if (isByteType()) {
+      return readByte(getByteStorage(), idx);
+    } else if (isDoubleType()) {
+      return getDoubleStorage()[(int) idx];
+    } else {
+      return getBooleanStorage()[(int) idx];
+    }
+  }
+
+  /**
+   * Copies the elements into a new Object[] of the given length, independent of the strategy.
+   * Elements beyond the length of this array are nil.
+   * Only to be used on slow paths, nodes specialize on the strategy instead.
+   */
+  public Object[] toObjectArray(final int newLength) {
+    Object[] result = new Object[newLength];
+    int length = Math.min(getLength(), newLength);
+    for (int i = 0; i < length; i++) {
+      result[i] = getValue(i);
+    }
+    Arrays.fill(result, length, newLength, Nil.nilObject);
+    return result;
+  }
+
+  /**
+   * Byte storage holds unsigned values, i.e., 0 to 255.
+   */
+  public static boolean fitsInByte(final long val) {
+    return 0 <= val && val <= 0xFF;
+  }
+
+  public static boolean fitsInInt(final long val) {
+    return Integer.MIN_VALUE <= val && val <= Integer.MAX_VALUE;
+  }
+
+  public static long readByte(final byte[] storage, final long idx) {
+    return Byte.toUnsignedLong(storage[(int) idx]);
+  }
+
   /**
    * Creates and empty array, using the EMPTY strategy.
    *
@@ -120,7 +247,7 @@ public final class SArray extends SAbstractObject {
    * Transition from the Empty, to the PartiallyEmpty state/strategy.
    */
   public void transitionFromEmptyToPartiallyEmptyWith(final long idx, final long val) {
-    fromEmptyToParticalWithType(PartiallyEmptyArray.Type.LONG, idx, val);
+    fromEmptyToParticalWithType(PartiallyEmptyArray.Type.forLong(val), idx, val);
   }
 
   public void transitionFromEmptyToPartiallyEmptyWith(final long idx, final double val) {
@@ -145,10 +272,24 @@ public final class SArray extends SAbstractObject {
     storage = arr;
   }
 
+  /**
+   * Fills the array with the given value, using the narrowest integer storage that can hold
+   * it.
+   */
   public void transitionToLongWithAll(final long length, final long val) {
-    long[] arr = new long[(int) length];
-    Arrays.fill(arr, val);
-    storage = arr;
+    if (fitsInByte(val)) {
+      byte[] arr = new byte[(int) length];
+      Arrays.fill(arr, (byte) val);
+      storage = arr;
+    } else if (fitsInInt(val)) {
+      int[] arr = new int[(int) length];
+      Arrays.fill(arr, (int) val);
+      storage = arr;
+    } else {
+      long[] arr = new long[(int) length];
+      Arrays.fill(arr, val);
+      storage = arr;
+    }
   }
 
   public void transitionToDoubleWithAll(final long length, final double val) {
@@ -173,6 +314,76 @@ public final class SArray extends SAbstractObject {
     return storage;
   }
 
+  private static int[] createInt(final Object[] arr) {
+    int[] storage = new int[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = (int) (long) arr[i];
+    }
+    return storage;
+  }
+
+  private static byte[] createByte(final Object[] arr) {
+    byte[] storage = new byte[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = (byte) (long) arr[i];
+    }
+    return storage;
+  }
+
+  /**
+   * Widens byte or int storage to long storage.
+   */
+  public static long[] toLong(final byte[] arr) {
+    long[] storage = new long[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = Byte.toUnsignedLong(arr[i]);
+    }
+    return storage;
+  }
+
+  public static long[] toLong(final int[] arr) {
+    long[] storage = new long[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = arr[i];
+    }
+    return storage;
+  }
+
+  public static int[] toInt(final byte[] arr) {
+    int[] storage = new int[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = Byte.toUnsignedInt(arr[i]);
+    }
+    return storage;
+  }
+
+  /**
+   * Narrows long storage to the smallest integer storage that can hold all its values.
+   */
+  public static Object narrow(final long[] arr) {
+    boolean allBytes = true;
+    for (long v : arr) {
+      if (!fitsInInt(v)) {
+        return arr;
+      }
+      allBytes = allBytes && fitsInByte(v);
+    }
+
+    if (allBytes) {
+      byte[] storage = new byte[arr.length];
+      for (int i = 0; i < arr.length; i++) {
+        storage[i] = (byte) arr[i];
+      }
+      return storage;
+    }
+
+    int[] storage = new int[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = (int) arr[i];
+    }
+    return storage;
+  }
+
   private static double[] createDouble(final Object[] arr) {
     double[] storage = new double[arr.length];
     for (int i = 0; i < arr.length; i++) {
@@ -200,6 +411,10 @@ public final class SArray extends SAbstractObject {
     if (arr.isFull()) {
       if (arr.type == PartiallyEmptyArray.Type.LONG) {
         storage = createLong(arr.getStorage());
+      } else if (arr.type == PartiallyEmptyArray.Type.INT) {
+        storage = createInt(arr.getStorage());
+      } else if (arr.type == PartiallyEmptyArray.Type.BYTE) {
+        storage = createByte(arr.getStorage());
       } else if (arr.type == PartiallyEmptyArray.Type.DOUBLE) {
         storage = createDouble(arr.getStorage());
       } else if (arr.type == PartiallyEmptyArray.Type.BOOLEAN) {
@@ -216,7 +431,45 @@ public final class SArray extends SAbstractObject {
     private Type           type;
 
     public enum Type {
-      EMPTY, PARTIAL_EMPTY, LONG, DOUBLE, BOOLEAN, OBJECT;
+      EMPTY, PARTIAL_EMPTY, BYTE, INT, LONG, DOUBLE, BOOLEAN, OBJECT;
+
+      public static Type of(final Object val) {
+        if (val instanceof Long) {
+          return forLong((long) val);
+        } else if (val instanceof Double) {
+          return DOUBLE;
+        } else if (val instanceof Boolean) {
+          return BOOLEAN;
+        }
+        return OBJECT;
+      }
+
+      public static Type forLong(final long val) {
+        if (fitsInByte(val)) {
+          return BYTE;
+        } else if (fitsInInt(val)) {
+          return INT;
+        }
+        return LONG;
+      }
+
+      public boolean isInteger() {
+        return this == BYTE || this == INT || this == LONG;
+      }
+
+      /**
+       * The type that can hold values of this and the other type.
+       * Integer types widen from BYTE to INT to LONG, all other mixes need OBJECT.
+       */
+      public Type generalize(final Type other) {
+        if (this == other) {
+          return this;
+        }
+        if (isInteger() && other.isInteger()) {
+          return ordinal() > other.ordinal() ? this : other;
+        }
+        return OBJECT;
+      }
     }
 
     public PartiallyEmptyArray(final Type type, final int length,
@@ -236,6 +489,13 @@ public final class SArray extends SAbstractObject {
       type = old.type;
     }
 
+    private PartiallyEmptyArray(final Object[] arr, final int emptyElements,
+        final Type type) {
+      this.arr = arr;
+      this.emptyElements = emptyElements;
+      this.type = type;
+    }
+
     public Type getType() {
       return type;
     }
@@ -272,9 +532,31 @@ public final class SArray extends SAbstractObject {
       return emptyElements == 0;
     }
 
+    public boolean isEmpty() {
+      return emptyElements == arr.length;
+    }
+
     public PartiallyEmptyArray copy() {
       return new PartiallyEmptyArray(this);
     }
+
+    /**
+     * Copies the elements from {@code from} (inclusive) to {@code to} (exclusive).
+     * Elements beyond the end of this array are nil.
+     */
+    public PartiallyEmptyArray copyOfRange(final int from, final int to) {
+      Object[] newArr = new Object[to - from];
+      int empty = 0;
+      for (int i = 0; i < newArr.length; i++) {
+        int j = from + i;
+        Object val = j < arr.length ? arr[j] : Nil.nilObject;
+        if (val == Nil.nilObject) {
+          empty++;
+        }
+        newArr[i] = val;
+      }
+      return new PartiallyEmptyArray(newArr, empty, type);
+    }
   }
 
   /**
@@ -27,10 +27,12 @@ package trufflesom.vmobjects;
 import static com.oracle.truffle.api.CompilerDirectives.transferToInterpreterAndInvalidate;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.WeakHashMap;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -40,19 +42,38 @@ import com.oracle.truffle.api.source.SourceSection;
 
 import trufflesom.compiler.Field;
 import trufflesom.interpreter.objectstorage.ObjectLayout;
+import trufflesom.vm.ClassHierarchyAnalysis;
 import trufflesom.vm.Classes;
+import trufflesom.vm.MethodCache;
 import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SObject.SObjectWith5Fields;
 
 
-public final class SClass extends SObject {
+public final class SClass extends SObjectWith5Fields {
 
   private SourceSection sourceSection;
   private boolean       hasPrimitives;
 
+  /**
+   * Result of the lookup along the superclass chain, indexed by
+   * {@link SSymbol#getSelectorId()}. It is filled on lookup, and grows to the largest
+   * selector id looked up, and dropped when this class or one of its superclasses changes.
+   */
+  private SInvokable[] dispatchTable;
+
+  /** Direct subclasses, whose dispatch tables are derived from the one of this class. */
+  private ArrayList<SClass> subclasses;
+
+  /**
+   * Number of sends that this class did not understand, per selector. Weakly keyed, so that
+   * selectors interned with {@link trufflesom.vm.SymbolTable#weakSymbolFor} can be collected.
+   */
+  private WeakHashMap<SSymbol, Integer> dnuCounts;
+
   public SClass(final int numberOfFields) {
     // Initialize this class by calling the super constructor with the given
     // value
-    super(numberOfFields);
+    super(null, new ObjectLayout(numberOfFields, null));
     invokablesTable = null;
     this.superclass = Nil.nilObject;
 
@@ -60,7 +81,7 @@ public final class SClass extends SObject {
   }
 
   public SClass(final SClass clazz) {
-    super(clazz);
+    super(clazz, clazz.getLayoutForInstances());
     invokablesTable = null;
     this.superclass = Nil.nilObject;
   }
@@ -68,6 +89,8 @@ public final class SClass extends SObject {
   public void resetSystemClass() {
     invokablesTable = null;
     superclass = Nil.nilObject;
+    subclasses = null;
+    dispatchTable = null;
     layoutForInstances = new ObjectLayout(0, this);
     setClass(new SClass(0));
     getSOMClass().setClass(Classes.metaclassClass);
@@ -76,6 +99,8 @@ public final class SClass extends SObject {
   public void resetMetaclassClass() {
     invokablesTable = null;
     superclass = Nil.nilObject;
+    subclasses = null;
+    dispatchTable = null;
     layoutForInstances = new ObjectLayout(0, this);
     setClass(new SClass(0));
     getSOMClass().setClass(this);
@@ -87,7 +112,17 @@ public final class SClass extends SObject {
 
   public void setSuperClass(final SClass value) {
     transferToInterpreterAndInvalidate();
+    if (superclass instanceof SClass && ((SClass) superclass).subclasses != null) {
+      ((SClass) superclass).subclasses.remove(this);
+    }
     superclass = value;
+    if (value != null) {
+      if (value.subclasses == null) {
+        value.subclasses = new ArrayList<>();
+      }
+      value.subclasses.add(this);
+    }
+    invalidateDispatchTables();
   }
 
   public boolean hasSuperClass() {
@@ -162,6 +197,7 @@ public final class SClass extends SObject {
     this.hasPrimitives = hasPrimitives;
 
     transferToInterpreterAndInvalidate();
+    invalidateDispatchTables();
     if (value == null || value.isEmpty()) {
       assert invokablesTable == null;
       return;
@@ -172,6 +208,7 @@ public final class SClass extends SObject {
     // Make sure this class is the holder of all invokables
     for (SInvokable i : invokablesTable.values()) {
       i.setHolder(this);
+      ClassHierarchyAnalysis.recordMethod(i);
     }
   }
 
@@ -190,32 +227,112 @@ public final class SClass extends SObject {
     return invokablesTable.values();
   }
 
-  @TruffleBoundary
+  /**
+   * Lookup the method for the selector in this class and its superclasses.
+   *
+   * @return the invokable, or {@code null} if the class does not understand the selector
+   */
   public SInvokable lookupInvokable(final SSymbol selector) {
-    SInvokable invokable;
-
-    if (invokablesTable != null) {
-      // Lookup invokable and return if found
-      invokable = invokablesTable.get(selector);
+    int id = selector.getSelectorId();
+    SInvokable[] table = dispatchTable;
+    if (table != null && 0 <= id && id < table.length) {
+      SInvokable invokable = table[id];
       if (invokable != null) {
         return invokable;
       }
     }
+    return lookupAndUpdateDispatchTable(selector);
+  }
 
-    // Traverse the super class chain by calling lookup on the super class
-    if (hasSuperClass()) {
-      invokable = ((SClass) superclass).lookupInvokable(selector);
-      if (invokable != null) {
-        if (invokablesTable == null) {
-          invokablesTable = new LinkedHashMap<>();
+  @TruffleBoundary
+  private SInvokable lookupAndUpdateDispatchTable(final SSymbol selector) {
+    SInvokable invokable = lookupInHierarchy(selector);
+    if (invokable == null) {
+      return null;
+    }
+
+    putInDispatchTable(selector, invokable);
+    return invokable;
+  }
+
+  /**
+   * Adds a method only to the dispatch table, but not to the methods of the class. It is
+   * dropped with the table when the class or one of its superclasses changes.
+   */
+  @TruffleBoundary
+  public void addToDispatchTable(final SSymbol selector, final SInvokable invokable) {
+    CompilerAsserts.neverPartOfCompilation("SClass.addToDispatchTable(..)");
+    putInDispatchTable(selector, invokable);
+  }
+
+  private void putInDispatchTable(final SSymbol selector, final SInvokable invokable) {
+    int id = selector.ensureSelectorId();
+    if (dispatchTable == null) {
+      dispatchTable = new SInvokable[id + 1];
+    } else if (id >= dispatchTable.length) {
+      dispatchTable = Arrays.copyOf(dispatchTable, Math.max(id + 1, dispatchTable.length * 2));
+    }
+    dispatchTable[id] = invokable;
+  }
+
+  /**
+   * @return the number of sends of the selector this class did not understand so far
+   */
+  @TruffleBoundary
+  public int incrementDnuCount(final SSymbol selector) {
+    if (dnuCounts == null) {
+      dnuCounts = new WeakHashMap<>();
+    }
+    return dnuCounts.merge(selector, 1, Integer::sum);
+  }
+
+  private SInvokable lookupInHierarchy(final SSymbol selector) {
+    SClass cls = this;
+    while (true) {
+      if (cls.invokablesTable != null) {
+        SInvokable invokable = cls.invokablesTable.get(selector);
+        if (invokable != null) {
+          return invokable;
         }
-        invokablesTable.put(selector, invokable);
-        return invokable;
       }
+
+      if (!cls.hasSuperClass()) {
+        // Invokable not found
+        return null;
+      }
+      cls = (SClass) cls.superclass;
     }
+  }
+
+  /**
+   * Needs to be called whenever the methods or the superclass of a class change. Drops the
+   * dispatch tables of the class and its subclasses, which are then refilled entry by entry
+   * on the next lookups.
+   */
+  private void invalidateDispatchTables() {
+    MethodCache.invalidate(this);
+    dropDispatchTables();
+  }
 
-    // Invokable not found
-    return null;
+  private void dropDispatchTables() {
+    dispatchTable = null;
+    if (subclasses != null) {
+      for (SClass subclass : subclasses) {
+        subclass.dropDispatchTables();
+      }
+    }
+  }
+
+  /** @return whether this class is the given class or one of its subclasses */
+  public boolean isKindOf(final SClass cls) {
+    Object current = this;
+    while (current instanceof SClass) {
+      if (current == cls) {
+        return true;
+      }
+      current = ((SClass) current).superclass;
+    }
+    return false;
   }
 
   public int lookupFieldIndex(final SSymbol fieldName) {
@@ -236,6 +353,8 @@ public final class SClass extends SObject {
 
     value.setHolder(this);
     invokablesTable.put(value.getSignature(), value);
+    ClassHierarchyAnalysis.recordMethod(value);
+    invalidateDispatchTables();
   }
 
   public SSymbol getInstanceFieldName(final int index) {
@@ -255,8 +374,19 @@ public final class SClass extends SObject {
   }
 
   public ObjectLayout updateInstanceLayoutWithInitializedField(final long index,
-      final Class<?> type) {
-    ObjectLayout updated = layoutForInstances.withInitializedField(index, type);
+      final Object value) {
+    ObjectLayout updated = layoutForInstances.withInitializedField(index, value);
+
+    if (updated != layoutForInstances) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      layoutForInstances = updated;
+    }
+    return layoutForInstances;
+  }
+
+  public ObjectLayout updateInstanceLayoutWithGeneralizedField(final long index,
+      final Object value) {
+    ObjectLayout updated = layoutForInstances.withGeneralizedField(index, value);
 
     if (updated != layoutForInstances) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -265,8 +395,8 @@ public final class SClass extends SObject {
     return layoutForInstances;
   }
 
-  public ObjectLayout updateInstanceLayoutWithGeneralizedField(final long index) {
-    ObjectLayout updated = layoutForInstances.withGeneralizedField(index);
+  public ObjectLayout updateInstanceLayoutWithIncrementedField(final long index) {
+    ObjectLayout updated = layoutForInstances.withIncrementedField(index);
 
     if (updated != layoutForInstances) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -39,24 +39,28 @@ import trufflesom.interpreter.objectstorage.StorageLocation.AbstractObjectStorag
 import trufflesom.vm.constants.Nil;
 
 
+/**
+ * An instance of a SOM class.
+ *
+ * <p>
+ * The fields of an object are stored directly in the Java object, and the ones that do not
+ * fit in extension arrays. For each number of fields up to {@link #NUM_PRIMITIVE_FIELDS},
+ * there is a subclass that has exactly as many primitive and object fields, so that small
+ * objects do not pay for unused fields. An instance is created with {@link #create}, which
+ * selects the subclass based on the number of fields of the layout. Since each subclass
+ * extends the one with one field less, a field has the same offset in all subclasses that
+ * have it, and storage locations do not depend on the subclass.
+ */
 public class SObject extends SAbstractObject {
 
   @CompilationFinal protected SClass clazz;
 
+  /** Maximal number of fields stored directly in an object, per kind of field. */
   public static final int NUM_PRIMITIVE_FIELDS = 5;
   public static final int NUM_OBJECT_FIELDS    = 5;
 
-  protected long primField1;
-  protected long primField2;
-  protected long primField3;
-  protected long primField4;
-  protected long primField5;
-
-  protected Object field1;
-  protected Object field2;
-  protected Object field3;
-  protected Object field4;
-  protected Object field5;
+  /** Maximal number of boolean fields packed into an int, further ones are objects. */
+  public static final int MAX_PACKED_BOOLEANS = 16;
 
   @CompilationFinal(dimensions = 0) protected long[]   extensionPrimFields;
   @CompilationFinal(dimensions = 0) protected Object[] extensionObjFields;
@@ -67,12 +71,16 @@ public class SObject extends SAbstractObject {
 
   private int primitiveUsedMap;
 
-  public SObject(final SClass instanceClass) {
-    clazz = instanceClass;
-    setLayoutInitially(instanceClass.getLayoutForInstances());
-  }
+  /** Two bits per boolean field, see {@link #MAX_PACKED_BOOLEANS}. */
+  private int packedBooleans;
+
+  /** Assigned on first use, 0 means not yet assigned. */
+  private int identityHash;
+
+  /** Source of identity hashes, races only lead to duplicate hashes. */
+  private static int lastIdentityHash;
 
-  public SObject(final SClass instanceClass, final ObjectLayout layout) {
+  protected SObject(final SClass instanceClass, final ObjectLayout layout) {
     clazz = instanceClass;
     setLayoutInitially(layout);
   }
@@ -82,7 +90,7 @@ public class SObject extends SAbstractObject {
   }
 
   private void setLayoutInitially(final ObjectLayout layout) {
-    field1 = field2 = field3 = field4 = field5 = Nil.nilObject;
+    resetFields();
 
     objectLayout = layout;
     // Can't check this cheaply
@@ -93,6 +101,28 @@ public class SObject extends SAbstractObject {
     extensionObjFields = getExtendedObjectStorage(layout);
   }
 
+  /**
+   * @return a hash that stays the same for the lifetime of the object, and can be read
+   *         without calling into the JVM
+   */
+  public final int getIdentityHash() {
+    int hash = identityHash;
+    if (hash == 0) {
+      hash = nextIdentityHash();
+      identityHash = hash;
+    }
+    return hash;
+  }
+
+  private static int nextIdentityHash() {
+    // spread consecutive values with the golden ratio, and skip 0
+    int hash;
+    do {
+      hash = lastIdentityHash += 0x9E3779B9;
+    } while (hash == 0);
+    return hash;
+  }
+
   public final int getNumberOfFields() {
     return objectLayout.getNumberOfFields();
   }
@@ -114,6 +144,7 @@ public class SObject extends SAbstractObject {
   public final void setClass(final SClass value) {
     transferToInterpreterAndInvalidate();
     assert value != null;
+    // only used for nil and classes, their Java classes have enough fields for the new class
 
     // Set the class of this object by writing to the field with class index
     clazz = value;
@@ -152,10 +183,17 @@ public class SObject extends SAbstractObject {
     return fieldValues;
   }
 
+  /**
+   * Sets the fields stored directly in the object to their initial values. Subclasses
+   * reset their own fields, and need to call this method.
+   */
+  protected void resetFields() {
+    // no fields stored directly in the object
+  }
+
   @ExplodeLoop
   private void setAllFields(final Object[] fieldValues) {
-    field1 = field2 = field3 = field4 = field5 = null;
-    primField1 = primField2 = primField3 = primField4 = primField5 = Long.MIN_VALUE;
+    resetFields();
 
     assert fieldValues.length == objectLayout.getNumberOfFields();
 
@@ -173,7 +211,7 @@ public class SObject extends SAbstractObject {
     assert layoutAtClass.getNumberOfFields() == objectLayout.getNumberOfFields();
 
     if (objectLayout != layoutAtClass) {
-      assert !objectLayout.isValid();
+      // the object's layout might still be valid, but it is not used for new objects anymore
       assert layoutAtClass.isValid();
       setLayoutAndTransferFields(layoutAtClass);
       return true;
@@ -190,6 +228,7 @@ public class SObject extends SAbstractObject {
     objectLayout = layout;
 
     primitiveUsedMap = 0;
+    packedBooleans = 0;
     extensionPrimFields = getExtendedPrimStorage(layout);
     extensionObjFields = getExtendedObjectStorage(layout);
 
@@ -197,8 +236,8 @@ public class SObject extends SAbstractObject {
   }
 
   protected final void updateLayoutWithInitializedField(final long index,
-      final Class<?> type) {
-    ObjectLayout layout = clazz.updateInstanceLayoutWithInitializedField(index, type);
+      final Object value) {
+    ObjectLayout layout = clazz.updateInstanceLayoutWithInitializedField(index, value);
 
     assert objectLayout != layout;
     assert layout.getNumberOfFields() == objectLayout.getNumberOfFields();
@@ -206,8 +245,9 @@ public class SObject extends SAbstractObject {
     setLayoutAndTransferFields(layout);
   }
 
-  protected final void updateLayoutWithGeneralizedField(final long index) {
-    ObjectLayout layout = clazz.updateInstanceLayoutWithGeneralizedField(index);
+  protected final void updateLayoutWithGeneralizedField(final long index,
+      final Object value) {
+    ObjectLayout layout = clazz.updateInstanceLayoutWithGeneralizedField(index, value);
 
     assert objectLayout != layout;
     assert layout.getNumberOfFields() == objectLayout.getNumberOfFields();
@@ -225,9 +265,44 @@ public class SObject extends SAbstractObject {
   }
 
   public static SObject create(final int numFields) {
+    assert numFields == 0 : "Objects with fields are created with a class";
     return new SObject(numFields);
   }
 
+  public static SObject create(final SClass instanceClass) {
+    return create(instanceClass, instanceClass.getLayoutForInstances());
+  }
+
+  /**
+   * Creates an instance of the subclass with as many fields stored directly in the object as
+   * the layout needs. In compiled code, the layout is usually a constant, and the selection
+   * folds away.
+   */
+  public static SObject create(final SClass instanceClass, final ObjectLayout layout) {
+    switch (getNumberOfDirectFields(layout)) {
+      case 0:
+        return new SObject(instanceClass, layout);
+      case 1:
+        return new SObjectWith1Field(instanceClass, layout);
+      case 2:
+        return new SObjectWith2Fields(instanceClass, layout);
+      case 3:
+        return new SObjectWith3Fields(instanceClass, layout);
+      case 4:
+        return new SObjectWith4Fields(instanceClass, layout);
+      default:
+        return new SObjectWith5Fields(instanceClass, layout);
+    }
+  }
+
+  /**
+   * @return the number of primitive fields, and of object fields, that are stored directly
+   *         in objects with the given layout
+   */
+  public static int getNumberOfDirectFields(final ObjectLayout layout) {
+    return Math.min(layout.getNumberOfFields(), NUM_PRIMITIVE_FIELDS);
+  }
+
   public static int getPrimitiveFieldMask(final int fieldIndex) {
     assert 0 <= fieldIndex && fieldIndex < 32; // this limits the number of object fields for
                                                // the moment...
@@ -242,6 +317,14 @@ public class SObject extends SAbstractObject {
     primitiveUsedMap |= mask;
   }
 
+  public final int getPackedBooleans() {
+    return packedBooleans;
+  }
+
+  public final void setPackedBooleans(final int bits) {
+    packedBooleans = bits;
+  }
+
   private StorageLocation getLocation(final long index) {
     StorageLocation location = objectLayout.getStorageLocation(index);
     assert location != null;
@@ -262,16 +345,26 @@ public class SObject extends SAbstractObject {
 
   public final void setUninitializedField(final long index, final Object value) {
     CompilerAsserts.neverPartOfCompilation("setUninitializedField");
-    updateLayoutWithInitializedField(index, value.getClass());
+    updateLayoutWithInitializedField(index, value);
     setFieldAfterLayoutChange(index, value);
   }
 
   public final void setFieldAndGeneralize(final long index, final Object value) {
     CompilerAsserts.neverPartOfCompilation("setFieldAndGeneralize");
-    updateLayoutWithGeneralizedField(index);
+    updateLayoutWithGeneralizedField(index, value);
     setFieldAfterLayoutChange(index, value);
   }
 
+  /** Sets a field that is incremented, which needs to be stored as long. */
+  public final void setIncrementedField(final long index, final long value) {
+    CompilerAsserts.neverPartOfCompilation("setIncrementedField");
+    ObjectLayout layout = clazz.updateInstanceLayoutWithIncrementedField(index);
+    if (layout != objectLayout) {
+      setLayoutAndTransferFields(layout);
+    }
+    setField(index, value);
+  }
+
   public final void setField(final long index, final Object value) {
     CompilerAsserts.neverPartOfCompilation("setField");
     StorageLocation location = getLocation(index);
@@ -298,4 +391,88 @@ public class SObject extends SAbstractObject {
     }
     return "a " + clazz.getName().getString();
   }
+
+  public static class SObjectWith1Field extends SObject {
+    protected long   primField1;
+    protected Object field1;
+
+    protected SObjectWith1Field(final SClass instanceClass, final ObjectLayout layout) {
+      super(instanceClass, layout);
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      primField1 = Long.MIN_VALUE;
+      field1 = Nil.nilObject;
+    }
+  }
+
+  public static class SObjectWith2Fields extends SObjectWith1Field {
+    protected long   primField2;
+    protected Object field2;
+
+    protected SObjectWith2Fields(final SClass instanceClass, final ObjectLayout layout) {
+      super(instanceClass, layout);
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      primField2 = Long.MIN_VALUE;
+      field2 = Nil.nilObject;
+    }
+  }
+
+  public static class SObjectWith3Fields extends SObjectWith2Fields {
+    protected long   primField3;
+    protected Object field3;
+
+    protected SObjectWith3Fields(final SClass instanceClass, final ObjectLayout layout) {
+      super(instanceClass, layout);
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      primField3 = Long.MIN_VALUE;
+      field3 = Nil.nilObject;
+    }
+  }
+
+  public static class SObjectWith4Fields extends SObjectWith3Fields {
+    protected long   primField4;
+    protected Object field4;
+
+    protected SObjectWith4Fields(final SClass instanceClass, final ObjectLayout layout) {
+      super(instanceClass, layout);
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      primField4 = Long.MIN_VALUE;
+      field4 = Nil.nilObject;
+    }
+  }
+
+  /**
+   * Has the maximal number of fields stored directly in the object. Further fields are stored
+   * in the extension arrays.
+   */
+  public static class SObjectWith5Fields extends SObjectWith4Fields {
+    protected long   primField5;
+    protected Object field5;
+
+    protected SObjectWith5Fields(final SClass instanceClass, final ObjectLayout layout) {
+      super(instanceClass, layout);
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      primField5 = Long.MIN_VALUE;
+      field5 = Nil.nilObject;
+    }
+  }
 }
@@ -0,0 +1,149 @@
+package trufflesom.vmobjects;
+
+import java.util.ArrayDeque;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+import trufflesom.vm.Classes;
+
+
+/**
+ * A string that is the result of a concatenation, represented as a tree of fragments.
+ *
+ * <p>
+ * Concatenation only allocates a new node, so that building a string in a loop is linear
+ * instead of quadratic. The fragments are {@link String}s or other ropes. A rope is
+ * flattened into a {@link String} on the first operation that needs random access to its
+ * characters, or its hash. The flattened string is cached, and the fragments are dropped.
+ *
+ * <p>
+ * Short results are not worth the indirection, and are concatenated directly.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class SRope extends SAbstractObject {
+  /** Results up to this length are concatenated into a flat {@link String}. */
+  private static final int MAX_FLAT_LENGTH = 64;
+
+  private final int length;
+
+  private Object left;
+  private Object right;
+  private String flattened;
+
+  private SRope(final Object left, final Object right, final int length) {
+    this.left = left;
+    this.right = right;
+    this.length = length;
+  }
+
+  /**
+   * Concatenates two fragments.
+   *
+   * @param left a {@link String} or {@link SRope}
+   * @param right a {@link String} or {@link SRope}
+   * @return a {@link String} for short results, an {@link SRope} otherwise
+   */
+  public static Object concat(final Object left, final Object right) {
+    Object l = unwrapFlattened(left);
+    Object r = unwrapFlattened(right);
+
+    int length = lengthOf(l) + lengthOf(r);
+    if (length <= MAX_FLAT_LENGTH) {
+      return concatFlat((String) l, (String) r);
+    }
+    return new SRope(l, r, length);
+  }
+
+  @TruffleBoundary
+  private static String concatFlat(final String left, final String right) {
+    return left.concat(right);
+  }
+
+  private static Object unwrapFlattened(final Object fragment) {
+    if (fragment instanceof SRope) {
+      SRope rope = (SRope) fragment;
+      if (rope.flattened != null) {
+        return rope.flattened;
+      }
+    }
+    return fragment;
+  }
+
+  private static int lengthOf(final Object fragment) {
+    if (fragment instanceof SRope) {
+      return ((SRope) fragment).length;
+    }
+    return ((String) fragment).length();
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public boolean isFlattened() {
+    return flattened != null;
+  }
+
+  /**
+   * @return the characters of the rope as a flat {@link String}
+   */
+  public String getString() {
+    if (flattened == null) {
+      flatten();
+    }
+    return flattened;
+  }
+
+  /**
+   * Appends the fragments from left to right. Uses an explicit stack, because ropes built in
+   * a loop are deep.
+   */
+  @TruffleBoundary
+  private void flatten() {
+    StringBuilder sb = new StringBuilder(length);
+    ArrayDeque<Object> todo = new ArrayDeque<>();
+    todo.push(this);
+
+    while (!todo.isEmpty()) {
+      Object fragment = todo.pop();
+      if (fragment instanceof String) {
+        sb.append((String) fragment);
+      } else {
+        SRope rope = (SRope) fragment;
+        if (rope.flattened != null) {
+          sb.append(rope.flattened);
+        } else {
+          todo.push(rope.right);
+          todo.push(rope.left);
+        }
+      }
+    }
+
+    flattened = sb.toString();
+    left = null;
+    right = null;
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return Classes.stringClass;
+  }
+
+  @ExportMessage
+  public boolean isString() {
+    return true;
+  }
+
+  @ExportMessage
+  public String asString() {
+    return getString();
+  }
+
+  @Override
+  public String toString() {
+    return getString();
+  }
+}
@@ -0,0 +1,62 @@
+package trufflesom.vmobjects;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+
+/**
+ * A mutable character buffer, i.e., the instances of the StringBuilder class and its
+ * subclasses.
+ *
+ * <p>
+ * It is backed by a {@link StringBuilder}, which stores Latin-1 text compactly as bytes.
+ * Instances have no storage for fields, and thus, subclasses cannot declare any.
+ */
+public final class SStringBuilder extends SAbstractObject {
+  private final SClass        clazz;
+  private final StringBuilder buffer;
+
+  public SStringBuilder(final SClass clazz) {
+    this.clazz = clazz;
+    this.buffer = createBuffer();
+  }
+
+  @TruffleBoundary
+  private static StringBuilder createBuffer() {
+    return new StringBuilder();
+  }
+
+  @TruffleBoundary
+  public void append(final String str) {
+    buffer.append(str);
+  }
+
+  @TruffleBoundary
+  public void append(final long value) {
+    buffer.append(value);
+  }
+
+  @TruffleBoundary
+  public void appendCodePoint(final int codePoint) {
+    buffer.appendCodePoint(codePoint);
+  }
+
+  @TruffleBoundary
+  public int getLength() {
+    return buffer.length();
+  }
+
+  @TruffleBoundary
+  public void reset() {
+    buffer.setLength(0);
+  }
+
+  @TruffleBoundary
+  public String getString() {
+    return buffer.toString();
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return clazz;
+  }
+}
@@ -25,16 +25,22 @@
 package trufflesom.vmobjects;
 
 import trufflesom.vm.Classes;
+import trufflesom.vm.SymbolTable;
 
 
 public final class SSymbol extends SAbstractObject {
   private final String string;
   private final int    numberOfSignatureArguments;
+  private final int    hash;
+
+  /** Index into the dispatch tables of classes, assigned on first lookup, or -1. */
+  private int selectorId = -1;
 
   public SSymbol(final String value) {
     super();
     string = value;
     numberOfSignatureArguments = determineNumberOfSignatureArguments();
+    hash = value.hashCode();
   }
 
   @Override
@@ -47,6 +53,30 @@ public final class SSymbol extends SAbstractObject {
     return string;
   }
 
+  /**
+   * @return the hash of the symbol's string, computed when the symbol is created
+   */
+  public int getHash() {
+    return hash;
+  }
+
+  /**
+   * @return the id of the symbol as a selector, or -1 if it was not yet used for a lookup
+   */
+  public int getSelectorId() {
+    return selectorId;
+  }
+
+  /**
+   * @return the id of the symbol as a selector, which is assigned if necessary
+   */
+  public int ensureSelectorId() {
+    if (selectorId == -1) {
+      selectorId = SymbolTable.nextSelectorId(this);
+    }
+    return selectorId;
+  }
+
   private int determineNumberOfSignatureArguments() {
     // Check for binary signature
     if (isBinarySignature()) {
@@ -4,11 +4,13 @@ import java.util.Arrays;
 
 import org.junit.Ignore;
 
+import trufflesom.interpreter.objectstorage.ObjectLayout;
 import trufflesom.interpreter.objectstorage.StorageAnalyzer;
 import trufflesom.interpreter.objectstorage.StorageLocation;
 import trufflesom.vm.Universe;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SObject.SObjectWith5Fields;
 
 
 @Ignore // Make sure JUnit doesn't fail, but ignores our custom test
@@ -16,10 +18,10 @@ public class BasicStorageTester {
 
   private static boolean someAssertionsFailed = false;
 
-  private static final class STestObject extends SObject {
+  private static final class STestObject extends SObjectWith5Fields {
 
     STestObject(final int numFields) {
-      super(numFields);
+      super(null, new ObjectLayout(numFields, null));
 
       this.extensionObjFields = new Object[numFields - SObject.NUM_OBJECT_FIELDS];
       this.extensionPrimFields = new long[numFields - SObject.NUM_PRIMITIVE_FIELDS];
@@ -46,6 +48,10 @@ public class BasicStorageTester {
     testExtLong(obj);
     testExtObject(obj);
 
+    testSharedInts(new STestObject(100), 3);
+    testSharedInts(new STestObject(100), 13);
+    testPackedBooleans(new STestObject(100));
+
     for (int i = 0; i < 100; i++) {
       SObject doubleObj = new STestObject(100);
       testDouble(doubleObj, i, i + 1111.11);
@@ -160,6 +166,41 @@ public class BasicStorageTester {
     assertIs(obj, value);
   }
 
+  private static void testSharedInts(final SObject obj, final int primField) {
+    StorageLocation low = StorageLocation.createForInt(20, primField, 0, 20);
+    StorageLocation high = StorageLocation.createForInt(21, primField, 1, 21);
+    assertIsInitiallyNil(obj, low);
+    assertIsInitiallyNil(obj, high);
+
+    low.write(obj, (long) Integer.MIN_VALUE);
+    assertIsInitiallyNil(obj, high);
+    high.write(obj, -1L);
+
+    assertEquals(Integer.MIN_VALUE, (long) low.read(obj));
+    assertEquals(-1L, (long) high.read(obj));
+    low.debugPrint(obj);
+  }
+
+  private static void testPackedBooleans(final SObject obj) {
+    StorageLocation first = StorageLocation.createForBoolean(30, 0);
+    StorageLocation last =
+        StorageLocation.createForBoolean(31, SObject.MAX_PACKED_BOOLEANS - 1);
+    assertIsInitiallyNil(obj, first);
+    assertIsInitiallyNil(obj, last);
+
+    first.write(obj, true);
+    assertIsInitiallyNil(obj, last);
+    last.write(obj, false);
+    assertIs(Boolean.TRUE, first.read(obj));
+    assertIs(Boolean.FALSE, last.read(obj));
+
+    first.write(obj, false);
+    last.write(obj, true);
+    assertIs(Boolean.FALSE, first.read(obj));
+    assertIs(Boolean.TRUE, last.read(obj));
+    last.debugPrint(obj);
+  }
+
   private static StorageLocation testDouble(final SObject obj, final int idx,
       final double value) {
     StorageLocation sl = StorageLocation.createForDouble(idx, idx);
@@ -0,0 +1,82 @@
+package trufflesom.intepreter.objectstorage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.api.nodes.Node;
+
+import trufflesom.interpreter.objectstorage.FieldAccessorNode;
+import trufflesom.interpreter.objectstorage.FieldAccessorNode.AbstractReadFieldNode;
+import trufflesom.interpreter.objectstorage.FieldAccessorNode.AbstractWriteFieldNode;
+import trufflesom.interpreter.objectstorage.FieldAccessorNode.GenericReadFieldNode;
+import trufflesom.interpreter.objectstorage.FieldAccessorNode.GenericWriteFieldNode;
+import trufflesom.interpreter.objectstorage.StorageAnalyzer;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SObject;
+
+
+public class FieldAccessorCacheTests {
+
+  private static final class ReadHolder extends Node {
+    @Child AbstractReadFieldNode read = FieldAccessorNode.createRead(0);
+  }
+
+  private static final class WriteHolder extends Node {
+    @Child AbstractWriteFieldNode write = FieldAccessorNode.createWrite(0);
+  }
+
+  @BeforeClass
+  public static void init() {
+    StorageAnalyzer.initAccessors();
+  }
+
+  /** Each class has its own layout, and thus needs its own cache entry. */
+  private static SObject objectOfNewClass(final long value) {
+    SObject obj = SObject.create(new SClass(1));
+    obj.setField(0, value);
+    return obj;
+  }
+
+  @Test
+  public void testReadCacheGoesGenericBeyondCacheSize() {
+    ReadHolder holder = new ReadHolder();
+    holder.adoptChildren();
+
+    for (int i = 0; i < FieldAccessorNode.INLINE_CACHE_SIZE; i++) {
+      assertEquals((long) i, holder.read.read(objectOfNewClass(i)));
+      assertFalse(holder.read instanceof GenericReadFieldNode);
+    }
+
+    SObject megamorphic = objectOfNewClass(42);
+    assertEquals(42L, holder.read.read(megamorphic));
+    assertTrue(holder.read instanceof GenericReadFieldNode);
+
+    assertEquals(42L, holder.read.read(megamorphic));
+    assertEquals(7L, holder.read.read(objectOfNewClass(7)));
+  }
+
+  @Test
+  public void testWriteCacheGoesGenericBeyondCacheSize() {
+    WriteHolder holder = new WriteHolder();
+    holder.adoptChildren();
+
+    for (int i = 0; i < FieldAccessorNode.INLINE_CACHE_SIZE; i++) {
+      SObject obj = objectOfNewClass(0);
+      holder.write.write(obj, (Object) (long) i);
+      assertEquals((long) i, obj.getField(0));
+      assertFalse(holder.write instanceof GenericWriteFieldNode);
+    }
+
+    SObject megamorphic = objectOfNewClass(0);
+    holder.write.write(megamorphic, (Object) 42L);
+    assertTrue(holder.write instanceof GenericWriteFieldNode);
+    assertEquals(42L, megamorphic.getField(0));
+
+    holder.write.write(megamorphic, (Object) "str");
+    assertEquals("str", megamorphic.getField(0));
+  }
+}
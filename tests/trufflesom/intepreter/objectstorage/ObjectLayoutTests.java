@@ -0,0 +1,143 @@
+package trufflesom.intepreter.objectstorage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.api.nodes.InvalidAssumptionException;
+
+import trufflesom.interpreter.objectstorage.ObjectLayout;
+import trufflesom.interpreter.objectstorage.StorageAnalyzer;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SObject;
+
+
+public class ObjectLayoutTests {
+
+  @BeforeClass
+  public static void init() {
+    StorageAnalyzer.initAccessors();
+  }
+
+  @Test
+  public void testInitializedFieldKeepsOlderLayoutValid() throws InvalidAssumptionException {
+    ObjectLayout first = new ObjectLayout(2, null);
+    ObjectLayout second = first.withInitializedField(0, 42L);
+
+    assertNotSame(first, second);
+    assertFalse(first.isLatest());
+    assertTrue(first.isValid());
+    first.checkIsValid();
+
+    assertTrue(second.isLatest());
+    assertTrue(second.isValid());
+  }
+
+  @Test
+  public void testInitializingWithSameTypeKeepsLayout() {
+    ObjectLayout layout = new ObjectLayout(2, null).withInitializedField(0, 42L);
+
+    assertSame(layout, layout.withInitializedField(0, 43L));
+    assertTrue(layout.isLatest());
+  }
+
+  @Test
+  public void testGeneralizedFieldDeprecatesLayoutChain() {
+    ObjectLayout first = new ObjectLayout(2, null);
+    ObjectLayout second = first.withInitializedField(0, 42L);
+    ObjectLayout third = second.withInitializedField(1, 4.2);
+    ObjectLayout generalized = third.withGeneralizedField(0, Long.MAX_VALUE);
+
+    assertFalse(first.isValid());
+    assertFalse(second.isValid());
+    assertFalse(third.isValid());
+    assertFalse(third.isLatest());
+
+    assertTrue(generalized.isValid());
+    assertTrue(generalized.isLatest());
+  }
+
+  @Test
+  public void testInitializingWithValueThatDoesNotFitDeprecatesLayouts() {
+    ObjectLayout first = new ObjectLayout(2, null);
+    ObjectLayout second = first.withInitializedField(0, 42L);
+    ObjectLayout third = second.withInitializedField(1, 4.2);
+    ObjectLayout generalized = third.withInitializedField(0, "str");
+
+    assertFalse(first.isValid());
+    assertFalse(second.isValid());
+    assertFalse(third.isValid());
+    assertTrue(generalized.isValid());
+  }
+
+  @Test(expected = InvalidAssumptionException.class)
+  public void testCheckIsValidFailsForDeprecatedLayout() throws InvalidAssumptionException {
+    ObjectLayout first = new ObjectLayout(1, null);
+    ObjectLayout second = first.withInitializedField(0, 42L);
+    second.withGeneralizedField(0, 4.2);
+
+    first.checkIsValid();
+  }
+
+  @Test
+  public void testIncrementedIntFieldBecomesLongField() {
+    ObjectLayout intLayout = new ObjectLayout(2, null).withInitializedField(0, 42L);
+    ObjectLayout longLayout = intLayout.withIncrementedField(0);
+
+    assertNotSame(intLayout, longLayout);
+    assertFalse(intLayout.isValid());
+    assertSame(longLayout, longLayout.withIncrementedField(0));
+    assertSame(longLayout, longLayout.withInitializedField(0, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testLargeLongGeneralizesIntField() {
+    SObject obj = SObject.create(new SClass(2));
+    obj.setField(0, 42L);
+    ObjectLayout intLayout = obj.getObjectLayout();
+
+    obj.setField(0, Long.MAX_VALUE);
+
+    assertFalse(intLayout.isValid());
+    assertTrue(obj.getObjectLayout().isValid());
+    assertEquals(Long.MAX_VALUE, obj.getField(0));
+  }
+
+  @Test
+  public void testGeneralizationKeepsSharedIntField() {
+    SObject obj = SObject.create(new SClass(3));
+    obj.setField(0, -1L);
+    obj.setField(1, 2L);
+    obj.setField(2, 3L);
+
+    obj.setField(1, Long.MIN_VALUE);
+
+    assertEquals(-1L, obj.getField(0));
+    assertEquals(Long.MIN_VALUE, obj.getField(1));
+    assertEquals(3L, obj.getField(2));
+  }
+
+  @Test
+  public void testIncrementedFieldIsStoredAsLong() {
+    SObject obj = SObject.create(new SClass(2));
+    obj.setField(0, 41L);
+    obj.setField(1, 7L);
+    ObjectLayout intLayout = obj.getObjectLayout();
+
+    obj.setIncrementedField(0, 42L);
+    ObjectLayout longLayout = obj.getObjectLayout();
+
+    assertFalse(intLayout.isValid());
+    assertEquals(42L, obj.getField(0));
+    assertEquals(7L, obj.getField(1));
+
+    obj.setField(0, Long.MAX_VALUE);
+    assertSame(longLayout, obj.getObjectLayout());
+    assertEquals(Long.MAX_VALUE, obj.getField(0));
+  }
+}
@@ -0,0 +1,201 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SInvokable.SMethod;
+
+
+public class ArrayLoopPrimsTests extends AstTestSetup {
+
+  @BeforeClass
+  public static void init() {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private Object call(final String source, final SArray arr) {
+    SMethod method = assembleLastMethod(parseMethod(source));
+    return method.getInvokable().getCallTarget().call(Nil.nilObject, arr);
+  }
+
+  private static Object[] elements(final Object arr) {
+    SArray result = (SArray) arr;
+    Object[] elements = new Object[result.getLength()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = result.getValue(i);
+    }
+    return elements;
+  }
+
+  @Test
+  public void testCollectObjectArray() {
+    Object result = call("test: arr = ( ^ arr collect: [:e | e , 'x'] )",
+        SArray.create(new Object[] {"a", "b"}));
+    assertArrayEquals(new Object[] {"ax", "bx"}, elements(result));
+  }
+
+  @Test
+  public void testCollectLongArray() {
+    Object result = call("test: arr = ( ^ arr collect: [:e | e * 2] )",
+        SArray.create(new long[] {1, 2, 3}));
+    assertArrayEquals(new Object[] {2L, 4L, 6L}, elements(result));
+  }
+
+  @Test
+  public void testCollectDoubleArray() {
+    Object result = call("test: arr = ( ^ arr collect: [:e | e * 2] )",
+        SArray.create(new double[] {1.5, 2.5}));
+    assertArrayEquals(new Object[] {3.0, 5.0}, elements(result));
+  }
+
+  @Test
+  public void testCollectIntArray() {
+    Object result = call("test: arr = ( ^ arr collect: [:e | e * 2] )",
+        SArray.create(new int[] {1, 2, 3}));
+    assertArrayEquals(new Object[] {2L, 4L, 6L}, elements(result));
+  }
+
+  @Test
+  public void testCollectEmptyArray() {
+    Object result = call("test: arr = ( ^ arr collect: [:e | e isNil] )", new SArray(2));
+    assertArrayEquals(new Object[] {true, true}, elements(result));
+  }
+
+  @Test
+  public void testCollectPartiallyEmptyArray() {
+    Object result = call("test: arr = ( arr at: 2 put: 'b'. ^ arr collect: [:e | e] )",
+        new SArray(3));
+    assertArrayEquals(new Object[] {Nil.nilObject, "b", Nil.nilObject}, elements(result));
+  }
+
+  @Test
+  public void testCollectBooleanArray() {
+    Object result = call("test: arr = ( ^ arr collect: [:e | e not] )",
+        SArray.create(new boolean[] {true, false}));
+    assertArrayEquals(new Object[] {false, true}, elements(result));
+  }
+
+  @Test
+  public void testCollectWithStorageChange() {
+    Object result = call("test: arr = ( ^ arr collect: [:e | arr at: 3 put: 1.5. e] )",
+        SArray.create(new long[] {1, 2, 3}));
+    assertArrayEquals(new Object[] {1L, 2L, 1.5}, elements(result));
+  }
+
+  @Test
+  public void testInjectIntoLongArray() {
+    Object result = call("test: arr = ( ^ arr inject: 0 into: [:acc :e | acc + e] )",
+        SArray.create(new long[] {1, 2, 3}));
+    assertEquals(6L, result);
+  }
+
+  @Test
+  public void testInjectIntoDoubleArray() {
+    Object result = call("test: arr = ( ^ arr inject: 0.5 into: [:acc :e | acc + e] )",
+        SArray.create(new double[] {1.5, 2.5}));
+    assertEquals(4.5, result);
+  }
+
+  @Test
+  public void testInjectIntoByteArray() {
+    Object result = call("test: arr = ( ^ arr inject: 0 into: [:acc :e | acc + e] )",
+        SArray.create(new byte[] {1, (byte) 200}));
+    assertEquals(201L, result);
+  }
+
+  @Test
+  public void testInjectIntoEmptyArray() {
+    Object result = call("""
+        test: arr = (
+          ^ arr inject: 0 into: [:acc :e | e isNil ifTrue: [acc + 1] ifFalse: [acc]] )
+        """, new SArray(3));
+    assertEquals(3L, result);
+  }
+
+  @Test
+  public void testInjectIntoObjectArray() {
+    Object result = call("test: arr = ( ^ arr inject: '' into: [:acc :e | acc , e] )",
+        SArray.create(new Object[] {"a", "b", "c"}));
+    assertEquals("abc", result);
+  }
+
+  @Test
+  public void testInjectIntoWithStorageChange() {
+    Object result = call("""
+        test: arr = (
+          ^ arr inject: 0 into: [:acc :e | arr at: 3 put: 10.5. acc + e ] )
+        """, SArray.create(new long[] {1, 2, 3}));
+    assertEquals(13.5, result);
+  }
+
+  @Test
+  public void testKeysAndValuesDoLongArray() {
+    SArray arr = SArray.create(new long[] {1, 2, 3});
+    Object result = call("""
+        test: arr = (
+          | sum |
+          sum := 0.
+          arr keysAndValuesDo: [:i :e | sum := sum + (i * e) ].
+          ^ sum )
+        """, arr);
+    assertEquals(14L, result);
+  }
+
+  @Test
+  public void testKeysAndValuesDoIntArray() {
+    Object result = call("""
+        test: arr = (
+          | sum |
+          sum := 0.
+          arr keysAndValuesDo: [:i :e | sum := sum + (i * e) ].
+          ^ sum )
+        """, SArray.create(new int[] {4, 5}));
+    assertEquals(14L, result);
+  }
+
+  @Test
+  public void testKeysAndValuesDoWithStorageChangeFromEmpty() {
+    Object result = call("""
+        test: arr = (
+          | count |
+          count := 0.
+          arr keysAndValuesDo: [:i :e | arr at: 3 put: 7. count := count + i ].
+          ^ count + (arr at: 3) )
+        """, new SArray(3));
+    assertEquals(13L, result);
+  }
+
+  @Test
+  public void testKeysAndValuesDoReturnsReceiver() {
+    SArray arr = SArray.create(new double[] {1.5});
+    assertSame(arr, call("test: arr = ( ^ arr keysAndValuesDo: [:i :e | e ] )", arr));
+  }
+
+  @Test
+  public void testKeysAndValuesDoWithStorageChange() {
+    Object result = call("""
+        test: arr = (
+          | sum |
+          sum := 0.
+          arr keysAndValuesDo: [:i :e | arr at: 3 put: 0.5. sum := sum + e ].
+          ^ sum )
+        """, SArray.create(new long[] {1, 2, 3}));
+    assertEquals(3.5, result);
+  }
+}
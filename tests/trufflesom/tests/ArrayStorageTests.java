@@ -0,0 +1,171 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SInvokable.SMethod;
+
+
+/**
+ * Integer arrays use the narrowest of the byte, int, and long strategies that holds all
+ * their values. Byte storage is unsigned.
+ */
+public class ArrayStorageTests extends AstTestSetup {
+
+  @BeforeClass
+  public static void init() {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private Object call(final String source, final SArray arr, final Object arg) {
+    SMethod method = assembleLastMethod(parseMethod(source));
+    return method.getInvokable().getCallTarget().call(Nil.nilObject, arr, arg);
+  }
+
+  private SArray putAll(final int length, final long value) {
+    SArray arr = new SArray(length);
+    call("test: arr with: val = ( ^ arr putAll: val )", arr, value);
+    return arr;
+  }
+
+  private SArray atPut(final SArray arr, final long index, final Object value) {
+    assertEquals(value,
+        call("test: arr with: val = ( ^ arr at: " + index + " put: val )", arr, value));
+    return arr;
+  }
+
+  private static Object[] elements(final SArray arr) {
+    Object[] elements = new Object[arr.getLength()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = arr.getValue(i);
+    }
+    return elements;
+  }
+
+  @Test
+  public void testPutAllSelectsNarrowestStrategy() {
+    assertTrue(putAll(3, 0).isByteType());
+    assertTrue(putAll(3, 255).isByteType());
+    assertTrue(putAll(3, 256).isIntType());
+    assertTrue(putAll(3, -1).isIntType());
+    assertTrue(putAll(3, Integer.MIN_VALUE).isIntType());
+    assertTrue(putAll(3, Integer.MAX_VALUE).isIntType());
+    assertTrue(putAll(3, Integer.MAX_VALUE + 1L).isLongType());
+    assertTrue(putAll(3, Integer.MIN_VALUE - 1L).isLongType());
+  }
+
+  @Test
+  public void testPutAllWithBlockSelectsNarrowestStrategy() {
+    String source = "test: arr with: val = ( | i | i := 0. "
+        + "^ arr putAll: [ i := i + 1. i * val ] )";
+
+    SArray bytes = new SArray(3);
+    call(source, bytes, 85L);
+    assertTrue(bytes.isByteType());
+    assertArrayEquals(new Object[] {85L, 170L, 255L}, elements(bytes));
+
+    SArray ints = new SArray(3);
+    call(source, ints, 86L);
+    assertTrue(ints.isIntType());
+    assertArrayEquals(new Object[] {86L, 172L, 258L}, elements(ints));
+
+    SArray longs = new SArray(3);
+    call(source, longs, 1L << 31);
+    assertTrue(longs.isLongType());
+    assertArrayEquals(new Object[] {1L << 31, 2L << 31, 3L << 31}, elements(longs));
+  }
+
+  @Test
+  public void testAtPutOnEmptyArraySelectsNarrowestStrategy() {
+    SArray bytes = atPut(atPut(new SArray(2), 1, 200L), 2, 7L);
+    assertTrue(bytes.isByteType());
+
+    SArray ints = atPut(atPut(new SArray(2), 1, 200L), 2, -7L);
+    assertTrue(ints.isIntType());
+    assertArrayEquals(new Object[] {200L, -7L}, elements(ints));
+
+    SArray longs = atPut(atPut(new SArray(2), 1, 200L), 2, 1L << 40);
+    assertTrue(longs.isLongType());
+    assertArrayEquals(new Object[] {200L, 1L << 40}, elements(longs));
+  }
+
+  @Test
+  public void testUnsignedByteRoundTrip() {
+    SArray arr = putAll(256, 0);
+    assertTrue(arr.isByteType());
+
+    for (long i = 0; i < 256; i++) {
+      atPut(arr, i + 1, 255 - i);
+    }
+    assertTrue(arr.isByteType());
+
+    for (long i = 0; i < 256; i++) {
+      assertEquals(255 - i, call("test: arr with: i = ( ^ arr at: i )", arr, i + 1));
+      assertEquals(255 - i, arr.getValue(i));
+    }
+  }
+
+  @Test
+  public void testByteTransitionsToInt() {
+    SArray arr = atPut(putAll(3, 200), 2, 256L);
+    assertTrue(arr.isIntType());
+    assertArrayEquals(new Object[] {200L, 256L, 200L}, elements(arr));
+
+    arr = atPut(putAll(3, 128), 3, -1L);
+    assertTrue(arr.isIntType());
+    assertArrayEquals(new Object[] {128L, 128L, -1L}, elements(arr));
+  }
+
+  @Test
+  public void testByteTransitionsToLong() {
+    SArray arr = atPut(putAll(3, 255), 1, 1L << 40);
+    assertTrue(arr.isLongType());
+    assertArrayEquals(new Object[] {1L << 40, 255L, 255L}, elements(arr));
+  }
+
+  @Test
+  public void testByteTransitionsToObject() {
+    SArray arr = atPut(putAll(2, 129), 2, "x");
+    assertTrue(arr.isObjectType());
+    assertArrayEquals(new Object[] {129L, "x"}, elements(arr));
+  }
+
+  @Test
+  public void testIntTransitionsToLong() {
+    SArray arr = atPut(putAll(3, -5), 2, Long.MAX_VALUE);
+    assertTrue(arr.isLongType());
+    assertArrayEquals(new Object[] {-5L, Long.MAX_VALUE, -5L}, elements(arr));
+  }
+
+  @Test
+  public void testIntTransitionsToObject() {
+    SArray arr = atPut(putAll(2, 70000), 1, 1.5);
+    assertTrue(arr.isObjectType());
+    assertArrayEquals(new Object[] {1.5, 70000L}, elements(arr));
+  }
+
+  @Test
+  public void testIntStaysIntForValuesInRange() {
+    SArray arr = putAll(2, 1000);
+    atPut(arr, 1, (long) Integer.MIN_VALUE);
+    atPut(arr, 2, 200L);
+    assertTrue(arr.isIntType());
+    assertArrayEquals(new Object[] {(long) Integer.MIN_VALUE, 200L}, elements(arr));
+  }
+}
@@ -24,6 +24,7 @@ import trufflesom.interpreter.nodes.NonLocalVariableNode.NonLocalVariableWriteNo
 import trufflesom.interpreter.nodes.ReturnNonLocalNode.ReturnLocalNode;
 import trufflesom.interpreter.nodes.SequenceNode;
 import trufflesom.interpreter.nodes.literals.BlockNode;
+import trufflesom.interpreter.nodes.literals.BlockNode.BlockNodeWithArgumentContext;
 import trufflesom.interpreter.nodes.literals.BlockNode.BlockNodeWithContext;
 import trufflesom.interpreter.nodes.literals.DoubleLiteralNode;
 import trufflesom.interpreter.nodes.literals.GenericLiteralNode;
@@ -119,6 +120,40 @@ public class AstInliningTests extends AstTestSetup {
 
   }
 
+  @Test
+  public void testBlockCapturesOnlyOuterArguments() {
+    SequenceNode seq = (SequenceNode) parseMethod(
+        "test: arg = ( | l |\n"
+            + "[ self ].\n"
+            + "[ arg ].\n"
+            + "[ l ].\n"
+            + "[ ^ arg ].\n"
+            + "[:a | [ a ] ] )");
+
+    assertEquals(BlockNodeWithArgumentContext.class,
+        read(seq, "expressions", 0).getClass());
+    assertEquals(BlockNodeWithArgumentContext.class,
+        read(seq, "expressions", 1).getClass());
+    assertEquals(BlockNodeWithContext.class, read(seq, "expressions", 2).getClass());
+    assertEquals(BlockNodeWithContext.class, read(seq, "expressions", 3).getClass());
+
+    BlockNode blockA = (BlockNode) read(seq, "expressions", 4);
+    assertEquals(BlockNode.class, blockA.getClass());
+    assertEquals(BlockNodeWithArgumentContext.class,
+        read(blockA.getMethod().getInvokable(), "body").getClass());
+  }
+
+  @Test
+  public void testBlockNeedsFullContextAfterInliningOuterBlock() {
+    SequenceNode seq = (SequenceNode) parseMethod(
+        "test = ( 1 to: 2 do: [:i | [ i ] ] )");
+
+    IntToDoInlinedLiteralsNode toDo =
+        (IntToDoInlinedLiteralsNode) read(seq, "expressions", 0);
+    BlockNode block = read(toDo, "body", BlockNode.class);
+    assertEquals(BlockNodeWithContext.class, block.getClass());
+  }
+
   private void ifArg(final String ifSelector, final boolean expected) {
     SequenceNode seq = (SequenceNode) parseMethod(
         "test: arg = (\n"
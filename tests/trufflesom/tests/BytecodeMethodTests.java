@@ -369,7 +369,7 @@ public class BytecodeMethodTests extends BytecodeTestSetup {
         new BC(Bytecodes.JUMP_ON_TRUE_TOP_NIL, 8),
         Bytecodes.PUSH_FIELD_0,
         Bytecodes.PUSH_ARG1,
-        Bytecodes.SEND,
+        Bytecodes.SUB,
         Bytecodes.RETURN_LOCAL,
         Bytecodes.RETURN_SELF);
   }
@@ -744,6 +744,89 @@ public class BytecodeMethodTests extends BytecodeTestSetup {
     whileInlining("whileFalse:", Bytecodes.JUMP_ON_TRUE_POP);
   }
 
+  @Test
+  public void testPushLocalConstantSend() {
+    byte[] bytecodes = methodToBytecodes("test = ( | l | ^ l < 10 )");
+
+    assertEquals(5, bytecodes.length);
+    check(bytecodes,
+        new BC(Bytecodes.PUSH_LOCAL_CONSTANT_SEND, 0, 0),
+        Bytecodes.RETURN_LOCAL);
+  }
+
+  @Test
+  public void testPushArgFieldSend() {
+    addField("field");
+    byte[] bytecodes = methodToBytecodes("test: arg = ( ^ arg = field )");
+
+    assertEquals(5, bytecodes.length);
+    check(bytecodes,
+        new BC(Bytecodes.PUSH_ARG_FIELD_SEND, 1, 0),
+        Bytecodes.RETURN_LOCAL);
+  }
+
+  private void sendJumpOnFalsePopInWhileLoop(final String selector) {
+    byte[] bytecodes = methodToBytecodes(
+        "test: a with: b = (\n"
+            + "  [ a " + selector + " b ] whileTrue: [ a ]\n"
+            + ")");
+
+    check(bytecodes,
+        Bytecodes.PUSH_ARG1,
+        Bytecodes.PUSH_ARG2,
+        new BC(Bytecodes.SEND_JUMP_ON_FALSE_POP, 9, 0),
+        Bytecodes.PUSH_ARG1,
+        Bytecodes.POP,
+        new BC(Bytecodes.JUMP_BACKWARDS, 8),
+        Bytecodes.PUSH_NIL);
+  }
+
+  @Test
+  public void testSendJumpOnFalsePopInWhileLoop() {
+    sendJumpOnFalsePopInWhileLoop("<");
+    sendJumpOnFalsePopInWhileLoop("<=");
+    sendJumpOnFalsePopInWhileLoop(">");
+    sendJumpOnFalsePopInWhileLoop("=");
+    sendJumpOnFalsePopInWhileLoop(">=");
+  }
+
+  private void binaryOperationBytecode(final String selector, final byte bytecode) {
+    byte[] bytecodes = methodToBytecodes("test: a with: b = ( ^ a " + selector + " b )");
+
+    assertEquals(5, bytecodes.length);
+    check(bytecodes,
+        Bytecodes.PUSH_ARG1,
+        Bytecodes.PUSH_ARG2,
+        new BC(bytecode, 0),
+        Bytecodes.RETURN_LOCAL);
+  }
+
+  @Test
+  public void testBinaryOperationBytecodes() {
+    binaryOperationBytecode("+", Bytecodes.ADD);
+    binaryOperationBytecode("-", Bytecodes.SUB);
+    binaryOperationBytecode("<", Bytecodes.LT);
+    binaryOperationBytecode("<=", Bytecodes.LTE);
+    binaryOperationBytecode(">", Bytecodes.GT);
+    binaryOperationBytecode("=", Bytecodes.EQ);
+    binaryOperationBytecode(">=", Bytecodes.SEND);
+  }
+
+  @Test
+  public void testArrayAccessBytecodes() {
+    byte[] bytecodes = methodToBytecodes("test: arr with: i = ( ^ arr at: i put: (arr at: i) )");
+
+    assertEquals(9, bytecodes.length);
+    check(bytecodes,
+        Bytecodes.PUSH_ARG1,
+        Bytecodes.PUSH_ARG2,
+        Bytecodes.PUSH_ARG1,
+        Bytecodes.PUSH_ARG2,
+        new BC(Bytecodes.AT, 0),
+        new BC(Bytecodes.AT_PUT, 1),
+        Bytecodes.RETURN_LOCAL);
+  }
+
   @Test
   public void testInliningWhileLoopWithExpandingBranches() {
     byte[] bytecodes = methodToBytecodes(
@@ -0,0 +1,91 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.vm.NotYetImplementedException;
+import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SObject;
+
+
+/**
+ * Executes {@code + 1} and {@code - 1}, which the bytecode compiler turns into the INC and
+ * DEC bytecodes. The class is compiled for the interpreter selected with
+ * {@code -Dsom.interp}, and for the bytecode interpreter, with the operand stack selected
+ * with {@code -Dsom.bcFrameStack}.
+ */
+public class IncDecTests extends TruffleTestSetup {
+
+  private static SClass  cls;
+  private static SObject rcvr;
+
+  @BeforeClass
+  public static void init() throws IOException {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+
+    cls = Universe.loadShellClass("""
+        IncDecTest = (
+          inc: a = ( ^ a + 1 )
+          dec: a = ( ^ a - 1 )
+        )
+        """);
+    rcvr = SObject.create(cls);
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private static Object send(final String selector, final Object arg) {
+    return cls.lookupInvokable(symbolFor(selector)).getCallTarget().call(rcvr, arg);
+  }
+
+  @Test
+  public void testIncAndDec() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(42L, send("inc:", 41L));
+      assertEquals(40L, send("dec:", 41L));
+      assertEquals(1.5, send("dec:", 2.5));
+    }
+  }
+
+  private static void assertOverflows(final String selector, final long arg,
+      final BigInteger expected) {
+    try {
+      Object result = send(selector, arg);
+      if (VmSettings.UseBcInterp) {
+        fail(selector + " " + arg + " should not wrap around, but answered " + result);
+      }
+      assertEquals(expected, result);
+    } catch (NotYetImplementedException e) {
+      // the bytecode interpreter does not yet overflow into big integers
+      assertEquals(true, VmSettings.UseBcInterp);
+    }
+  }
+
+  @Test
+  public void testIncOverflow() {
+    assertOverflows("inc:", Long.MAX_VALUE,
+        BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+  }
+
+  @Test
+  public void testDecOverflow() {
+    assertOverflows("dec:", Long.MIN_VALUE,
+        BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE));
+  }
+}
@@ -0,0 +1,90 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.io.IOException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.vm.MethodCache;
+import trufflesom.vm.Universe;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SSymbol;
+
+
+public class MethodCacheTests extends AstTestSetup {
+
+  @BeforeClass
+  public static void init() {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  @Test
+  public void testRepeatedLookupHits() throws IOException {
+    SClass cls = Universe.loadShellClass("MethodCacheHit = ( foo = ( ^ 1 ) )");
+    SSymbol foo = symbolFor("foo");
+    MethodCache.reset();
+
+    SInvokable first = MethodCache.lookup(cls, foo);
+    assertSame(first, MethodCache.lookup(cls, foo));
+
+    assertEquals(1, MethodCache.getMisses());
+    assertEquals(1, MethodCache.getHits());
+  }
+
+  @Test
+  public void testUnknownSelectorIsNotCached() throws IOException {
+    SClass cls = Universe.loadShellClass("MethodCacheDnu = ( )");
+    SSymbol bar = symbolFor("methodCacheUnknownSelector");
+    MethodCache.reset();
+
+    assertNull(MethodCache.lookup(cls, bar));
+    assertNull(MethodCache.lookup(cls, bar));
+    assertEquals(2, MethodCache.getMisses());
+  }
+
+  @Test
+  public void testChangingSuperclassDropsSubclassEntries() throws IOException {
+    SClass sup = Universe.loadShellClass("MethodCacheSuper = ( foo = ( ^ 1 ) )");
+    SClass sub = Universe.loadShellClass("MethodCacheSub = ( )");
+    sub.setSuperClass(sup);
+    SClass replacement = Universe.loadShellClass("MethodCacheSuper2 = ( foo = ( ^ 3 ) )");
+    SSymbol foo = symbolFor("foo");
+    MethodCache.reset();
+
+    assertSame(sup.lookupInvokable(foo), MethodCache.lookup(sub, foo));
+    sub.setSuperClass(replacement);
+
+    assertSame(replacement.lookupInvokable(foo), MethodCache.lookup(sub, foo));
+    assertEquals(2, MethodCache.getMisses());
+  }
+
+  @Test
+  public void testChangingOtherClassKeepsEntries() throws IOException {
+    SClass cls = Universe.loadShellClass("MethodCacheKept = ( foo = ( ^ 2 ) )");
+    SClass changed = Universe.loadShellClass("MethodCacheChanged = ( )");
+    SSymbol foo = symbolFor("foo");
+    MethodCache.reset();
+
+    MethodCache.lookup(cls, foo);
+    changed.setSuperClass(cls);
+    MethodCache.lookup(cls, foo);
+
+    assertEquals(1, MethodCache.getMisses());
+    assertEquals(1, MethodCache.getHits());
+  }
+}
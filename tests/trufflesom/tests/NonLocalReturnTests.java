@@ -0,0 +1,108 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertEquals;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.io.IOException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.vm.Universe;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SObject;
+
+
+/**
+ * Non-local returns throw the {@link trufflesom.interpreter.FrameOnStackMarker} of the
+ * target frame. The class is compiled for the interpreter selected with
+ * {@code -Dsom.interp}.
+ */
+public class NonLocalReturnTests extends TruffleTestSetup {
+
+  private static SClass  cls;
+  private static SObject rcvr;
+
+  @BeforeClass
+  public static void init() throws IOException {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+
+    cls = Universe.loadShellClass("""
+        NonLocalReturnTest = (
+          find: arr = (
+            arr do: [:e | e > 2 ifTrue: [ ^ e ] ].
+            ^ nil )
+
+          callBlock: block = ( block value. ^ 1 )
+          throughCall = ( self callBlock: [ ^ 42 ]. ^ 0 )
+
+          rec: n outer: block = (
+            n = 0 ifTrue: [ block value. ^ -1 ].
+            ^ (self rec: n - 1 outer: [ ^ n ]) + 100 )
+          recursion = ( ^ self rec: 2 outer: [ 0 ] )
+
+          makeBlock = ( ^ [ ^ 1 ] )
+          escaped = ( ^ self makeBlock value )
+          escapedBlock: block = ( ^ #escaped )
+
+          noReturn: flag = (
+            flag ifTrue: [ ^ #returned ].
+            ^ #fallThrough )
+        )
+        """);
+    rcvr = SObject.create(cls);
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private static Object send(final String selector, final Object... args) {
+    Object[] arguments = new Object[args.length + 1];
+    arguments[0] = rcvr;
+    System.arraycopy(args, 0, arguments, 1, args.length);
+    return cls.lookupInvokable(symbolFor(selector)).getCallTarget().call(arguments);
+  }
+
+  @Test
+  public void testReturnFromLoop() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(3L, send("find:", SArray.create(new long[] {1, 3, 5})));
+    }
+  }
+
+  @Test
+  public void testReturnThroughCall() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(42L, send("throughCall"));
+    }
+  }
+
+  @Test
+  public void testReturnTargetsItsOwnActivation() {
+    // the block of rec: 1 returns 1 to that activation, and rec: 2 adds 100
+    for (int i = 0; i < 3; i++) {
+      assertEquals(101L, send("recursion"));
+    }
+  }
+
+  @Test
+  public void testEscapedBlock() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(symbolFor("escaped"), send("escaped"));
+    }
+  }
+
+  @Test
+  public void testActivationsWithAndWithoutReturn() {
+    assertEquals(symbolFor("fallThrough"), send("noReturn:", false));
+    assertEquals(symbolFor("returned"), send("noReturn:", true));
+    assertEquals(symbolFor("fallThrough"), send("noReturn:", false));
+  }
+}
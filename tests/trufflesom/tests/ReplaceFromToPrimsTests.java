@@ -0,0 +1,145 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SInvokable.SMethod;
+
+
+public class ReplaceFromToPrimsTests extends AstTestSetup {
+
+  @BeforeClass
+  public static void init() {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private Object call(final String source, final SArray arr, final SArray replacement) {
+    SMethod method = assembleLastMethod(parseMethod(source));
+    return method.getInvokable().getCallTarget().call(Nil.nilObject, arr, replacement);
+  }
+
+  private Object replace(final SArray arr, final long start, final long stop,
+      final SArray replacement, final long repStart) {
+    return call("test: arr with: rep = ( ^ arr replaceFrom: " + start + " to: " + stop
+        + " with: rep startingAt: " + repStart + " )", arr, replacement);
+  }
+
+  private static Object[] elements(final SArray arr) {
+    Object[] elements = new Object[arr.getLength()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = arr.getValue(i);
+    }
+    return elements;
+  }
+
+  private void assertOutOfBounds(final SArray arr, final long start, final long stop,
+      final SArray replacement, final long repStart) {
+    Object[] before = elements(arr);
+    try {
+      replace(arr, start, stop, replacement, repStart);
+      fail("expected an ArrayIndexOutOfBoundsException");
+    } catch (ArrayIndexOutOfBoundsException e) {
+      // the receiver is not modified
+      assertArrayEquals(before, elements(arr));
+    }
+  }
+
+  @Test
+  public void testReplaceLongArray() {
+    SArray arr = SArray.create(new long[] {1, 2, 3, 4});
+    SArray rep = SArray.create(new long[] {7, 8, 9});
+    assertSame(arr, replace(arr, 2, 3, rep, 2));
+    assertArrayEquals(new Object[] {1L, 8L, 9L, 4L}, elements(arr));
+  }
+
+  @Test
+  public void testReplaceObjectArray() {
+    SArray arr = SArray.create(new Object[] {"a", "b", "c"});
+    SArray rep = SArray.create(new Object[] {"x", "y"});
+    replace(arr, 1, 2, rep, 1);
+    assertArrayEquals(new Object[] {"x", "y", "c"}, elements(arr));
+  }
+
+  @Test
+  public void testReplaceWithDifferentStrategy() {
+    SArray arr = SArray.create(new long[] {1, 2, 3});
+    SArray rep = SArray.create(new double[] {1.5, 2.5});
+    replace(arr, 2, 3, rep, 1);
+    assertArrayEquals(new Object[] {1L, 1.5, 2.5}, elements(arr));
+  }
+
+  @Test
+  public void testReplaceEmptyRange() {
+    SArray arr = SArray.create(new long[] {1, 2});
+    replace(arr, 3, 2, SArray.create(new long[0]), 1);
+    assertArrayEquals(new Object[] {1L, 2L}, elements(arr));
+  }
+
+  @Test
+  public void testOverlappingSelfCopyForward() {
+    SArray arr = SArray.create(new long[] {1, 2, 3, 4, 5});
+    replace(arr, 2, 5, arr, 1);
+    assertArrayEquals(new Object[] {1L, 1L, 2L, 3L, 4L}, elements(arr));
+  }
+
+  @Test
+  public void testOverlappingSelfCopyBackward() {
+    SArray arr = SArray.create(new Object[] {"a", "b", "c", "d"});
+    replace(arr, 1, 3, arr, 2);
+    assertArrayEquals(new Object[] {"b", "c", "d", "d"}, elements(arr));
+  }
+
+  @Test
+  public void testOverlappingSelfCopyPartiallyEmpty() {
+    SArray arr = new SArray(4);
+    call("test: arr with: rep = ( arr at: 1 put: 1. arr at: 2 put: 'b'. "
+        + "^ arr replaceFrom: 2 to: 3 with: arr startingAt: 1 )", arr, arr);
+    assertArrayEquals(new Object[] {1L, 1L, "b", Nil.nilObject}, elements(arr));
+  }
+
+  @Test
+  public void testStartBeforeFirstIndex() {
+    assertOutOfBounds(SArray.create(new long[] {1, 2}), 0, 1,
+        SArray.create(new long[] {3, 4}), 1);
+  }
+
+  @Test
+  public void testStopAfterLastIndex() {
+    assertOutOfBounds(SArray.create(new long[] {1, 2}), 1, 3,
+        SArray.create(new long[] {3, 4, 5}), 1);
+  }
+
+  @Test
+  public void testReplacementTooShort() {
+    assertOutOfBounds(SArray.create(new long[] {1, 2, 3}), 1, 3,
+        SArray.create(new long[] {3, 4, 5}), 2);
+  }
+
+  @Test
+  public void testReplacementTooShortWithDifferentStrategy() {
+    assertOutOfBounds(SArray.create(new long[] {1, 2, 3}), 1, 2,
+        SArray.create(new double[] {1.5}), 1);
+  }
+
+  @Test
+  public void testRepStartBeforeFirstIndex() {
+    assertOutOfBounds(SArray.create(new double[] {1.5, 2.5}), 1, 1,
+        SArray.create(new double[] {3.5}), 0);
+  }
+}
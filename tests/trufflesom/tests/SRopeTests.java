@@ -0,0 +1,150 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SInvokable.SMethod;
+import trufflesom.vmobjects.SRope;
+
+
+public class SRopeTests extends AstTestSetup {
+
+  private static final String FRAGMENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+  @BeforeClass
+  public static void init() {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private Object call(final String source, final Object arg1, final Object arg2) {
+    SMethod method = assembleLastMethod(parseMethod(source));
+    return method.getInvokable().getCallTarget().call(Nil.nilObject, arg1, arg2);
+  }
+
+  private static SRope rope(final Object left, final Object right) {
+    return (SRope) SRope.concat(left, right);
+  }
+
+  @Test
+  public void testShortResultsAreFlat() {
+    assertEquals("abcdef", SRope.concat("abc", "def"));
+    assertEquals(FRAGMENT + "a", SRope.concat(FRAGMENT, "a"));
+  }
+
+  @Test
+  public void testConcatenationIsLazy() {
+    SRope rope = rope(FRAGMENT, FRAGMENT);
+    assertFalse(rope.isFlattened());
+    assertEquals(2L * FRAGMENT.length(), rope.getLength());
+
+    assertEquals(2L * FRAGMENT.length(),
+        call("test: s with: o = ( ^ s length )", rope, Nil.nilObject));
+    assertFalse(rope.isFlattened());
+
+    assertEquals(FRAGMENT + FRAGMENT, rope.getString());
+    assertTrue(rope.isFlattened());
+  }
+
+  @Test
+  public void testCharAtFlattens() {
+    SRope rope = rope(FRAGMENT, FRAGMENT);
+    assertEquals("b", call("test: s with: o = ( ^ s charAt: 12 )", rope, Nil.nilObject));
+    assertTrue(rope.isFlattened());
+  }
+
+  @Test
+  public void testFlattenedRopeIsUnwrapped() {
+    SRope rope = rope(FRAGMENT, FRAGMENT);
+    String flat = rope.getString();
+
+    SRope outer = rope(rope, "!");
+    assertEquals(flat + "!", outer.getString());
+    assertSame(flat, rope.getString());
+  }
+
+  @Test
+  public void testDeepLeftChain() {
+    StringBuilder expected = new StringBuilder();
+    Object result = "";
+    for (int i = 0; i < 100_000; i++) {
+      String fragment = String.valueOf(i % 10);
+      result = SRope.concat(result, fragment);
+      expected.append(fragment);
+    }
+
+    SRope rope = (SRope) result;
+    assertEquals(expected.length(), rope.getLength());
+    assertEquals(expected.toString(), rope.getString());
+  }
+
+  @Test
+  public void testDeepRightChain() {
+    StringBuilder expected = new StringBuilder();
+    Object result = "";
+    for (int i = 0; i < 100_000; i++) {
+      String fragment = String.valueOf(i % 10);
+      result = SRope.concat(fragment, result);
+      expected.insert(0, fragment);
+    }
+
+    assertEquals(expected.toString(), ((SRope) result).getString());
+  }
+
+  @Test
+  public void testDeepChainBuiltInSom() {
+    Object result = call("""
+        test: s with: n = (
+          | r |
+          r := ''.
+          1 to: n do: [:i | r := r concatenate: s ].
+          ^ r )
+        """, "ab", 50_000L);
+
+    SRope rope = (SRope) result;
+    assertFalse(rope.isFlattened());
+    assertEquals("ab".repeat(50_000), rope.getString());
+  }
+
+  @Test
+  public void testEqualsFlatString() {
+    String flat = FRAGMENT + FRAGMENT;
+    String source = "test: a with: b = ( ^ a = b )";
+
+    assertEquals(true, call(source, rope(FRAGMENT, FRAGMENT), flat));
+    assertEquals(true, call(source, flat, rope(FRAGMENT, FRAGMENT)));
+    assertEquals(true, call(source, rope(FRAGMENT, FRAGMENT),
+        rope(FRAGMENT.substring(0, 10), FRAGMENT.substring(10) + FRAGMENT)));
+
+    assertEquals(false, call(source, rope(FRAGMENT, FRAGMENT), flat + "!"));
+    assertEquals(false,
+        call(source, rope(FRAGMENT, FRAGMENT), rope(FRAGMENT, "!" + FRAGMENT)));
+  }
+
+  @Test
+  public void testHashMatchesFlatString() {
+    String flat = FRAGMENT + FRAGMENT;
+    String source = "test: a with: b = ( ^ a hashcode = b hashcode )";
+
+    assertEquals(true, call(source, rope(FRAGMENT, FRAGMENT), flat));
+    assertEquals(true, call(source,
+        rope(FRAGMENT.substring(0, 10), FRAGMENT.substring(10) + FRAGMENT), flat));
+    assertEquals((long) flat.hashCode(),
+        call("test: a with: b = ( ^ a hashcode )", rope(FRAGMENT, FRAGMENT), Nil.nilObject));
+  }
+}
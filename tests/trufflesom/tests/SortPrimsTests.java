@@ -0,0 +1,105 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SInvokable.SMethod;
+
+
+public class SortPrimsTests extends AstTestSetup {
+
+  @BeforeClass
+  public static void init() {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private Object call(final String source, final SArray arr) {
+    SMethod method = assembleLastMethod(parseMethod(source));
+    return method.getInvokable().getCallTarget().call(Nil.nilObject, arr);
+  }
+
+  private static Object[] elements(final Object arr) {
+    SArray result = (SArray) arr;
+    Object[] elements = new Object[result.getLength()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = result.getValue(i);
+    }
+    return elements;
+  }
+
+  @Test
+  public void testSortLongArray() {
+    SArray arr = SArray.create(new long[] {3, -1, 2, Long.MAX_VALUE, 0});
+    assertSame(arr, call("test: arr = ( ^ arr sort )", arr));
+    assertArrayEquals(new Object[] {-1L, 0L, 2L, 3L, Long.MAX_VALUE}, elements(arr));
+  }
+
+  @Test
+  public void testSortIntArray() {
+    SArray arr = SArray.create(new int[] {5, -3, 1});
+    call("test: arr = ( ^ arr sort )", arr);
+    assertArrayEquals(new Object[] {-3L, 1L, 5L}, elements(arr));
+  }
+
+  @Test
+  public void testSortByteArrayIsUnsigned() {
+    SArray arr = SArray.create(new byte[] {(byte) 200, 3, (byte) 128, 0, 3});
+    call("test: arr = ( ^ arr sort )", arr);
+    assertArrayEquals(new Object[] {0L, 3L, 3L, 128L, 200L}, elements(arr));
+  }
+
+  @Test
+  public void testSortDoubleArray() {
+    SArray arr = SArray.create(new double[] {2.5, -1.0, 0.5});
+    call("test: arr = ( ^ arr sort )", arr);
+    assertArrayEquals(new Object[] {-1.0, 0.5, 2.5}, elements(arr));
+  }
+
+  @Test
+  public void testSortObjectArray() {
+    SArray arr = SArray.create(new Object[] {"c", "a", "b"});
+    call("test: arr = ( ^ arr sort )", arr);
+    assertArrayEquals(new Object[] {"a", "b", "c"}, elements(arr));
+  }
+
+  @Test
+  public void testSortWithBlockDescending() {
+    SArray arr = SArray.create(new long[] {1, 3, 2});
+    assertSame(arr, call("test: arr = ( ^ arr sort: [:a :b | a >= b] )", arr));
+    assertArrayEquals(new Object[] {3L, 2L, 1L}, elements(arr));
+  }
+
+  @Test
+  public void testSortWithBlockIsStable() {
+    SArray first = SArray.create(new Object[] {2L, "a"});
+    SArray second = SArray.create(new Object[] {1L, "b"});
+    SArray third = SArray.create(new Object[] {2L, "c"});
+    SArray fourth = SArray.create(new Object[] {1L, "d"});
+    SArray arr = SArray.create(new Object[] {first, second, third, fourth});
+
+    call("test: arr = ( ^ arr sort: [:a :b | (a at: 1) <= (b at: 1)] )", arr);
+    assertArrayEquals(new Object[] {second, fourth, first, third}, elements(arr));
+  }
+
+  @Test(expected = UnsupportedSpecializationException.class)
+  public void testSortWithNonBooleanBlock() {
+    call("test: arr = ( ^ arr sort: [:a :b | 1] )", SArray.create(new long[] {1, 2, 3}));
+  }
+}
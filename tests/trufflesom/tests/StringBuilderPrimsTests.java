@@ -0,0 +1,176 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.vm.Globals;
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable.SMethod;
+import trufflesom.vmobjects.SStringBuilder;
+
+
+public class StringBuilderPrimsTests extends AstTestSetup {
+
+  private static SClass stringBuilderClass;
+
+  @BeforeClass
+  public static void init() throws IOException {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+
+    stringBuilderClass = Universe.loadShellClass("""
+        StringBuilder = (
+          append: obj = primitive
+          appendChar: char = primitive
+          appendInteger: int = primitive
+          reset = primitive
+          asString = primitive
+          length = primitive
+          ----
+          new = primitive
+        )
+        """);
+    Universe.loadPrimitives(stringBuilderClass, false);
+    Globals.setGlobal(stringBuilderClass.getName(), stringBuilderClass);
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private Object call(final String source, final Object arg) {
+    SMethod method = assembleLastMethod(parseMethod(source));
+    return method.getInvokable().getCallTarget().call(Nil.nilObject, arg);
+  }
+
+  @Test
+  public void testNew() {
+    Object sb = call("test: cls = ( ^ cls new )", stringBuilderClass);
+    assertTrue(sb instanceof SStringBuilder);
+    assertSame(stringBuilderClass, ((SStringBuilder) sb).getSOMClass());
+  }
+
+  @Test
+  public void testAppend() {
+    assertEquals("abcsym-42", call("""
+        test: cls = (
+          | sb |
+          sb := cls new.
+          (sb append: 'abc') == sb ifFalse: [ ^ 'append: does not return the receiver' ].
+          sb append: #sym.
+          sb append: -42.
+          ^ sb asString )
+        """, stringBuilderClass));
+  }
+
+  @Test
+  public void testAppendDoubleMatchesAsString() {
+    assertEquals(true, call("""
+        test: cls = (
+          | sb d |
+          d := 0.1 + 0.2.
+          sb := cls new.
+          sb append: d.
+          ^ sb asString = d asString )
+        """, stringBuilderClass));
+  }
+
+  @Test
+  public void testLength() {
+    assertEquals(5L, call("""
+        test: cls = (
+          | sb |
+          sb := cls new.
+          sb append: 'abc'.
+          sb appendInteger: 42.
+          ^ sb length )
+        """, stringBuilderClass));
+  }
+
+  @Test
+  public void testAppendChar() {
+    assertEquals("ab\uD83D\uDE00", call("""
+        test: cls = (
+          | sb |
+          sb := cls new.
+          sb appendChar: 'a'.
+          sb appendChar: 98.
+          sb appendChar: 128512.
+          ^ sb asString )
+        """, stringBuilderClass));
+  }
+
+  @Test
+  public void testAppendCharWithInvalidCodePoint() {
+    assertEquals("Error - not a valid code point",
+        call("test: cls = ( ^ cls new appendChar: -1 )", stringBuilderClass));
+    assertEquals("Error - not a valid code point",
+        call("test: cls = ( ^ cls new appendChar: 1114112 )", stringBuilderClass));
+    assertEquals("Error - not a valid code point",
+        call("test: cls = ( ^ cls new appendChar: 4294967361 )", stringBuilderClass));
+  }
+
+  @Test
+  public void testAppendInteger() {
+    assertEquals("7100000000000000000000", call("""
+        test: cls = (
+          | sb |
+          sb := cls new.
+          sb appendInteger: 7.
+          sb appendInteger: 100000000000000000000.
+          ^ sb asString )
+        """, stringBuilderClass));
+  }
+
+  @Test
+  public void testReset() {
+    assertEquals("d", call("""
+        test: cls = (
+          | sb |
+          sb := cls new.
+          sb append: 'abc'.
+          sb reset length = 0 ifFalse: [ ^ 'reset did not empty the buffer' ].
+          sb append: 'd'.
+          ^ sb asString )
+        """, stringBuilderClass));
+  }
+
+  @Test
+  public void testSubclassWithoutFields() throws IOException {
+    SClass subclass = Universe.loadShellClass("""
+        StringBuilderWithoutFields = StringBuilder (
+          appendTwice: str = ( self append: str. self append: str )
+        )
+        """);
+    assertEquals("abab", call("""
+        test: cls = (
+          | sb |
+          sb := cls new.
+          sb appendTwice: 'ab'.
+          ^ sb asString )
+        """, subclass));
+  }
+
+  @Test
+  public void testSubclassWithFieldsIsRejected() throws IOException {
+    SClass subclass = Universe.loadShellClass("""
+        StringBuilderWithFields = StringBuilder (
+          | count |
+        )
+        """);
+    assertEquals("Error - subclasses of StringBuilder cannot have fields",
+        call("test: cls = ( ^ cls new )", subclass));
+  }
+}
@@ -0,0 +1,100 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.primitives.basics.StringPrims;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SInvokable.SMethod;
+import trufflesom.vmobjects.SRope;
+
+
+public class StringPrimsTests extends AstTestSetup {
+
+  @BeforeClass
+  public static void init() {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  private Object call(final String source, final Object arg) {
+    SMethod method = assembleLastMethod(parseMethod(source));
+    return method.getInvokable().getCallTarget().call(Nil.nilObject, arg);
+  }
+
+  @Test
+  public void testCharStringIsInternedForLatin1() {
+    for (char c = 0; c < 256; c++) {
+      assertSame(String.valueOf(c).intern(), StringPrims.charString(c));
+    }
+    assertEquals("\u0100", StringPrims.charString('\u0100'));
+  }
+
+  @Test
+  public void testCharAtAnswersInternedString() {
+    assertSame(StringPrims.charString('b'), call("test: s = ( ^ s charAt: 2 )", "abc"));
+    assertSame(StringPrims.charString('\u00FF'),
+        call("test: s = ( ^ s charAt: 1 )", "\u00FF"));
+  }
+
+  @Test
+  public void testCharCodeAt() {
+    assertEquals(98L, call("test: s = ( ^ s charCodeAt: 2 )", "abc"));
+    assertEquals(98L,
+        call("test: s = ( ^ s charCodeAt: 2 )", SymbolTable.symbolFor("abc")));
+    assertEquals(100L,
+        call("test: s = ( ^ s charCodeAt: 4 )", SRope.concat("abc", "def")));
+  }
+
+  @Test
+  public void testCharCodeAtOutOfBounds() {
+    assertEquals("Error - index out of bounds",
+        call("test: s = ( ^ s charCodeAt: 0 )", "abc"));
+    assertEquals("Error - index out of bounds",
+        call("test: s = ( ^ s charCodeAt: 4 )", "abc"));
+  }
+
+  @Test
+  public void testCharCodeAtAnswersCodeUnits() {
+    String emoji = "\uD83D\uDE00";
+    assertEquals(0xD83DL, call("test: s = ( ^ s charCodeAt: 1 )", emoji));
+    assertEquals(0xDE00L, call("test: s = ( ^ s charCodeAt: 2 )", emoji));
+  }
+
+  @Test
+  public void testAsCharacterString() {
+    assertSame(StringPrims.charString('a'), call("test: i = ( ^ i asCharacterString )", 97L));
+    assertEquals("\u20AC", call("test: i = ( ^ i asCharacterString )", 0x20ACL));
+  }
+
+  @Test
+  public void testAsCharacterStringOutOfRange() {
+    assertEquals("Error - not a valid character code",
+        call("test: i = ( ^ i asCharacterString )", -1L));
+    assertEquals("Error - not a valid character code",
+        call("test: i = ( ^ i asCharacterString )", 0x10000L));
+  }
+
+  @Test
+  public void testCharCodeAtRoundTripsWithAsCharacterString() {
+    assertEquals(true, call("""
+        test: s = (
+          1 to: s length do: [:i |
+            (s charCodeAt: i) asCharacterString = (s charAt: i) ifFalse: [ ^ false ] ].
+          ^ true )
+        """, "a\u00FF\u20AC\uD83D\uDE00"));
+  }
+}
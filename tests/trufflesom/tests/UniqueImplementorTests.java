@@ -0,0 +1,61 @@
+package trufflesom.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.io.IOException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.api.nodes.NodeUtil;
+
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.nodes.dispatch.UniqueImplementorDispatchNode;
+import trufflesom.vm.ClassHierarchyAnalysis;
+import trufflesom.vm.Classes;
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+
+
+public class UniqueImplementorTests extends AstTestSetup {
+
+  @BeforeClass
+  public static void init() {
+    Universe.setupClassPath("Smalltalk");
+
+    enterContext();
+    Universe.initializeObjectSystem();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  @Test
+  public void testObjectMethodAfterLoadingClassWithoutObjectAsSuperclass()
+      throws IOException {
+    // install a method that is only implemented in Object
+    SClass helper = Universe.loadShellClass(
+        "UniqueImplementorHelper = ( uniqueImplementorTest = ( ^ 42 ) )");
+    SInvokable method = helper.lookupInvokable(symbolFor("uniqueImplementorTest"));
+    Classes.objectClass.addPrimitive(method);
+
+    Universe.loadShellClass("UniqueImplementorNilRoot = nil ( )");
+    assertFalse(ClassHierarchyAnalysis.getAllClassesInheritFromObject().isValid());
+
+    Invokable invokable = assembleLastMethod(
+        parseMethod("test: o = ( ^ o uniqueImplementorTest )")).getInvokable();
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(42L, invokable.getCallTarget().call(Nil.nilObject, Nil.nilObject));
+    }
+    assertEquals(1,
+        NodeUtil.findAllNodeInstances(invokable, UniqueImplementorDispatchNode.class).size());
+  }
+}
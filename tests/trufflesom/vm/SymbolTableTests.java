@@ -0,0 +1,77 @@
+package trufflesom.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import trufflesom.vmobjects.SSymbol;
+
+
+public class SymbolTableTests {
+
+  @Test
+  public void testSymbolsAreInterned() {
+    SSymbol sym = SymbolTable.symbolFor("symbolTableTest:");
+
+    assertSame(sym, SymbolTable.symbolFor("symbolTableTest:"));
+    assertSame(sym, SymbolTable.symbolFor(new StringBuilder("symbolTableTest:"), 0, 16));
+    assertSame(sym, SymbolTable.symbolFor("xxsymbolTableTest:xx", 2, 18));
+    assertSame(sym, SymbolTable.weakSymbolFor("symbolTableTest:"));
+    assertEquals("symbolTableTest:", sym.getString());
+  }
+
+  @Test
+  public void testWeakSymbolsAreInterned() {
+    SSymbol sym = SymbolTable.weakSymbolFor("weakSymbolTableTest");
+
+    assertSame(sym, SymbolTable.weakSymbolFor("weakSymbolTableTest"));
+    assertSame(sym, SymbolTable.symbolFor("weakSymbolTableTest"));
+  }
+
+  @Test
+  public void testDifferentStringsGiveDifferentSymbols() {
+    assertNotSame(SymbolTable.symbolFor("symbolTableA"),
+        SymbolTable.symbolFor("symbolTableB"));
+  }
+
+  @Test
+  public void testInterningSurvivesRebuild() {
+    SSymbol sym = SymbolTable.symbolFor("symbolTableBeforeRebuild");
+
+    ArrayList<SSymbol> others = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      others.add(SymbolTable.symbolFor("symbolTableRebuild" + i));
+    }
+
+    assertSame(sym, SymbolTable.symbolFor("symbolTableBeforeRebuild"));
+    for (int i = 0; i < others.size(); i++) {
+      assertSame(others.get(i), SymbolTable.symbolFor("symbolTableRebuild" + i));
+    }
+  }
+
+  @Test
+  public void testSelectorIdIsReusedAfterSymbolIsCollected() {
+    SSymbol sym = SymbolTable.weakSymbolFor("releasedSelectorTest:");
+    int id = sym.ensureSelectorId();
+    assertEquals(id, sym.ensureSelectorId());
+
+    SymbolTable.releaseSelectorId(id);
+
+    // ids of other collected symbols may be handed out first, but no new ones
+    int numIds = SymbolTable.getNumberOfSelectorIds();
+    ArrayList<SSymbol> newSymbols = new ArrayList<>();
+    int newId;
+    do {
+      SSymbol newSym =
+          SymbolTable.weakSymbolFor("reusedSelectorTest" + newSymbols.size() + ":");
+      newSymbols.add(newSym);
+      newId = newSym.ensureSelectorId();
+      assertTrue(newId < numIds);
+    } while (newId != id);
+  }
+}